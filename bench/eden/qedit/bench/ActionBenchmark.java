@@ -0,0 +1,139 @@
+package eden.qedit.bench;
+
+import eden.common.model.cd.CueSheet;
+import eden.common.util.CueSheets;
+import eden.qedit.action.CueSheetAction;
+import eden.qedit.io.Output;
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures every action on its own. Each invocation works on a freshly parsed
+ * cuesheet so that no action sees the results of its previous invocation.
+ * The parse is not timed, but its allocations are counted, so those of
+ * `ParseBenchmark.parseFile` are to be subtracted. `print` prints to nowhere.
+ *
+ * @author Brendon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+public class ActionBenchmark {
+
+  /** Action key. */
+  @Param(
+    {
+      "check",
+      "index-to-pregap",
+      "pregap-to-index",
+      "no-catalog",
+      "no-cdtext",
+      "no-isrc",
+      "no-performer",
+      "no-session-performer",
+      "no-track-performer",
+      "no-postgap",
+      "no-pregap",
+      "no-rem",
+      "no-songwriter",
+      "no-session-songwriter",
+      "no-track-songwriter",
+      "no-title",
+      "no-session-title",
+      "no-track-title",
+      "print",
+      "set-eol",
+      "set-performer",
+      "set-session-performer",
+      "set-track-performer",
+      "set-postgap",
+      "set-pregap",
+      "set-songwriter",
+      "set-session-songwriter",
+      "set-track-songwriter",
+      "set-title",
+      "set-session-title",
+      "set-track-title",
+      "shift-times",
+      "swap-authors",
+      "write",
+    }
+  )
+  public String action;
+
+  /** Sheet name. */
+  @Param(
+    {
+      "198-indexes",
+      "99-indexes",
+      "99-tracks",
+      "bad-tracks",
+      "flags",
+      "jcroot",
+      "no-indexes",
+      "track-24",
+      "synthetic-1",
+      "synthetic-99",
+    }
+  )
+  public String sheet;
+
+  /** Action under measurement. */
+  private CueSheetAction instance;
+  /** Sheet file. */
+  private File file;
+  /** Working cuesheet. */
+  private CueSheet working;
+
+  @Setup
+  public void setup() throws Exception {
+    this.instance = Sheets.action(this.action);
+    this.file = Sheets.file(this.sheet);
+    Output.set(
+      new PrintStream(
+        new OutputStream() {
+          /** {@inheritDoc} */
+          @Override
+          public void write(int b) {}
+
+          /** {@inheritDoc} */
+          @Override
+          public void write(byte[] b, int off, int len) {}
+        }
+      )
+    );
+  }
+
+  @Setup(Level.Invocation)
+  public void parse() throws Exception {
+    this.working = CueSheets.parse(this.file);
+  }
+
+  @TearDown
+  public void tearDown() {
+    Output.reset();
+  }
+
+  @Benchmark
+  public boolean run() throws Exception {
+    return this.instance.run(this.working);
+  }
+}
@@ -0,0 +1,28 @@
+package eden.qedit.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs benchmarks with allocation profiling. Arguments are those of JMH, e.g.
+ * a benchmark name pattern or `-p sheet=jcroot`.
+ *
+ * @author Brendon
+ */
+public class Benchmarks {
+
+  public static void main(String[] arguments) throws Exception {
+    new Runner(
+      new OptionsBuilder()
+        .parent(new CommandLineOptions(arguments))
+        .addProfiler(GCProfiler.class)
+        .build()
+    )
+      .run();
+  }
+
+  /** To prevent instantiations of this class. */
+  protected Benchmarks() {}
+}
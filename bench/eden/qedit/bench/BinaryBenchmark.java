@@ -0,0 +1,91 @@
+package eden.qedit.bench;
+
+import eden.common.model.cd.CueSheet;
+import eden.common.util.CueSheets;
+import eden.qedit.io.CueSheetBinary;
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading and storing cuesheets in the binary format against parsing
+ * and writing them as text by the library.
+ *
+ * @author Brendon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class BinaryBenchmark {
+
+  /** Sheet name. */
+  @Param(
+    {
+      "198-indexes",
+      "99-indexes",
+      "99-tracks",
+      "bad-tracks",
+      "flags",
+      "jcroot",
+      "no-indexes",
+      "track-24",
+      "synthetic-1",
+      "synthetic-99",
+    }
+  )
+  public String sheet;
+
+  /** Sheet file. */
+  private File file;
+  /** Sheet text. */
+  private String text;
+  /** Parsed cuesheet. */
+  private CueSheet parsed;
+  /** Encoded cuesheet. */
+  private byte[] encoded;
+
+  @Setup
+  public void setup() throws Exception {
+    this.file = Sheets.file(this.sheet);
+    this.text = Sheets.text(this.sheet);
+    this.parsed = CueSheets.parse(this.file);
+    this.encoded = CueSheetBinary.write(this.parsed);
+  }
+
+  @Benchmark
+  public CueSheet parseText() throws Exception {
+    return CueSheets.parse(this.text);
+  }
+
+  @Benchmark
+  public CueSheet readBinary() throws Exception {
+    return CueSheetBinary.read(ByteBuffer.wrap(this.encoded), this.file);
+  }
+
+  @Benchmark
+  public int writeText() throws Exception {
+    StringWriter writer = new StringWriter(this.text.length());
+    CueSheets.write(this.parsed, writer);
+    return writer.getBuffer().length();
+  }
+
+  @Benchmark
+  public int writeBinary() {
+    return CueSheetBinary.write(this.parsed).length;
+  }
+}
@@ -0,0 +1,92 @@
+package eden.qedit.bench;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import eden.common.model.cd.CueSheet;
+import eden.common.util.CueSheets;
+import eden.qedit.io.CharsetDetector;
+import eden.qedit.io.CueSheetByteParser;
+import java.io.File;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures detecting the charset of a synthetic cuesheet of 99 tracks with
+ * Japanese or Western titles, and parsing it in one pass against decoding it
+ * as UTF-8 first and again in its charset once that fails.
+ *
+ * @author Brendon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class CharsetBenchmark {
+
+  /** Charset name. */
+  @Param({ "UTF-8", "windows-31j", "windows-1252", "x-UTF-16LE-BOM" })
+  public String charset;
+
+  /** Sheet file, which is not read. */
+  private final File file = new File("synthetic.cue");
+  /** Sheet charset. */
+  private Charset decoded;
+  /** Sheet bytes. */
+  private ByteBuffer bytes;
+
+  @Setup
+  public void setup() throws Exception {
+    this.decoded = Charset.forName(this.charset);
+    String title = this.decoded.equals(CharsetDetector.WINDOWS_1252)
+      ? "Déjà vu"
+      : "東京事変";
+    this.bytes =
+      ByteBuffer.wrap(
+        Sheets.synthesize(99).replace("Title", title).getBytes(this.decoded)
+      );
+  }
+
+  @Benchmark
+  public Charset detect() {
+    return CharsetDetector.detect(this.bytes);
+  }
+
+  @Benchmark
+  public CueSheet parseBytes() throws Exception {
+    return CueSheetByteParser.parse(this.file, this.bytes);
+  }
+
+  @Benchmark
+  public CueSheet parseTwice() throws Exception {
+    String text;
+    try {
+      text =
+        UTF_8
+          .newDecoder()
+          .onMalformedInput(CodingErrorAction.REPORT)
+          .onUnmappableCharacter(CodingErrorAction.REPORT)
+          .decode(this.bytes.duplicate())
+          .toString();
+    } catch (CharacterCodingException exception) {
+      text = this.decoded.decode(this.bytes.duplicate()).toString();
+    }
+    return CueSheets.parse(new StringReader(text));
+  }
+}
@@ -0,0 +1,76 @@
+package eden.qedit.bench;
+
+import eden.qedit.util.AudioChecksum;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the inner loops of track checksums over 16 MiB of random samples
+ * in a direct buffer, as a mapped window is: CRC32 and the AccurateRip sums
+ * alone, and both as a track is summed.
+ *
+ * @author Brendon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+public class ChecksumBenchmark {
+
+  /** Buffer size in bytes. */
+  @Param({ "16777216" })
+  public int size;
+
+  /** Samples. */
+  private ByteBuffer bytes;
+
+  @Setup
+  public void setup() {
+    byte[] array = new byte[this.size];
+    new Random(0).nextBytes(array);
+    this.bytes =
+      ByteBuffer.allocateDirect(this.size).order(ByteOrder.LITTLE_ENDIAN);
+    this.bytes.put(array).flip();
+  }
+
+  @Benchmark
+  public long crc32() {
+    CRC32 crc = new CRC32();
+    crc.update(this.bytes.duplicate());
+    return crc.getValue();
+  }
+
+  @Benchmark
+  public long accurateRip() {
+    long[] sums = new long[2];
+    AudioChecksum.accumulate(this.bytes, 0, this.size, 1, sums);
+    return sums[0] + sums[1];
+  }
+
+  @Benchmark
+  public int update() {
+    AudioChecksum checksum = new AudioChecksum(
+      this.size / AudioChecksum.SAMPLE_SIZE,
+      true,
+      true
+    );
+    checksum.update(this.bytes);
+    return checksum.getAccurateRipV2() ^ checksum.getCrc32();
+  }
+}
@@ -0,0 +1,79 @@
+package eden.qedit.bench;
+
+import eden.common.model.cd.CueSheet;
+import eden.common.util.CueSheets;
+import eden.qedit.action.ColumnarAction;
+import eden.qedit.action.CueSheetAction;
+import eden.qedit.action.FusedAction;
+import eden.qedit.action.IndexToPregap;
+import eden.qedit.action.NoPostgap;
+import eden.qedit.action.PregapToIndex;
+import eden.qedit.action.SetPregap;
+import eden.qedit.action.ShiftTimes;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares running a chain of 6 time code actions on the object model against
+ * running it over one frame table. The chain leaves the cuesheet as it found
+ * it after the first run.
+ *
+ * @author Brendon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+public class ColumnarBenchmark {
+
+  /** Whether to run the chain over a frame table. */
+  @Param({ "false", "true" })
+  public boolean columnar;
+
+  /** Sheet name. */
+  @Param({ "198-indexes", "synthetic-99" })
+  public String sheet;
+
+  /** Actions to run. */
+  private List<CueSheetAction> actions;
+  /** Working cuesheet. */
+  private CueSheet working;
+
+  @Setup
+  public void setup() throws Exception {
+    List<CueSheetAction> chain = Arrays.asList(
+      new SetPregap(150),
+      new PregapToIndex(),
+      new ShiftTimes(75),
+      new IndexToPregap(),
+      new ShiftTimes(-75),
+      new NoPostgap()
+    );
+    this.actions =
+      FusedAction.fuse(this.columnar ? ColumnarAction.group(chain) : chain);
+    this.working = CueSheets.parse(Sheets.file(this.sheet));
+  }
+
+  @Benchmark
+  public boolean run() throws Exception {
+    boolean out = true;
+    for (CueSheetAction action : this.actions) {
+      out &= action.run(this.working);
+    }
+    return out;
+  }
+}
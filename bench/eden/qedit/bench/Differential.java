@@ -0,0 +1,207 @@
+package eden.qedit.bench;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import eden.common.model.cd.CueSheet;
+import eden.common.model.plaintext.LineEnding;
+import eden.common.util.CueSheets;
+import eden.qedit.io.CueSheetByteParser;
+import eden.qedit.io.CueSheetSerializer;
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Checks that the byte parser and the serializer agree with the library. Each
+ * named sheet, by default every sampler file and `synthetic-99`, is taken
+ * whole and cut after each of its lines, so that incomplete sheets give error
+ * cases. For each:
+ *
+ * - `CueSheetByteParser` is to parse the same session as `CueSheets.parse`,
+ * or fail with the same exception.
+ *
+ * - `CueSheetSerializer` is to write the same bytes as `CueSheets.write` for
+ * the sessions of both.
+ *
+ * Those on which the library does not return in time are skipped, as it hangs
+ * on files without line breaks. Those on which it fails are counted. It exits
+ * with 1 if any differ.
+ *
+ * @author Brendon
+ */
+public class Differential {
+
+  /** Seconds to wait for the library parser. */
+  static final int TIMEOUT = 5;
+
+  /** Library parser executor, replaced after a timeout. */
+  private static ExecutorService executor = newExecutor();
+  /** Number of cases on which the library failed. */
+  private static int failures = 0;
+
+  public static void main(String[] arguments) throws Exception {
+    List<String> names = new ArrayList<>(Arrays.asList(arguments));
+    if (names.isEmpty()) {
+      for (String file : new File(Sheets.SAMPLER).list()) {
+        if (file.endsWith(".cue")) {
+          names.add(file.substring(0, file.length() - 4));
+        }
+      }
+      names.sort(null);
+      names.add(Sheets.SYNTHETIC + 99);
+    }
+    Path directory = Files.createTempDirectory("qedit-differential");
+    File file = directory.resolve("case.cue").toFile();
+    int same = 0, different = 0, skipped = 0;
+    try {
+      for (String name : names) {
+        byte[] bytes = Files.readAllBytes(Sheets.file(name).toPath());
+        List<Integer> ends = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i++) {
+          if (bytes[i] == '\n') {
+            ends.add(i + 1);
+          }
+        }
+        if (ends.isEmpty() || ends.get(ends.size() - 1) != bytes.length) {
+          ends.add(bytes.length);
+        }
+        for (int line = 0; line < ends.size(); line++) {
+          String label = line + 1 == ends.size()
+            ? name
+            : name + " up to line " + (line + 1);
+          Files.write(file.toPath(), Arrays.copyOf(bytes, ends.get(line)));
+          String result = check(file);
+          if (result == null) {
+            skipped++;
+          } else if (result.isEmpty()) {
+            same++;
+          } else {
+            different++;
+            System.out.println(label + ": " + result);
+          }
+        }
+      }
+    } finally {
+      Files.deleteIfExists(file.toPath());
+      Files.delete(directory);
+    }
+    System.out.println(
+      "Same: " +
+      same +
+      ", different: " +
+      different +
+      ", skipped: " +
+      skipped +
+      ", failing: " +
+      failures
+    );
+    System.exit(different > 0 ? 1 : 0);
+  }
+
+  /**
+   * Returns the differences on the given file, empty if none, or null if the
+   * library does not return in time.
+   */
+  private static String check(File file) throws Exception {
+    Future<Object> future = executor.submit(() ->
+      parse(() -> CueSheets.parse(file))
+    );
+    Object expected;
+    try {
+      expected = future.get(TIMEOUT, TimeUnit.SECONDS);
+    } catch (TimeoutException exception) {
+      executor.shutdownNow();
+      executor = newExecutor();
+      return null;
+    }
+    if (!(expected instanceof CueSheet)) {
+      failures++;
+    }
+    Object actual = parse(() -> CueSheetByteParser.parse(file));
+    String wanted = describe(expected), got = describe(actual);
+    if (!wanted.equals(got)) {
+      return "parsed\n--- library\n" + wanted + "\n--- qedit\n" + got;
+    }
+    StringBuilder out = new StringBuilder();
+    for (Object sheet : new Object[] { expected, actual }) {
+      if (sheet instanceof CueSheet) {
+        byte[] library = write((CueSheet) sheet);
+        byte[] qedit = serialize((CueSheet) sheet);
+        if (!Arrays.equals(library, qedit)) {
+          out
+            .append("written")
+            .append(sheet == expected ? " from library" : " from qedit")
+            .append("\n--- library\n")
+            .append(new String(library, UTF_8))
+            .append("\n--- qedit\n")
+            .append(new String(qedit, UTF_8));
+        }
+      }
+    }
+    return out.toString();
+  }
+
+  /** Returns the cuesheet of the given parser, or its exception. */
+  private static Object parse(Callable<CueSheet> parser) {
+    try {
+      return parser.call();
+    } catch (Exception | StackOverflowError exception) {
+      return exception;
+    }
+  }
+
+  /** Returns the given parse result in comparable text. */
+  private static String describe(Object result) {
+    if (!(result instanceof CueSheet)) {
+      Throwable exception = (Throwable) result;
+      return exception.getClass().getName() + ": " + exception.getMessage();
+    }
+    CueSheet sheet = (CueSheet) result;
+    return (
+      sheet.getFile().getLineEnding().getName() +
+      "\n" +
+      sheet.getSession().toString(LineEnding.LF)
+    );
+  }
+
+  /** Returns the given cuesheet as written by the library. */
+  private static byte[] write(CueSheet sheet) throws Exception {
+    StringWriter writer = new StringWriter();
+    CueSheets.write(sheet, writer);
+    return writer.toString().getBytes(UTF_8);
+  }
+
+  /** Returns the given cuesheet as written by `write`. */
+  private static byte[] serialize(CueSheet sheet) throws Exception {
+    ByteBuffer buffer = CueSheetSerializer.encode(
+      CueSheetSerializer.render(sheet),
+      CueSheetSerializer.getCharset(sheet)
+    );
+    byte[] out = new byte[buffer.remaining()];
+    buffer.get(out);
+    return out;
+  }
+
+  /** Returns a new library parser executor of a daemon thread. */
+  private static ExecutorService newExecutor() {
+    return Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "Differential");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /** To prevent instantiations of this class. */
+  protected Differential() {}
+}
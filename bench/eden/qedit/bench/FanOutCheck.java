@@ -0,0 +1,181 @@
+package eden.qedit.bench;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import eden.common.model.cd.CueSheet;
+import eden.qedit.action.CueSheetAction;
+import eden.qedit.action.ExtractTracks;
+import eden.qedit.action.FanOutAction;
+import eden.qedit.action.Print;
+import eden.qedit.action.Write;
+import eden.qedit.io.CueSheetByteParser;
+import eden.qedit.io.CueSheetSerializer;
+import eden.qedit.io.Output;
+import eden.qedit.io.OutputFile;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Checks that actions which render cuesheets of their own leave the output
+ * actions around them intact: `print extract-tracks out print` and the same
+ * with `write` are to output the working cuesheet twice, whether grouped as
+ * by the planner or run in one fan-out. It exits with 1 if any do not.
+ *
+ * @author Brendon
+ */
+public class FanOutCheck {
+
+  /** Image tracks. */
+  static final int TRACKS = 3;
+  /** Frames per image track. */
+  static final int FRAMES = 75;
+  /** Bytes in a CD frame. */
+  static final int FRAME_SIZE = 2352;
+
+  /** Number of failed checks. */
+  private static int failures = 0;
+
+  public static void main(String[] arguments) throws Exception {
+    Path directory = Files.createTempDirectory("qedit-fan-out");
+    try {
+      Path sheet = makeSheet(directory);
+      String out = directory.resolve("out").toString();
+      checkPrint(sheet, out, false);
+      checkPrint(sheet, out, true);
+      checkWrite(sheet, out, false);
+      checkWrite(sheet, out, true);
+    } finally {
+      try (Stream<Path> stream = Files.walk(directory)) {
+        for (Path path : (Iterable<Path>) stream
+          .sorted(Comparator.reverseOrder())::iterator) {
+          Files.delete(path);
+        }
+      }
+    }
+    System.out.println(failures == 0 ? "Same" : "Failed: " + failures);
+    System.exit(failures > 0 ? 1 : 0);
+  }
+
+  /** Checks `print extract-tracks <out> print` on the given sheet. */
+  private static void checkPrint(Path sheet, String out, boolean fanOut)
+    throws Exception {
+    CueSheet parsed = CueSheetByteParser.parse(sheet.toFile());
+    String expected = CueSheetSerializer.render(parsed).toString();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    Output.set(new PrintStream(bytes, true, UTF_8.name()));
+    try {
+      run(parsed, fanOut, new Print(), new ExtractTracks(out), new Print());
+    } finally {
+      Output.reset();
+    }
+    check(
+      "print" + (fanOut ? " in fan-out" : ""),
+      expected + expected,
+      new String(bytes.toByteArray(), UTF_8)
+    );
+  }
+
+  /** Checks `write a extract-tracks <out> write b` on the given sheet. */
+  private static void checkWrite(Path sheet, String out, boolean fanOut)
+    throws Exception {
+    Path directory = sheet.getParent();
+    Path first = directory.resolve("first.cue");
+    Path second = directory.resolve("second.cue");
+    Files.deleteIfExists(first);
+    Files.deleteIfExists(second);
+    CueSheet parsed = CueSheetByteParser.parse(sheet.toFile());
+    String expected = CueSheetSerializer.render(parsed).toString();
+    run(
+      parsed,
+      fanOut,
+      new Write(first.toString()),
+      new ExtractTracks(out),
+      new Write(second.toString())
+    );
+    OutputFile.flush();
+    String label = "write" + (fanOut ? " in fan-out" : "");
+    check(label + " before", expected, read(first));
+    check(label + " after", expected, read(second));
+  }
+
+  /**
+   * Runs the given actions on the given cuesheet, in one fan-out or grouped
+   * as by the planner.
+   */
+  private static void run(
+    CueSheet sheet,
+    boolean fanOut,
+    CueSheetAction... actions
+  ) throws Exception {
+    List<CueSheetAction> list = fanOut
+      ? Arrays.asList(new FanOutAction(Arrays.asList(actions)))
+      : FanOutAction.group(Arrays.asList(actions));
+    for (CueSheetAction action : list) {
+      if (!action.run(sheet)) {
+        throw new IllegalStateException(action + " failed");
+      }
+    }
+  }
+
+  /** Counts and reports the given check if it differs. */
+  private static void check(String label, String expected, String actual) {
+    if (!expected.equals(actual)) {
+      failures++;
+      System.out.println(
+        label + "\n--- expected\n" + expected + "\n--- actual\n" + actual
+      );
+    }
+  }
+
+  /** Returns the content of the given file, or empty if there is none. */
+  private static String read(Path path) throws IOException {
+    return Files.exists(path)
+      ? new String(Files.readAllBytes(path), UTF_8)
+      : "";
+  }
+
+  /**
+   * Writes a silent WAVE image of CD-DA with a cuesheet of its tracks into
+   * the given directory, and returns the cuesheet.
+   */
+  private static Path makeSheet(Path directory) throws IOException {
+    int length = TRACKS * FRAMES * FRAME_SIZE;
+    ByteBuffer header = ByteBuffer.allocate(44).order(ByteOrder.LITTLE_ENDIAN);
+    header
+      .put("RIFF".getBytes(UTF_8))
+      .putInt(36 + length)
+      .put("WAVEfmt ".getBytes(UTF_8))
+      .putInt(16)
+      .putShort((short) 1)
+      .putShort((short) 2)
+      .putInt(44100)
+      .putInt(44100 * 4)
+      .putShort((short) 4)
+      .putShort((short) 16)
+      .put("data".getBytes(UTF_8))
+      .putInt(length);
+    byte[] image = Arrays.copyOf(header.array(), 44 + length);
+    Files.write(directory.resolve("image.wav"), image);
+    StringBuilder text = new StringBuilder("FILE \"image.wav\" WAVE\n");
+    for (int i = 1; i <= TRACKS; i++) {
+      text
+        .append(String.format("  TRACK %02d AUDIO\n", i))
+        .append(String.format("    INDEX 01 00:%02d:00\n", i - 1));
+    }
+    Path out = directory.resolve("album.cue");
+    Files.write(out, text.toString().getBytes(UTF_8));
+    return out;
+  }
+
+  /** To prevent instantiations of this class. */
+  protected FanOutCheck() {}
+}
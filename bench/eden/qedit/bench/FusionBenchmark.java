@@ -0,0 +1,93 @@
+package eden.qedit.bench;
+
+import eden.common.model.cd.CueSheet;
+import eden.common.util.CueSheets;
+import eden.qedit.action.CueSheetAction;
+import eden.qedit.action.FusedAction;
+import eden.qedit.action.NoCDText;
+import eden.qedit.action.NoCatalog;
+import eden.qedit.action.NoISRC;
+import eden.qedit.action.NoPostgap;
+import eden.qedit.action.NoRem;
+import eden.qedit.action.NoTitle;
+import eden.qedit.action.SetPerformer;
+import eden.qedit.action.SetPostgap;
+import eden.qedit.action.SetPregap;
+import eden.qedit.action.SetSongwriter;
+import eden.qedit.action.SetTitle;
+import eden.qedit.action.ShiftTimes;
+import eden.qedit.action.SwapAuthors;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares running a chain of 15 actions one traversal each against running
+ * it fused. The chain leaves the cuesheet as it found it after the first run.
+ *
+ * @author Brendon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+public class FusionBenchmark {
+
+  /** Whether to fuse the chain. */
+  @Param({ "false", "true" })
+  public boolean fused;
+
+  /** Sheet name. */
+  @Param({ "synthetic-99" })
+  public String sheet;
+
+  /** Actions to run. */
+  private List<CueSheetAction> actions;
+  /** Working cuesheet. */
+  private CueSheet working;
+
+  @Setup
+  public void setup() throws Exception {
+    List<CueSheetAction> chain = Arrays.asList(
+      new NoRem(),
+      new NoISRC(),
+      new NoCatalog(),
+      new SetTitle(CueSheetAction.Mode.ALL, "Title"),
+      new SetPerformer(CueSheetAction.Mode.TRACK, "Performer"),
+      new SetSongwriter(CueSheetAction.Mode.SESSION, "Songwriter"),
+      new SwapAuthors(),
+      new NoTitle(CueSheetAction.Mode.SESSION),
+      new SetPregap(150),
+      new NoPostgap(),
+      new SetPostgap(75),
+      new ShiftTimes(75),
+      new ShiftTimes(-75),
+      new NoCDText(),
+      new SwapAuthors()
+    );
+    this.actions = this.fused ? FusedAction.fuse(chain) : chain;
+    this.working = CueSheets.parse(Sheets.file(this.sheet));
+  }
+
+  @Benchmark
+  public boolean run() throws Exception {
+    boolean out = true;
+    for (CueSheetAction action : this.actions) {
+      out &= action.run(this.working);
+    }
+    return out;
+  }
+}
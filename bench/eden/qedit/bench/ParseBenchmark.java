@@ -0,0 +1,92 @@
+package eden.qedit.bench;
+
+import eden.common.model.cd.CueSheet;
+import eden.common.util.CueSheets;
+import eden.qedit.action.Field;
+import eden.qedit.io.CueSheetByteParser;
+import java.io.File;
+import java.io.StringReader;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing cuesheets from files, readers and strings, and from files
+ * as bytes, eagerly and lazily.
+ *
+ * @author Brendon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class ParseBenchmark {
+
+  /** Sheet name. */
+  @Param(
+    {
+      "198-indexes",
+      "99-indexes",
+      "99-tracks",
+      "bad-tracks",
+      "flags",
+      "jcroot",
+      "no-indexes",
+      "track-24",
+      "synthetic-1",
+      "synthetic-99",
+    }
+  )
+  public String sheet;
+
+  /** Fields kept raw when parsing lazily, as for a chain that only prints. */
+  private final Set<Field> raw = EnumSet.allOf(Field.class);
+  /** Sheet file. */
+  private File file;
+  /** Sheet text. */
+  private String text;
+
+  @Setup
+  public void setup() throws Exception {
+    this.file = Sheets.file(this.sheet);
+    this.text = Sheets.text(this.sheet);
+  }
+
+  @Benchmark
+  public CueSheet parseBytes() throws Exception {
+    return CueSheetByteParser.parse(this.file);
+  }
+
+  @Benchmark
+  public CueSheet parseLazy() throws Exception {
+    return CueSheetByteParser.parse(this.file, this.raw);
+  }
+
+  @Benchmark
+  public CueSheet parseFile() throws Exception {
+    return CueSheets.parse(this.file);
+  }
+
+  @Benchmark
+  public CueSheet parseReader() throws Exception {
+    return CueSheets.parse(new StringReader(this.text));
+  }
+
+  @Benchmark
+  public CueSheet parseString() throws Exception {
+    return CueSheets.parse(this.text);
+  }
+}
@@ -0,0 +1,230 @@
+package eden.qedit.bench;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import eden.common.model.plaintext.LineEnding;
+import eden.common.util.CDDAFrame;
+import eden.common.util.Numbers;
+import eden.qedit.action.Check;
+import eden.qedit.action.CueSheetAction;
+import eden.qedit.action.IndexToPregap;
+import eden.qedit.action.NoCDText;
+import eden.qedit.action.NoCatalog;
+import eden.qedit.action.NoISRC;
+import eden.qedit.action.NoPerformer;
+import eden.qedit.action.NoPostgap;
+import eden.qedit.action.NoPregap;
+import eden.qedit.action.NoRem;
+import eden.qedit.action.NoSongwriter;
+import eden.qedit.action.NoTitle;
+import eden.qedit.action.PregapToIndex;
+import eden.qedit.action.Print;
+import eden.qedit.action.SetEOL;
+import eden.qedit.action.SetPerformer;
+import eden.qedit.action.SetPostgap;
+import eden.qedit.action.SetPregap;
+import eden.qedit.action.SetSongwriter;
+import eden.qedit.action.SetTitle;
+import eden.qedit.action.ShiftTimes;
+import eden.qedit.action.SwapAuthors;
+import eden.qedit.action.Write;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Cuesheets and actions for benchmarks. Sheets are named after sampler files
+ * without extension, or `synthetic-<count>` for generated ones with the given
+ * number of tracks. Benchmarks are to be run from the project root.
+ *
+ * @author Brendon
+ */
+final class Sheets {
+
+  /** Sampler directory. */
+  static final String SAMPLER = "sampler";
+  /** Synthetic sheet name prefix. */
+  static final String SYNTHETIC = "synthetic-";
+  /** Directory of generated files. */
+  private static Path directory;
+
+  /** Returns the file of the named sheet. */
+  static File file(String name) throws IOException {
+    if (!name.startsWith(SYNTHETIC)) {
+      return Paths.get(SAMPLER, name + ".cue").toFile();
+    }
+    Path path = getDirectory().resolve(name + ".cue");
+    if (Files.notExists(path)) {
+      Files.write(
+        path,
+        synthesize(Integer.parseInt(name.substring(SYNTHETIC.length())))
+          .getBytes(UTF_8)
+      );
+      path.toFile().deleteOnExit();
+    }
+    return path.toFile();
+  }
+
+  /** Returns the text of the named sheet. */
+  static String text(String name) throws IOException {
+    return new String(Files.readAllBytes(file(name).toPath()), UTF_8);
+  }
+
+  /**
+   * Returns a cuesheet with the given number of tracks that uses every field,
+   * with CRLF line endings.
+   */
+  static String synthesize(int tracks) {
+    String eol = LineEnding.CRLF.toString();
+    StringBuilder builder = new StringBuilder(tracks * 320 + 256);
+    builder
+      .append("REM GENRE Synthetic")
+      .append(eol)
+      .append("CATALOG 0000000000000")
+      .append(eol)
+      .append("CDTEXTFILE \"synthetic.cdt\"")
+      .append(eol)
+      .append("PERFORMER \"Performer\"")
+      .append(eol)
+      .append("SONGWRITER \"Songwriter\"")
+      .append(eol)
+      .append("TITLE \"Title\"")
+      .append(eol)
+      .append("FILE \"synthetic.wav\" WAVE")
+      .append(eol);
+    for (int i = 1; i <= tracks; i++) {
+      String number = Numbers.toString2Digits(i);
+      int frame = (i - 1) * 4500;
+      builder
+        .append("  TRACK ")
+        .append(number)
+        .append(" AUDIO")
+        .append(eol)
+        .append("    FLAGS DCP")
+        .append(eol)
+        .append("    REM COMMENT \"Comment\"")
+        .append(eol)
+        .append("    ISRC ABCDE00000")
+        .append(number)
+        .append(eol)
+        .append("    TITLE \"Track ")
+        .append(number)
+        .append('"')
+        .append(eol)
+        .append("    PERFORMER \"Performer ")
+        .append(number)
+        .append('"')
+        .append(eol)
+        .append("    SONGWRITER \"Songwriter ")
+        .append(number)
+        .append('"')
+        .append(eol)
+        .append("    PREGAP 00:02:00")
+        .append(eol)
+        .append("    INDEX 00 ")
+        .append(CDDAFrame.toTimeCode(frame))
+        .append(eol)
+        .append("    INDEX 01 ")
+        .append(CDDAFrame.toTimeCode(frame + 150))
+        .append(eol)
+        .append("    POSTGAP 00:01:00")
+        .append(eol);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Returns a new action by the given key. Those that take an argument are
+   * given a fixed one. `write` writes to a scratch file.
+   */
+  static CueSheetAction action(String key) throws IOException {
+    switch (key) {
+      case Check.KEY:
+        return new Check();
+      case IndexToPregap.KEY:
+        return new IndexToPregap();
+      case NoCDText.KEY:
+        return new NoCDText();
+      case NoCatalog.KEY:
+        return new NoCatalog();
+      case NoISRC.KEY:
+        return new NoISRC();
+      case NoPerformer.KEY:
+        return new NoPerformer(CueSheetAction.Mode.ALL);
+      case NoPerformer.KEY_SESSION:
+        return new NoPerformer(CueSheetAction.Mode.SESSION);
+      case NoPerformer.KEY_TRACK:
+        return new NoPerformer(CueSheetAction.Mode.TRACK);
+      case NoPostgap.KEY:
+        return new NoPostgap();
+      case NoPregap.KEY:
+        return new NoPregap();
+      case NoRem.KEY:
+        return new NoRem();
+      case NoSongwriter.KEY:
+        return new NoSongwriter(CueSheetAction.Mode.ALL);
+      case NoSongwriter.KEY_SESSION:
+        return new NoSongwriter(CueSheetAction.Mode.SESSION);
+      case NoSongwriter.KEY_TRACK:
+        return new NoSongwriter(CueSheetAction.Mode.TRACK);
+      case NoTitle.KEY:
+        return new NoTitle(CueSheetAction.Mode.ALL);
+      case NoTitle.KEY_SESSION:
+        return new NoTitle(CueSheetAction.Mode.SESSION);
+      case NoTitle.KEY_TRACK:
+        return new NoTitle(CueSheetAction.Mode.TRACK);
+      case PregapToIndex.KEY:
+        return new PregapToIndex();
+      case Print.KEY:
+        return new Print();
+      case SetEOL.KEY:
+        return new SetEOL(LineEnding.LF);
+      case SetPerformer.KEY:
+        return new SetPerformer(CueSheetAction.Mode.ALL, "Performer");
+      case SetPerformer.KEY_SESSION:
+        return new SetPerformer(CueSheetAction.Mode.SESSION, "Performer");
+      case SetPerformer.KEY_TRACK:
+        return new SetPerformer(CueSheetAction.Mode.TRACK, "Performer");
+      case SetPostgap.KEY:
+        return new SetPostgap(75);
+      case SetPregap.KEY:
+        return new SetPregap(150);
+      case SetSongwriter.KEY:
+        return new SetSongwriter(CueSheetAction.Mode.ALL, "Songwriter");
+      case SetSongwriter.KEY_SESSION:
+        return new SetSongwriter(CueSheetAction.Mode.SESSION, "Songwriter");
+      case SetSongwriter.KEY_TRACK:
+        return new SetSongwriter(CueSheetAction.Mode.TRACK, "Songwriter");
+      case SetTitle.KEY:
+        return new SetTitle(CueSheetAction.Mode.ALL, "Title");
+      case SetTitle.KEY_SESSION:
+        return new SetTitle(CueSheetAction.Mode.SESSION, "Title");
+      case SetTitle.KEY_TRACK:
+        return new SetTitle(CueSheetAction.Mode.TRACK, "Title");
+      case ShiftTimes.KEY:
+        return new ShiftTimes(75);
+      case SwapAuthors.KEY:
+        return new SwapAuthors();
+      case Write.KEY:
+        Path path = getDirectory().resolve("write.cue");
+        path.toFile().deleteOnExit();
+        return new Write(path.toString());
+      default:
+        throw new IllegalArgumentException(key);
+    }
+  }
+
+  /** Returns the directory of generated files, making it if needed. */
+  private static synchronized Path getDirectory() throws IOException {
+    if (directory == null) {
+      directory = Files.createTempDirectory("qedit-bench");
+      directory.toFile().deleteOnExit();
+    }
+    return directory;
+  }
+
+  /** To prevent instantiations of this class. */
+  private Sheets() {}
+}
@@ -0,0 +1,85 @@
+package eden.qedit.bench;
+
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Index;
+import eden.common.model.cd.Track;
+import eden.common.util.CueSheets;
+import eden.qedit.io.CueSheetByteParser;
+import eden.qedit.model.Diagnostic;
+import eden.qedit.util.Validator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures checking cuesheets by the validator against the exceptions of the
+ * library, without probing files.
+ *
+ * @author Brendon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class ValidatorBenchmark {
+
+  /** Sheet name. */
+  @Param(
+    {
+      "198-indexes",
+      "99-indexes",
+      "99-tracks",
+      "bad-tracks",
+      "flags",
+      "jcroot",
+      "no-indexes",
+      "track-24",
+      "synthetic-1",
+      "synthetic-99",
+    }
+  )
+  public String sheet;
+
+  /** Parsed cuesheet. */
+  private CueSheet parsed;
+  /** Validator. */
+  private final Validator validator = new Validator();
+
+  @Setup
+  public void setup() throws Exception {
+    this.parsed = CueSheetByteParser.parse(Sheets.file(this.sheet));
+  }
+
+  @Benchmark
+  public List<Exception> exceptions() {
+    List<Exception> out = new LinkedList<>();
+    Index last = null;
+    out.addAll(CueSheets.checkSyntax(this.parsed.getSession()));
+    out.addAll(CueSheets.checkSyntaxTrack(this.parsed.getSession()));
+    for (Track track : this.parsed.getTracks()) {
+      out.addAll(CueSheets.checkSyntax(track, last));
+      if (track.hasIndexes()) {
+        last = track.getLastIndex();
+      }
+    }
+    return out;
+  }
+
+  @Benchmark
+  public List<Diagnostic> validate() {
+    return this.validator.validate(this.parsed);
+  }
+}
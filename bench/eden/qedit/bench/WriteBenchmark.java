@@ -0,0 +1,147 @@
+package eden.qedit.bench;
+
+import eden.common.model.cd.CueSheet;
+import eden.common.model.plaintext.LineEnding;
+import eden.common.util.CueSheets;
+import eden.qedit.io.CueSheetSerializer;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures serializing cuesheets to writers and strings, by the library and
+ * by the streaming serializer.
+ *
+ * @author Brendon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class WriteBenchmark {
+
+  /** Sheet name. */
+  @Param(
+    {
+      "198-indexes",
+      "99-indexes",
+      "99-tracks",
+      "bad-tracks",
+      "flags",
+      "jcroot",
+      "no-indexes",
+      "track-24",
+      "synthetic-1",
+      "synthetic-99",
+    }
+  )
+  public String sheet;
+
+  /** Parsed cuesheet. */
+  private CueSheet parsed;
+
+  @Setup
+  public void setup() throws Exception {
+    this.parsed = CueSheets.parse(Sheets.file(this.sheet));
+  }
+
+  @Benchmark
+  public long write() throws Exception {
+    Sink sink = new Sink();
+    CueSheets.write(this.parsed, sink);
+    return sink.count;
+  }
+
+  @Benchmark
+  public long serialize() throws Exception {
+    Sink sink = new Sink();
+    CueSheetSerializer.write(this.parsed, sink);
+    return sink.count;
+  }
+
+  @Benchmark
+  public int render() {
+    return CueSheetSerializer.render(this.parsed).length();
+  }
+
+  @Benchmark
+  public String toString(Ending ending) {
+    return this.parsed.getSession().toString(ending.value);
+  }
+
+  /** Line ending parameter. */
+  @State(Scope.Benchmark)
+  public static class Ending {
+
+    /** Line ending name. */
+    @Param({ "CRLF", "LF", "CR" })
+    public String name;
+
+    /** Line ending. */
+    LineEnding value;
+
+    @Setup
+    public void setup() {
+      this.value = LineEnding.parseName(this.name);
+    }
+  }
+
+  /** Writer that counts characters and discards them. */
+  private static class Sink extends Writer {
+
+    /** Number of characters written. */
+    long count;
+
+    /** {@inheritDoc} */
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+      this.count += length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void write(String string) {
+      this.count += string.length();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void write(int c) {
+      this.count++;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Writer append(CharSequence csq) {
+      this.count += csq.length();
+      return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Writer append(char c) {
+      this.count++;
+      return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void flush() {}
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {}
+  }
+}
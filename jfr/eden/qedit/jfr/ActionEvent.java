@@ -0,0 +1,33 @@
+package eden.qedit.jfr;
+
+import eden.qedit.util.Events;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Run of an action on a cuesheet.
+ *
+ * @author Brendon
+ */
+@Name("eden.qedit.Action")
+@Label("Cuesheet Action")
+@Description("Run of a planned action, with its arguments, on a cuesheet.")
+@Category("QEdit")
+class ActionEvent extends Event implements Events.Action {
+
+  @Label("Action")
+  String action;
+
+  @Label("Success")
+  boolean success;
+
+  /** {@inheritDoc} */
+  @Override
+  public void commit(boolean success) {
+    this.success = success;
+    commit();
+  }
+}
@@ -0,0 +1,39 @@
+package eden.qedit.jfr;
+
+import eden.qedit.util.Events;
+
+/**
+ * Emits Java Flight Recorder events. Events are recorded only while a
+ * recording is running, e.g. one started by `-XX:StartFlightRecording`.
+ *
+ * @author Brendon
+ */
+public class FlightEvents extends Events {
+
+  /** {@inheritDoc} */
+  @Override
+  public Events.Parse beginParse(String path) {
+    ParseEvent out = new ParseEvent();
+    out.path = path;
+    out.begin();
+    return out;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Events.Action beginAction(String action) {
+    ActionEvent out = new ActionEvent();
+    out.action = action;
+    out.begin();
+    return out;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Events.Write beginWrite(String path) {
+    WriteEvent out = new WriteEvent();
+    out.path = path;
+    out.begin();
+    return out;
+  }
+}
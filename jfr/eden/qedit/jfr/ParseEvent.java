@@ -0,0 +1,43 @@
+package eden.qedit.jfr;
+
+import eden.qedit.util.Events;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Reading of a cuesheet.
+ *
+ * @author Brendon
+ */
+@Name("eden.qedit.Parse")
+@Label("Cuesheet Parse")
+@Description("Reading of a cuesheet, from the cache if it is enabled.")
+@Category("QEdit")
+class ParseEvent extends Event implements Events.Parse {
+
+  @Label("Path")
+  String path;
+
+  @Label("Bytes")
+  @DataAmount
+  long bytes;
+
+  @Label("Tracks")
+  int tracks;
+
+  @Label("Indexes")
+  int indexes;
+
+  /** {@inheritDoc} */
+  @Override
+  public void commit(long bytes, int tracks, int indexes) {
+    this.bytes = bytes;
+    this.tracks = tracks;
+    this.indexes = indexes;
+    commit();
+  }
+}
@@ -0,0 +1,40 @@
+package eden.qedit.jfr;
+
+import eden.qedit.util.Events;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Writing of a cuesheet to a file.
+ *
+ * @author Brendon
+ */
+@Name("eden.qedit.Write")
+@Label("Cuesheet Write")
+@Description("Writing of a cuesheet to a file, as text or binary.")
+@Category("QEdit")
+class WriteEvent extends Event implements Events.Write {
+
+  @Label("Path")
+  String path;
+
+  @Label("Bytes")
+  @DataAmount
+  long bytes;
+
+  @Label("Unchanged")
+  @Description("Whether the file had the output already and was skipped.")
+  boolean unchanged;
+
+  /** {@inheritDoc} */
+  @Override
+  public void commit(long bytes, boolean unchanged) {
+    this.bytes = bytes;
+    this.unchanged = unchanged;
+    commit();
+  }
+}
@@ -0,0 +1,269 @@
+package eden.qedit;
+
+import static eden.common.shared.Constants.EOL;
+import static eden.common.shared.Constants.EXIT_FAILURE;
+import static eden.common.shared.Constants.EXIT_SUCCESS;
+
+import eden.common.excep.EDENException;
+import eden.common.excep.EDENRuntimeException;
+import eden.common.io.Modal;
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Track;
+import eden.common.util.Strings;
+import eden.qedit.action.CueSheetAction;
+import eden.qedit.action.Field;
+import eden.qedit.io.Archives;
+import eden.qedit.io.CueSheetByteParser;
+import eden.qedit.io.OutputFile;
+import eden.qedit.io.SheetCache;
+import eden.qedit.util.Events;
+import eden.qedit.util.Stats;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * A Job reads a cuesheet and runs actions on it. Jobs on different files are
+ * independent of each other.
+ *
+ * @author Brendon
+ */
+class Job implements Callable<Boolean> {
+
+  /**
+   * Prints the stack trace of the given exception headered by the given header
+   * to the given modal.
+   */
+  static void printException(Modal modal, String header, Exception exception) {
+    if (exception == null) {
+      return;
+    }
+    if (!Strings.isNullOrEmpty(header)) {
+      modal.print(header + ":" + EOL + "  ", Modal.ERROR);
+    }
+    if (exception instanceof EDENRuntimeException) {
+      modal.println(exception.getMessage(), Modal.ERROR);
+      modal.println(((EDENRuntimeException) exception).getRemedy());
+    } else if (exception instanceof EDENException) {
+      modal.println(exception.getMessage(), Modal.ERROR);
+      modal.println(((EDENException) exception).getRemedy());
+    } else {
+      modal.println(exception.toString(), Modal.ERROR);
+    }
+    if (QEdit.DEBUG) {
+      exception.printStackTrace(modal.getPrintStream());
+    }
+  }
+
+  /** Input path. */
+  private final String path;
+  /** Input content, or null to read it from the path. */
+  private final ByteBuffer input;
+  /** Actions. */
+  private final List<CueSheetAction> actions;
+  /** Parsed cuesheet cache, or null to parse without. */
+  private final SheetCache cache;
+  /** Fields to parse raw without the cache, or null. */
+  private final Set<Field> raw;
+  /** Run statistics, or null to run without. */
+  private final Stats stats;
+  /** Job modal. */
+  private final Modal modal;
+  /** Message prefix. */
+  private final String prefix;
+  /** Working cuesheet. */
+  private CueSheet sheet;
+  /** Statistics of this job, or null. */
+  private Stats.FileSample sample;
+
+  /**
+   * Makes an instance with the given input path, actions, cache, fields to
+   * parse raw, statistics and modal. Messages are prefixed with the path if it
+   * is part of a batch.
+   */
+  Job(
+    String path,
+    List<CueSheetAction> actions,
+    SheetCache cache,
+    Set<Field> raw,
+    Stats stats,
+    Modal modal,
+    boolean batch
+  ) {
+    this(path, null, actions, cache, raw, stats, modal, batch);
+  }
+
+  /**
+   * Makes an instance with the given input path and content, or null to read
+   * it from the path, actions, cache, fields to parse raw, statistics and
+   * modal. Content and paths into archives are parsed without the cache.
+   * Messages are prefixed with the path if it is part of a batch.
+   */
+  Job(
+    String path,
+    ByteBuffer input,
+    List<CueSheetAction> actions,
+    SheetCache cache,
+    Set<Field> raw,
+    Stats stats,
+    Modal modal,
+    boolean batch
+  ) {
+    this.path = path;
+    this.input = input;
+    this.actions = actions;
+    this.cache = cache;
+    this.raw = raw;
+    this.stats = stats;
+    this.modal = modal;
+    this.prefix = batch ? path + ": " : "";
+  }
+
+  /**
+   * Makes an instance with the given input path and its parsed cuesheet,
+   * actions, statistics and modal.
+   */
+  Job(
+    String path,
+    CueSheet sheet,
+    List<CueSheetAction> actions,
+    Stats stats,
+    Modal modal,
+    boolean batch
+  ) {
+    this(path, null, actions, null, null, stats, modal, batch);
+    this.sheet = sheet;
+  }
+
+  /** Returns its input path. */
+  String getPath() {
+    return this.path;
+  }
+
+  /**
+   * Runs itself and returns its success. Its outputs are written for its input
+   * path.
+   */
+  @Override
+  public Boolean call() {
+    boolean out = false;
+    this.sample = this.stats == null ? null : this.stats.begin();
+    OutputFile.setInput(this.path);
+    try {
+      out =
+        (this.sheet != null || read() == EXIT_SUCCESS) &&
+        act() == EXIT_SUCCESS;
+    } catch (RuntimeException exception) {
+      printException(this.modal, this.prefix + "The job threw", exception);
+    } finally {
+      OutputFile.setInput(null);
+      if (this.sample != null) {
+        this.stats.end(this.sample, out);
+        this.sample = null;
+      }
+    }
+    return out;
+  }
+
+  /** Reads its input and returns its cuesheet, or null if it fails. */
+  CueSheet parse() {
+    return read() == EXIT_SUCCESS ? this.sheet : null;
+  }
+
+  private int read() {
+    try {
+      long[] mark = this.sample == null ? null : this.sample.mark();
+      Events events = Events.get();
+      Events.Parse event = events == null
+        ? null
+        : events.beginParse(this.path);
+      File file = new File(this.path);
+      ByteBuffer input = this.input;
+      if (input == null && Archives.isArchived(this.path)) {
+        input = Archives.read(this.path);
+      }
+      if (input != null) {
+        Stats.addRead(input.remaining());
+        this.sheet =
+          this.raw == null
+            ? CueSheetByteParser.parse(file, input)
+            : CueSheetByteParser.parse(file, input, this.raw);
+      } else if (this.raw != null) {
+        this.sheet = CueSheetByteParser.parse(file, this.raw);
+      } else if (this.cache != null) {
+        this.sheet = this.cache.parse(file);
+      } else {
+        this.sheet = CueSheetByteParser.parse(file);
+      }
+      if (mark != null || event != null) {
+        int tracks = this.sheet.getSession().getTracks().size();
+        int indexes = 0;
+        for (Track track : this.sheet.getSession().getTracks()) {
+          indexes += track.getIndexes().size();
+        }
+        if (mark != null) {
+          this.sample.read(mark, tracks, indexes);
+        }
+        if (event != null) {
+          event.commit(
+            input == null ? file.length() : input.remaining(),
+            tracks,
+            indexes
+          );
+        }
+      }
+      return EXIT_SUCCESS;
+    } catch (AccessDeniedException exception) {
+      this.modal.println(this.path + ": Access denied.", Modal.ERROR);
+    } catch (NoSuchFileException exception) {
+      this.modal.println(this.path + ": Not found.", Modal.ERROR);
+    } catch (Exception exception) {
+      printException(
+        this.modal,
+        this.prefix + "The cuesheet parser threw",
+        exception
+      );
+    }
+    return EXIT_FAILURE;
+  }
+
+  private int act() {
+    for (CueSheetAction action : this.actions) try {
+      long[] mark = this.sample == null ? null : this.sample.mark();
+      Events events = Events.get();
+      Events.Action event = events == null
+        ? null
+        : events.beginAction(action.toString());
+      boolean success = false;
+      try {
+        success = action.run(this.sheet);
+      } finally {
+        if (event != null) {
+          event.commit(success);
+        }
+      }
+      if (mark != null) {
+        this.sample.action(action.toString(), mark);
+      }
+      if (!success) {
+        this.modal.println(
+            this.prefix + "`" + action.toString() + "` failed.",
+            Modal.ERROR
+          );
+        return EXIT_FAILURE;
+      }
+    } catch (Exception exception) {
+      printException(
+        this.modal,
+        this.prefix + "`" + action.toString() + "` threw",
+        exception
+      );
+      return EXIT_FAILURE;
+    }
+    return EXIT_SUCCESS;
+  }
+}
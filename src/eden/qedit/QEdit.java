@@ -4,17 +4,23 @@ import static eden.common.shared.Constants.EOL;
 import static eden.common.shared.Constants.EXIT_FAILURE;
 import static eden.common.shared.Constants.EXIT_SUCCESS;
 import static eden.common.shared.Constants.NUL_INT;
+import static eden.common.shared.Constants.STDERR;
+import static eden.common.shared.Constants.STDIN;
 import static eden.common.shared.Constants.STDOUT;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
-import eden.common.excep.EDENException;
-import eden.common.excep.EDENRuntimeException;
 import eden.common.io.Modal;
 import eden.common.model.cd.CueSheet;
 import eden.common.model.plaintext.LineEnding;
-import eden.common.util.CueSheets;
-import eden.common.util.Strings;
 import eden.qedit.action.Check;
+import eden.qedit.action.Checksum;
+import eden.qedit.action.ColumnarAction;
+import eden.qedit.action.Convert;
 import eden.qedit.action.CueSheetAction;
+import eden.qedit.action.ExtractTracks;
+import eden.qedit.action.FanOutAction;
+import eden.qedit.action.Field;
+import eden.qedit.action.FusedAction;
 import eden.qedit.action.IndexToPregap;
 import eden.qedit.action.NoCDText;
 import eden.qedit.action.NoCatalog;
@@ -25,8 +31,10 @@ import eden.qedit.action.NoPregap;
 import eden.qedit.action.NoRem;
 import eden.qedit.action.NoSongwriter;
 import eden.qedit.action.NoTitle;
+import eden.qedit.action.Planner;
 import eden.qedit.action.PregapToIndex;
 import eden.qedit.action.Print;
+import eden.qedit.action.SetCharset;
 import eden.qedit.action.SetEOL;
 import eden.qedit.action.SetPerformer;
 import eden.qedit.action.SetPostgap;
@@ -36,18 +44,52 @@ import eden.qedit.action.SetTitle;
 import eden.qedit.action.ShiftTimes;
 import eden.qedit.action.SwapAuthors;
 import eden.qedit.action.Write;
+import eden.qedit.io.Archives;
+import eden.qedit.io.DocumentStream;
+import eden.qedit.io.FileProbe;
+import eden.qedit.io.MediaProbe;
 import eden.qedit.model.application.Help;
+import eden.qedit.io.Output;
+import eden.qedit.io.OutputFile;
+import eden.qedit.io.SheetCache;
+import eden.qedit.io.SyncGroup;
 import eden.qedit.model.application.Information;
-import java.io.File;
+import eden.qedit.util.Events;
+import eden.qedit.util.Globs;
+import eden.qedit.util.Merger;
+import eden.qedit.util.Stats;
+import eden.qedit.util.Validator;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * This class serves as the entry point to this application. It consists of the
@@ -62,6 +104,36 @@ public class QEdit {
   private static final Pattern HELP = Pattern.compile(
     "^(-){1,2}[Hh]([Ee][Ll][Pp])?$"
   );
+  /** Option to set the parsed cuesheet cache file. */
+  private static final String CACHE = "--cache";
+  /** Option to parse without the parsed cuesheet cache. */
+  private static final String NO_CACHE = "--no-cache";
+  /** Option to run consecutive time code actions over frame tables. */
+  private static final String COLUMNAR = "--columnar";
+  /** Option to parse only the fields that actions decode. */
+  private static final String LAZY = "--lazy";
+  /** Option to print the optimized plan of actions and exit. */
+  private static final String EXPLAIN = "--explain";
+  /** Option to read input paths from a list file. */
+  private static final String FILES_FROM = "--files-from";
+  /** Option to emit Java Flight Recorder events. */
+  private static final String JFR = "--jfr";
+  /** Option to set the number of written files to commit at a time. */
+  private static final String SYNC_GROUP = "--sync-group";
+  /** Option to write run statistics to a file. */
+  private static final String STATS = "--stats";
+  /** Option to read multiple cuesheets from the standard input. */
+  private static final String DOCUMENTS = "--documents";
+  /** Option to watch a directory for changed cuesheets. */
+  private static final String WATCH = "--watch";
+  /** Option to set the number of errors to stop checking a cuesheet at. */
+  private static final String MAX_ERRORS = "--max-errors";
+  /** Option to set the number of directories to probe concurrently. */
+  private static final String PROBE_JOBS = "--probe-jobs";
+  /** Option to set the number of parallel jobs. */
+  private static final Pattern JOBS = Pattern.compile("^(-j|--jobs)$");
+  /** Path to the standard input, or the standard error for statistics. */
+  private static final String STDIN_PATH = "-";
 
   /**
    * The main method is the entry point to this application.
@@ -73,17 +145,57 @@ public class QEdit {
   }
 
   /** Program modal. */
-  private final Modal modal = new Modal(Information.NAME);
+  private Modal modal = new Modal(Information.NAME);
   /** Program arguments. */
   private final Deque<String> arguments;
   /** Actions. */
   private final List<CueSheetAction> actions = new LinkedList<>();
-  /** Working cuesheet. */
-  private CueSheet sheet;
+  /** Input list files. */
+  private final List<String> lists = new LinkedList<>();
+  /** Input paths yet to be processed. */
+  private final Deque<String> inputs = new LinkedList<>();
+  /** Input results by path, in processing order. */
+  private final Map<String, Boolean> results = new LinkedHashMap<>();
   /** Operation mode. */
   private Mode mode = Mode.PARSE;
   /** Whether there it has an output file to write to. */
   private boolean hasOutput = false;
+  /** Whether it processes inputs in batch. */
+  private boolean batch = false;
+  /** Number of jobs to run in parallel. */
+  private int jobs = 1;
+  /** File probe shared by all actions and files. */
+  private final FileProbe probe = new FileProbe();
+  /** Media probe shared by all actions and files. */
+  private final MediaProbe media = new MediaProbe();
+  /** Validator shared by all checks. */
+  private final Validator validator = new Validator(this.probe, this.media);
+  /** Merger of inputs, or null to process each on its own. */
+  private Merger merger = null;
+  /** Parsed cuesheet cache file, or null to parse without. */
+  private Path cache = SheetCache.getDefaultPath();
+  /** Whether the cache file was given. */
+  private boolean cacheGiven = false;
+  /** Directory to watch after processing inputs, or null to exit. */
+  private Path watch = null;
+  /** Whether to print the optimized plan of actions and exit. */
+  private boolean explain = false;
+  /** Whether to run consecutive time code actions over frame tables. */
+  private boolean columnar = false;
+  /** Whether to parse only the fields that actions decode. */
+  private boolean lazy = false;
+  /** Number of written files to commit at a time in batch. */
+  private int syncGroup = SyncGroup.DEFAULT_SIZE;
+  /** Run statistics, or null to run without. */
+  private Stats stats = null;
+  /** Run statistics file. */
+  private String statsPath = null;
+  /** Format of the standard input, or null for one cuesheet. */
+  private DocumentStream.Format documents = null;
+  /** Standard input being read, or null. */
+  private DocumentStream stdin = null;
+  /** Number of cuesheets read from the standard input. */
+  private int documentCount = 0;
 
   /** Makes an instance with the given arguments. */
   private QEdit(String[] args) {
@@ -94,22 +206,45 @@ public class QEdit {
   private int run() {
     int out = NUL_INT;
     do {
+      Mode mode = this.mode;
+      long nanos = System.nanoTime();
+      long allocated = this.stats == null ? -1 : Stats.allocatedBytes();
       switch (this.mode) {
         case PARSE:
           out = parse();
-          this.mode = Mode.READ;
+          this.mode = Mode.PLAN;
           break;
-        case READ:
-          out = read();
+        case PLAN:
+          out = plan();
+          this.mode = Mode.LIST;
+          break;
+        case LIST:
+          out = list();
           this.mode = Mode.ACT;
           break;
         case ACT:
           out = act();
+          this.mode = Mode.REPORT;
+          break;
+        case REPORT:
+          out = report();
+          this.mode = Mode.WATCH;
+          break;
+        case WATCH:
+          out = watch();
           this.mode = Mode.DONE;
           break;
         case DONE:
+          writeStats();
           return out == hashCode() ? EXIT_SUCCESS : out;
       }
+      if (this.stats != null) {
+        this.stats.phase(
+            mode.name().toLowerCase(Locale.ROOT),
+            System.nanoTime() - nanos,
+            allocated < 0 ? -1 : Stats.allocatedBytes() - allocated
+          );
+      }
       if (out != EXIT_SUCCESS) {
         this.mode = Mode.DONE;
       }
@@ -133,24 +268,7 @@ public class QEdit {
    * Prints the stack trace of the given exception headered by the given header.
    */
   private void printException(String header, Exception exception) {
-    if (exception == null) {
-      return;
-    }
-    if (!Strings.isNullOrEmpty(header)) {
-      this.modal.print(header + ":" + EOL + "  ", Modal.ERROR);
-    }
-    if (exception instanceof EDENRuntimeException) {
-      this.modal.println(exception.getMessage(), Modal.ERROR);
-      this.modal.println(((EDENRuntimeException) exception).getRemedy());
-    } else if (exception instanceof EDENException) {
-      this.modal.println(exception.getMessage(), Modal.ERROR);
-      this.modal.println(((EDENException) exception).getRemedy());
-    } else {
-      this.modal.println(exception.toString(), Modal.ERROR);
-    }
-    if (DEBUG) {
-      exception.printStackTrace(this.modal.getPrintStream());
-    }
+    Job.printException(this.modal, header, exception);
   }
 
   private int parse() {
@@ -168,12 +286,28 @@ public class QEdit {
     String argument = null;
     String option = null;
     try {
-      while (this.arguments.size() > 1) {
+      while (
+        this.arguments.size() >
+        (this.lists.isEmpty() && this.watch == null && !this.explain ? 1 : 0)
+      ) {
         option = this.arguments.removeFirst();
         if (option.equalsIgnoreCase(Check.KEY)) {
-          action = new Check();
+          action = new Check(this.validator);
+        } else if (option.equalsIgnoreCase(Checksum.KEY)) {
+          action = new Checksum(false);
+          this.hasOutput = true;
+        } else if (option.equalsIgnoreCase(Checksum.KEY_REM)) {
+          action = new Checksum(true);
+        } else if (option.equalsIgnoreCase(Convert.KEY)) {
+          argument = this.arguments.removeFirst();
+          action = new Convert(argument);
+          this.hasOutput = true;
+        } else if (option.equalsIgnoreCase(ExtractTracks.KEY)) {
+          argument = this.arguments.removeFirst();
+          action = new ExtractTracks(argument);
+          this.hasOutput = true;
         } else if (option.equalsIgnoreCase(IndexToPregap.KEY)) {
-          action = new IndexToPregap();
+          action = new IndexToPregap(this.media);
         } else if (option.equalsIgnoreCase(NoCDText.KEY)) {
           action = new NoCDText();
         } else if (option.equalsIgnoreCase(NoCatalog.KEY)) {
@@ -209,6 +343,9 @@ public class QEdit {
         } else if (option.equalsIgnoreCase(Print.KEY)) {
           action = new Print();
           this.hasOutput = true;
+        } else if (option.equalsIgnoreCase(SetCharset.KEY)) {
+          argument = this.arguments.removeFirst();
+          action = new SetCharset(Charset.forName(argument));
         } else if (option.equalsIgnoreCase(SetEOL.KEY)) {
           argument = this.arguments.removeFirst();
           action = new SetEOL(LineEnding.parseName(argument));
@@ -252,21 +389,122 @@ public class QEdit {
           action = new SwapAuthors();
         } else if (option.equalsIgnoreCase(Write.KEY)) {
           argument = this.arguments.removeFirst();
-          action = new Write(Paths.get(argument));
+          action = new Write(argument);
           this.hasOutput = true;
+        } else if (option.equalsIgnoreCase(Merger.KEY)) {
+          this.merger = new Merger();
+          continue;
+        } else if (option.equalsIgnoreCase(Merger.KEY_IMAGE)) {
+          argument = this.arguments.removeFirst();
+          this.merger = new Merger(this.media, argument);
+          continue;
+        } else if (option.equalsIgnoreCase(FILES_FROM)) {
+          argument = this.arguments.removeFirst();
+          this.lists.add(argument);
+          continue;
+        } else if (option.equalsIgnoreCase(EXPLAIN)) {
+          this.explain = true;
+          continue;
+        } else if (option.equalsIgnoreCase(COLUMNAR)) {
+          this.columnar = true;
+          continue;
+        } else if (option.equalsIgnoreCase(LAZY)) {
+          this.lazy = true;
+          continue;
+        } else if (option.equalsIgnoreCase(CACHE)) {
+          this.cache = Paths.get(this.arguments.removeFirst());
+          this.cacheGiven = true;
+          continue;
+        } else if (option.equalsIgnoreCase(NO_CACHE)) {
+          this.cache = null;
+          continue;
+        } else if (option.equalsIgnoreCase(JFR)) {
+          if (!Events.enable()) {
+            this.modal.println(
+                "JFR events are not available in this build or runtime.",
+                Modal.ALERT
+              );
+          }
+          continue;
+        } else if (option.equalsIgnoreCase(SYNC_GROUP)) {
+          argument = this.arguments.removeFirst();
+          this.syncGroup = Integer.parseInt(argument);
+          if (this.syncGroup < 0) {
+            throw new IllegalArgumentException(argument);
+          }
+          continue;
+        } else if (option.equalsIgnoreCase(STATS)) {
+          this.statsPath = this.arguments.removeFirst();
+          this.stats = new Stats();
+          continue;
+        } else if (option.equalsIgnoreCase(DOCUMENTS)) {
+          argument = this.arguments.removeFirst();
+          this.documents = DocumentStream.toFormat(argument);
+          continue;
+        } else if (option.equalsIgnoreCase(WATCH)) {
+          argument = this.arguments.removeFirst();
+          this.watch = Paths.get(argument);
+          if (!Files.isDirectory(this.watch)) {
+            throw new IllegalArgumentException(argument);
+          }
+          continue;
+        } else if (option.equalsIgnoreCase(MAX_ERRORS)) {
+          argument = this.arguments.removeFirst();
+          int count = Integer.parseInt(argument);
+          if (count < 0) {
+            throw new IllegalArgumentException(argument);
+          }
+          this.validator.setMaxErrors(count);
+          continue;
+        } else if (option.equalsIgnoreCase(PROBE_JOBS)) {
+          argument = this.arguments.removeFirst();
+          int count = Integer.parseInt(argument);
+          if (count < 0) {
+            throw new IllegalArgumentException(argument);
+          }
+          if (count == 0) {
+            count = Runtime.getRuntime().availableProcessors();
+          }
+          this.probe.setParallelism(count);
+          continue;
+        } else if (JOBS.matcher(option).matches()) {
+          argument = this.arguments.removeFirst();
+          this.jobs = Integer.parseInt(argument);
+          if (this.jobs < 0) {
+            throw new IllegalArgumentException(argument);
+          }
+          if (this.jobs == 0) {
+            this.jobs = Runtime.getRuntime().availableProcessors();
+          }
+          continue;
         } else if (HELP.matcher(option).matches()) {
           return help();
         } else if (option.equalsIgnoreCase("--")) {
           break;
+        } else if (
+          option.equals(STDIN_PATH) ||
+          Globs.isGlob(option) ||
+          Archives.isArchived(option) ||
+          Files.exists(Paths.get(option))
+        ) {
+          this.arguments.addFirst(option);
+          break;
         } else {
           this.modal.println("Invalid action: " + option, Modal.ERROR);
           return EXIT_FAILURE;
         }
         this.actions.add(action);
       }
-      return HELP.matcher(this.arguments.getFirst()).matches()
-        ? help()
-        : EXIT_SUCCESS;
+      if (
+        this.arguments.size() == 1 &&
+        HELP.matcher(this.arguments.getFirst()).matches()
+      ) {
+        return help();
+      }
+      if (this.arguments.contains(STDIN_PATH)) {
+        stream();
+      }
+      return EXIT_SUCCESS;
     } catch (NoSuchElementException exception) {
       this.modal.println(
           "Insufficient arguments for `" + option + "`.",
@@ -287,47 +525,558 @@ public class QEdit {
     return EXIT_FAILURE;
   }
 
-  private int read() {
-    if (this.arguments.isEmpty()) {
-      this.modal.println("No input file.", Modal.ERROR);
-      return EXIT_FAILURE;
+  /**
+   * Makes the standard output a stream of outputs: cuesheets are printed to it
+   * unless there is another output or they are checked, and messages go to
+   * the standard error.
+   */
+  private void stream() {
+    if (!this.hasOutput && !isChecking()) {
+      this.actions.add(new Print());
+    }
+    this.hasOutput = true;
+    this.modal = new Modal(Information.NAME, STDERR);
+  }
+
+  private int plan() {
+    List<CueSheetAction> plan = FanOutAction.group(Planner.plan(this.actions));
+    if (this.columnar) {
+      plan = ColumnarAction.group(plan);
     }
+    plan = FusedAction.fuse(plan);
+    if (this.explain) {
+      STDOUT.println("Actions:");
+      this.actions.forEach(action -> STDOUT.println("  " + action.toString()));
+      STDOUT.println("Plan:");
+      int pass = 0;
+      for (CueSheetAction action : plan) {
+        STDOUT.println(
+          "  " +
+          ++pass +
+          ". " +
+          (action instanceof FusedAction ? "(single traversal) " : "") +
+          (action instanceof ColumnarAction ? "(columnar) " : "") +
+          (action instanceof FanOutAction ? "(single rendering) " : "") +
+          action.toString()
+        );
+      }
+      return hashCode();
+    }
+    this.actions.clear();
+    this.actions.addAll(plan);
+    return EXIT_SUCCESS;
+  }
+
+  private int list() {
     if (!this.hasOutput) {
       this.modal.println("No output file.", Modal.ERROR);
       return EXIT_FAILURE;
     }
-    String path = this.arguments.getLast();
+    for (String list : this.lists) {
+      try (
+        BufferedReader reader = new BufferedReader(
+          list.equals(STDIN_PATH)
+            ? new InputStreamReader(STDIN, UTF_8)
+            : Files.newBufferedReader(Paths.get(list))
+        )
+      ) {
+        reader
+          .lines()
+          .filter(line -> !line.isEmpty())
+          .forEachOrdered(this.inputs::add);
+      } catch (AccessDeniedException exception) {
+        this.modal.println(list + ": Access denied.", Modal.ERROR);
+        return EXIT_FAILURE;
+      } catch (NoSuchFileException exception) {
+        this.modal.println(list + ": Not found.", Modal.ERROR);
+        return EXIT_FAILURE;
+      } catch (Exception exception) {
+        printException("Reading `" + list + "` threw", exception);
+        return EXIT_FAILURE;
+      }
+    }
+    this.batch =
+      !this.lists.isEmpty() ||
+      this.arguments.size() > 1 ||
+      this.watch != null ||
+      this.documents != null;
+    for (String argument : this.arguments) {
+      boolean archived = Archives.isArchived(argument);
+      if (
+        Globs.isGlob(argument) &&
+        (archived || Files.notExists(Paths.get(argument)))
+      ) {
+        this.batch = true;
+        try {
+          List<String> paths = archived
+            ? Archives.expand(argument)
+            : Globs
+              .expand(argument)
+              .stream()
+              .map(Path::toString)
+              .collect(Collectors.toList());
+          if (paths.isEmpty()) {
+            this.modal.println(argument + ": No matches.", Modal.ERROR);
+            this.results.put(argument, false);
+          }
+          this.inputs.addAll(paths);
+        } catch (Exception exception) {
+          printException("Expanding `" + argument + "` threw", exception);
+          this.results.put(argument, false);
+        }
+      } else {
+        this.inputs.add(argument);
+      }
+    }
+    if (this.inputs.isEmpty() && this.results.isEmpty() && this.watch == null) {
+      this.modal.println("No input file.", Modal.ERROR);
+      return EXIT_FAILURE;
+    }
+    if (this.batch && this.merger == null) {
+      for (CueSheetAction action : this.actions) {
+        if (
+          action instanceof Write && !((Write) action).hasPlaceholders() ||
+          action instanceof Convert && !((Convert) action).hasPlaceholders() ||
+          action instanceof ExtractTracks &&
+          !((ExtractTracks) action).hasPlaceholders()
+        ) {
+          this.modal.println(
+              "`" +
+              action.toString() +
+              "` needs a placeholder to write multiple files.",
+              Modal.ERROR
+            );
+          return EXIT_FAILURE;
+        }
+      }
+    }
+    return EXIT_SUCCESS;
+  }
+
+  private int act() {
+    SheetCache cache = null;
+    if (
+      this.cache != null &&
+      !this.lazy &&
+      (this.batch || this.cacheGiven)
+    ) {
+      cache = new SheetCache(this.cache, SheetCache.DEFAULT_LIMIT);
+      cache.load();
+    }
+    if (this.batch || this.syncGroup == 0) {
+      OutputFile.setGroup(
+        new SyncGroup(this.syncGroup, SyncGroup.DEFAULT_WINDOW)
+      );
+    }
     try {
-      this.sheet = CueSheets.parse(new File(path));
+      int out = act(cache);
+      OutputFile.flush();
+      if (!fail(OutputFile.takeFailures())) {
+        out = EXIT_FAILURE;
+      }
+      try {
+        Archives.close();
+      } catch (Exception exception) {
+        printException("Rewriting archives threw", exception);
+        out = EXIT_FAILURE;
+      }
+      return out;
+    } finally {
+      if (cache != null) {
+        try {
+          cache.save();
+        } catch (Exception exception) {
+          printException("Saving `" + this.cache + "` threw", exception);
+        }
+      }
+    }
+  }
+
+  /**
+   * Prints the given failures to commit outputs by input, and fails the
+   * results of their inputs, or of all if merged. Returns whether there are
+   * none.
+   */
+  private boolean fail(Map<String, IOException> failures) {
+    failures.forEach((input, exception) ->
+      printException(
+        (input == null ? "" : input + ": ") + "Committing its output threw",
+        exception
+      )
+    );
+    for (String input : failures.keySet()) {
+      if (this.merger != null) {
+        this.results.replaceAll((path, result) -> false);
+      } else if (input != null) {
+        this.results.put(input, false);
+      }
+    }
+    return failures.isEmpty();
+  }
+
+  /** Returns whether its actions check cuesheets. */
+  private boolean isChecking() {
+    return this.actions.stream().anyMatch(Check.class::isInstance);
+  }
+
+  private int act(SheetCache cache) {
+    if (this.merger != null) {
+      return merge(cache);
+    }
+    List<CueSheetAction> actions = this.actions;
+    Set<Field> raw = this.lazy ? Planner.raw(actions) : null;
+    Input input;
+    if (this.jobs == 1) {
+      while ((input = next()) != null) {
+        if (isDocument(input)) {
+          Buffered buffered = Buffered.call(
+            input,
+            actions,
+            cache,
+            raw,
+            this.stats,
+            this.batch,
+            true
+          );
+          print(buffered);
+          this.results.put(input.path, buffered.success);
+          continue;
+        }
+        Job job = new Job(
+          input.path,
+          input.bytes,
+          actions,
+          cache,
+          raw,
+          this.stats,
+          this.modal,
+          this.batch
+        );
+        this.results.put(job.getPath(), job.call());
+      }
       return EXIT_SUCCESS;
-    } catch (AccessDeniedException exception) {
-      this.modal.println(path + ": Access denied.", Modal.ERROR);
-    } catch (NoSuchFileException exception) {
-      this.modal.println(path + ": Not found.", Modal.ERROR);
-    } catch (Exception exception) {
-      printException("The cuesheet parser threw", exception);
     }
-    return EXIT_FAILURE;
+    ExecutorService executor = Executors.newFixedThreadPool(
+      this.jobs,
+      runnable -> {
+        Thread thread = new Thread(runnable);
+        thread.setDaemon(true);
+        return thread;
+      }
+    );
+    Deque<String> paths = new LinkedList<>();
+    Deque<Future<Buffered>> futures = new LinkedList<>();
+    try {
+      input = next();
+      while (input != null || !futures.isEmpty()) {
+        if (input != null && futures.size() < this.jobs * 4) {
+          Input job = input;
+          boolean document = isDocument(job);
+          paths.add(job.path);
+          futures.add(
+            executor.submit(() ->
+              Buffered.call(
+                job,
+                actions,
+                cache,
+                raw,
+                this.stats,
+                this.batch,
+                document
+              )
+            )
+          );
+          input = next();
+          continue;
+        }
+        Buffered buffered;
+        try {
+          buffered = futures.removeFirst().get();
+        } catch (ExecutionException exception) {
+          printException(paths.peekFirst() + ": The job threw", exception);
+          buffered = new Buffered(false, new byte[0], false);
+        }
+        print(buffered);
+        this.results.put(paths.removeFirst(), buffered.success);
+      }
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      printException(exception);
+      return EXIT_FAILURE;
+    } finally {
+      executor.shutdownNow();
+    }
+    return EXIT_SUCCESS;
   }
 
-  private int act() {
-    for (CueSheetAction action : this.actions) try {
-      if (!action.run(this.sheet)) {
-        this.modal.println("`" + action.toString() + "` failed.", Modal.ERROR);
-        return EXIT_FAILURE;
+  /**
+   * Merges its inputs in order and runs its actions on the result, whose
+   * success is that of every input. Its output paths are as of the first.
+   */
+  private int merge(SheetCache cache) {
+    List<String> paths = new ArrayList<>();
+    List<CueSheet> sheets = new ArrayList<>();
+    boolean success = true;
+    Input input;
+    while ((input = next()) != null) {
+      CueSheet sheet = new Job(
+        input.path,
+        input.bytes,
+        Collections.emptyList(),
+        cache,
+        null,
+        null,
+        this.modal,
+        true
+      ).parse();
+      paths.add(input.path);
+      sheets.add(sheet);
+      success &= sheet != null;
+    }
+    if (success && !sheets.isEmpty()) {
+      try {
+        success =
+          new Job(
+            paths.get(0),
+            this.merger.merge(sheets),
+            this.actions,
+            this.stats,
+            this.modal,
+            false
+          ).call();
+      } catch (RuntimeException exception) {
+        printException("Merging threw", exception);
+        success = false;
+      }
+    }
+    for (String path : paths) {
+      this.results.put(path, success);
+    }
+    return EXIT_SUCCESS;
+  }
+
+  /**
+   * Returns the next input, or null if none remain. Cuesheets are read from
+   * the standard input as they are needed.
+   */
+  private Input next() {
+    while (true) {
+      if (this.stdin != null) {
+        try {
+          ByteBuffer bytes = this.stdin.read();
+          if (bytes != null) {
+            return new Input(
+              this.documents == null
+                ? STDIN_PATH
+                : STDIN_PATH + ":" + ++this.documentCount,
+              bytes
+            );
+          }
+        } catch (Exception exception) {
+          printException("Reading the standard input threw", exception);
+          this.results.put(STDIN_PATH, false);
+        }
+        this.stdin = null;
       }
+      if (this.inputs.isEmpty()) {
+        return null;
+      }
+      String path = this.inputs.removeFirst();
+      if (!path.equals(STDIN_PATH)) {
+        return new Input(path, null);
+      }
+      this.stdin = new DocumentStream(STDIN, this.documents);
+    }
+  }
+
+  /** Returns whether the given input is one of many on the standard input. */
+  private boolean isDocument(Input input) {
+    return input.bytes != null && this.documents != null;
+  }
+
+  /** Prints the given buffered output, as a document if it is one. */
+  private void print(Buffered buffered) {
+    if (!buffered.document) {
+      STDOUT.print(new String(buffered.output, UTF_8));
+      return;
+    }
+    try {
+      DocumentStream.write(STDOUT, this.documents, buffered.output);
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  private int watch() {
+    if (this.watch == null) {
+      return EXIT_SUCCESS;
+    }
+    SheetCache cache = null;
+    if (this.cache != null) {
+      cache = new SheetCache(this.cache, SheetCache.DEFAULT_LIMIT);
+      cache.load();
+    }
+    try {
+      new Watcher(
+        this.watch,
+        this.actions,
+        cache,
+        this.probe,
+        this.media,
+        this.modal
+      )
+        .watch();
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
     } catch (Exception exception) {
-      printException("`" + action.toString() + "` threw", exception);
+      printException("Watching `" + this.watch + "` threw", exception);
       return EXIT_FAILURE;
     }
     return EXIT_SUCCESS;
   }
 
+  private int report() {
+    long failures = this.results.values().stream().filter(r -> !r).count();
+    if (this.batch && !this.results.isEmpty()) {
+      this.results.forEach((path, result) -> {
+          if (result) {
+            this.modal.println(path + ": Done.", Modal.INFO);
+          } else {
+            this.modal.println(path + ": Failed.", Modal.ERROR);
+          }
+        });
+      int unchanged = getUnchanged(this.actions);
+      this.modal.println(
+          this.results.size() +
+          " file(s): " +
+          (this.results.size() - failures) +
+          " done, " +
+          failures +
+          " failed" +
+          (unchanged == 0 ? "" : ", " + unchanged + " output(s) unchanged") +
+          ".",
+          failures == 0 ? Modal.INFO : Modal.ERROR
+        );
+    }
+    return failures == 0 ? EXIT_SUCCESS : EXIT_FAILURE;
+  }
+
+  /** Returns the number of outputs the given actions skipped as unchanged. */
+  private static int getUnchanged(List<CueSheetAction> actions) {
+    int out = 0;
+    for (CueSheetAction action : actions) {
+      if (action instanceof FanOutAction) {
+        out += getUnchanged(((FanOutAction) action).getActions());
+      } else if (action instanceof Write) {
+        out += ((Write) action).getUnchanged();
+      } else if (action instanceof Convert) {
+        out += ((Convert) action).getUnchanged();
+      }
+    }
+    return out;
+  }
+
+  /** Writes its run statistics, if any. */
+  private void writeStats() {
+    if (this.stats == null) {
+      return;
+    }
+    String json = this.stats.toJson();
+    if (this.statsPath.equals(STDIN_PATH)) {
+      STDERR.print(json);
+      return;
+    }
+    try {
+      Files.write(Paths.get(this.statsPath), json.getBytes(UTF_8));
+    } catch (Exception exception) {
+      printException("Writing `" + this.statsPath + "` threw", exception);
+    }
+  }
+
+  /** An input path, and its content if it is not to be read from the path. */
+  private static class Input {
+
+    /** Path. */
+    final String path;
+    /** Content, or null. */
+    final ByteBuffer bytes;
+
+    /** Makes an instance with the given path and content, or null. */
+    Input(String path, ByteBuffer bytes) {
+      this.path = path;
+      this.bytes = bytes;
+    }
+  }
+
+  /** Job output buffered for ordered printing. */
+  private static class Buffered {
+
+    /**
+     * Runs a job on the given input with the given actions, cache, fields to
+     * parse raw and statistics, and buffers its output, as a document if
+     * given. Messages on content of the standard input are printed to the
+     * standard error instead, so that the output is only its own.
+     */
+    static Buffered call(
+      Input input,
+      List<CueSheetAction> actions,
+      SheetCache cache,
+      Set<Field> raw,
+      Stats stats,
+      boolean batch,
+      boolean document
+    ) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      PrintStream stream;
+      try {
+        stream = new PrintStream(bytes, true, UTF_8.name());
+      } catch (UnsupportedEncodingException exception) {
+        throw new AssertionError(exception);
+      }
+      Output.set(stream);
+      try {
+        boolean success = new Job(
+          input.path,
+          input.bytes,
+          actions,
+          cache,
+          raw,
+          stats,
+          new Modal(Information.NAME, input.bytes != null ? STDERR : stream),
+          batch
+        ).call();
+        return new Buffered(success, bytes.toByteArray(), document);
+      } finally {
+        Output.reset();
+      }
+    }
+
+    /** Whether the job succeeded. */
+    final boolean success;
+    /** Job output in UTF-8. */
+    final byte[] output;
+    /** Whether it is the output of a document. */
+    final boolean document;
+
+    /**
+     * Makes an instance with the given success, output and whether it is of a
+     * document.
+     */
+    Buffered(boolean success, byte[] output, boolean document) {
+      this.success = success;
+      this.output = output;
+      this.document = document;
+    }
+  }
+
   /** Operation modes. */
   private enum Mode {
     PARSE,
-    READ,
+    PLAN,
+    LIST,
     ACT,
+    REPORT,
+    WATCH,
     DONE,
   }
 }
@@ -0,0 +1,302 @@
+package eden.qedit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import eden.common.io.Modal;
+import eden.qedit.action.Convert;
+import eden.qedit.action.CueSheetAction;
+import eden.qedit.action.ExtractTracks;
+import eden.qedit.action.FanOutAction;
+import eden.qedit.action.Write;
+import eden.qedit.io.Archives;
+import eden.qedit.io.FileProbe;
+import eden.qedit.io.MediaProbe;
+import eden.qedit.io.OutputFile;
+import eden.qedit.io.SheetCache;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A Watcher runs actions on cuesheets in a directory tree as they are created
+ * or modified, until it is interrupted. Bursts of events on a file are
+ * debounced, and files whose content hash is unchanged since they were last
+ * seen are skipped. Outputs it writes are seen as they are written, so that
+ * writing into the watched tree does not loop. The probes of the actions are
+ * cleared before each batch of files, as referenced files may have changed
+ * since the last.
+ *
+ * @author Brendon
+ */
+class Watcher {
+
+  /** Quiet time in milliseconds after the last event on a file. */
+  static final long DEBOUNCE = 500;
+  /** Extension of watched files, with the dot. */
+  static final String EXTENSION = ".cue";
+
+  /** Returns the SHA-256 hash of the given file, or null if it is absent. */
+  private static byte[] hash(Path path) throws IOException {
+    try {
+      return MessageDigest
+        .getInstance("SHA-256")
+        .digest(Files.readAllBytes(path));
+    } catch (NoSuchFileException exception) {
+      return null;
+    } catch (NoSuchAlgorithmException exception) {
+      throw new AssertionError(exception);
+    }
+  }
+
+  /** Returns whether the given path is of a watched file. */
+  private static boolean isWatched(Path path) {
+    return path
+      .getFileName()
+      .toString()
+      .toLowerCase(Locale.ROOT)
+      .endsWith(EXTENSION);
+  }
+
+  /** Watched directory. */
+  private final Path directory;
+  /** Actions. */
+  private final List<CueSheetAction> actions;
+  /** Parsed cuesheet cache, or null to parse without. */
+  private final SheetCache cache;
+  /** File probe of the actions. */
+  private final FileProbe probe;
+  /** Media probe of the actions. */
+  private final MediaProbe media;
+  /** Program modal. */
+  private final Modal modal;
+  /** Directories by watch key. */
+  private final Map<WatchKey, Path> keys = new HashMap<>();
+  /** Content hashes by path, of files last seen. */
+  private final Map<Path, byte[]> hashes = new HashMap<>();
+  /** Due times in nanoseconds by path, of files with pending events. */
+  private final Map<Path, Long> pending = new LinkedHashMap<>();
+
+  /**
+   * Makes an instance with the given directory, actions, cache, probes of the
+   * actions and modal.
+   */
+  Watcher(
+    Path directory,
+    List<CueSheetAction> actions,
+    SheetCache cache,
+    FileProbe probe,
+    MediaProbe media,
+    Modal modal
+  ) {
+    this.directory = directory.toAbsolutePath().normalize();
+    this.actions = actions;
+    this.cache = cache;
+    this.probe = probe;
+    this.media = media;
+    this.modal = modal;
+  }
+
+  /** Watches until interrupted. */
+  void watch() throws IOException, InterruptedException {
+    try (WatchService service = FileSystems.getDefault().newWatchService()) {
+      register(service, this.directory);
+      this.modal.println(
+          "Watching `" + this.directory + "`. Interrupt to stop.",
+          Modal.INFO
+        );
+      while (true) {
+        WatchKey key = this.pending.isEmpty()
+          ? service.take()
+          : service.poll(DEBOUNCE, TimeUnit.MILLISECONDS);
+        if (key != null) {
+          handle(service, key);
+        }
+        runDue();
+      }
+    }
+  }
+
+  /** Handles the events of the given key. */
+  private void handle(WatchService service, WatchKey key) throws IOException {
+    Path parent = this.keys.get(key);
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == OVERFLOW || parent == null) {
+        scan(service, this.directory);
+        continue;
+      }
+      Path path = parent.resolve((Path) event.context());
+      if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+        scan(service, path);
+      } else if (isWatched(path)) {
+        schedule(path);
+      }
+    }
+    if (!key.reset()) {
+      this.keys.remove(key);
+    }
+  }
+
+  /** Registers the given directory tree. */
+  private void register(WatchService service, Path directory)
+    throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      Iterator<Path> iterator = paths.iterator();
+      while (iterator.hasNext()) {
+        Path path = iterator.next();
+        if (Files.isDirectory(path) && !this.keys.containsValue(path)) {
+          this.keys.put(
+              path.register(service, ENTRY_CREATE, ENTRY_MODIFY),
+              path
+            );
+        }
+      }
+    }
+  }
+
+  /** Schedules all watched files in the given directory tree. */
+  private void scan(WatchService service, Path directory) throws IOException {
+    register(service, directory);
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths
+        .filter(path -> Files.isRegularFile(path) && isWatched(path))
+        .forEach(this::schedule);
+    }
+  }
+
+  /** Schedules the given file to be run after the quiet time. */
+  private void schedule(Path path) {
+    this.pending.remove(path);
+    this.pending.put(
+        path,
+        System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DEBOUNCE)
+      );
+  }
+
+  /** Runs all files whose quiet time has passed. */
+  private void runDue() throws IOException {
+    long now = System.nanoTime();
+    List<Path> ran = new ArrayList<>();
+    Map<String, Boolean> results = new LinkedHashMap<>();
+    Iterator<Map.Entry<Path, Long>> iterator = this.pending
+      .entrySet()
+      .iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Path, Long> entry = iterator.next();
+      if (entry.getValue() - now > 0) {
+        continue;
+      }
+      iterator.remove();
+      Path path = entry.getKey();
+      byte[] hash = hash(path);
+      if (hash == null || Arrays.equals(hash, this.hashes.get(path))) {
+        continue;
+      }
+      this.hashes.put(path, hash);
+      if (ran.isEmpty()) {
+        this.probe.clear();
+        this.media.clear();
+      }
+      results.put(
+        path.toString(),
+        new Job(
+          path.toString(),
+          this.actions,
+          this.cache,
+          null,
+          null,
+          this.modal,
+          true
+        ).call()
+      );
+      ran.add(path);
+    }
+    if (ran.isEmpty()) {
+      return;
+    }
+    OutputFile.flush();
+    OutputFile
+      .takeFailures()
+      .forEach((input, exception) -> {
+        Job.printException(
+          this.modal,
+          (input == null ? "" : input + ": ") + "Committing its output threw",
+          exception
+        );
+        if (input != null) {
+          results.put(input, false);
+        }
+      });
+    results.forEach((path, success) ->
+      this.modal.println(
+          path + (success ? ": Done." : ": Failed."),
+          success ? Modal.INFO : Modal.ERROR
+        )
+    );
+    try {
+      Archives.close();
+    } catch (IOException exception) {
+      Job.printException(this.modal, "Rewriting archives threw", exception);
+    }
+    for (Path path : ran) {
+      seeOutputs(path.toFile());
+    }
+    if (this.cache != null) {
+      this.cache.save();
+    }
+  }
+
+  /** Sees the outputs written for the given input file. */
+  private void seeOutputs(File input) throws IOException {
+    for (CueSheetAction action : this.actions) {
+      if (action instanceof FanOutAction) {
+        for (CueSheetAction member : ((FanOutAction) action).getActions()) {
+          seeOutput(member, input);
+        }
+      } else {
+        seeOutput(action, input);
+      }
+    }
+  }
+
+  /** Sees the output written by the given action for the given input file. */
+  private void seeOutput(CueSheetAction action, File input)
+    throws IOException {
+    Path path;
+    if (action instanceof Write) {
+      path = ((Write) action).getPath(input);
+    } else if (action instanceof Convert) {
+      path = ((Convert) action).getPath(input);
+    } else if (action instanceof ExtractTracks) {
+      path = ((ExtractTracks) action).getSheetPath(input);
+    } else {
+      return;
+    }
+    path = path.toAbsolutePath().normalize();
+    if (isWatched(path)) {
+      byte[] hash = hash(path);
+      if (hash != null) {
+        this.hashes.put(path, hash);
+      }
+    }
+  }
+}
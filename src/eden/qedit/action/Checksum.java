@@ -0,0 +1,400 @@
+package eden.qedit.action;
+
+import eden.common.excep.cd.FileIncompleteException;
+import eden.common.excep.cd.FrameMisnumberException;
+import eden.common.excep.cd.SessionEmptyException;
+import eden.common.excep.cd.TrackEmptyException;
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Index;
+import eden.common.model.cd.Track;
+import eden.qedit.excep.AudioUnsupportedException;
+import eden.qedit.excep.IndexBeyondFileException;
+import eden.qedit.io.FileProbe;
+import eden.qedit.io.MediaProbe;
+import eden.qedit.io.Output;
+import eden.qedit.util.AudioChecksum;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes the CRC32 and AccurateRip v1 and v2 checksums of the audio of each
+ * track, from its INDEX 01 until that of the next, also across files. The
+ * referenced files are to be WAVE or BINARY of CD-DA, and are mapped in
+ * windows that are summed by track in parallel. The checksums are printed as
+ * a report to the standard output, or set as track REMs, replacing those
+ * of previous runs.
+ *
+ * @author Brendon
+ * @see AudioChecksum
+ */
+public class Checksum implements CueSheetAction {
+
+  /** Key to print a report. */
+  public static final String KEY = "checksum";
+  /** Key to set REMs. */
+  public static final String KEY_REM = "checksum-rem";
+  /** REM key of CRC32. */
+  public static final String REM_CRC32 = "CRC32";
+  /** REM key of AccurateRip v1. */
+  public static final String REM_ACCURATERIP_V1 = "ACCURATERIP_V1";
+  /** REM key of AccurateRip v2. */
+  public static final String REM_ACCURATERIP_V2 = "ACCURATERIP_V2";
+  /** Number of bytes to map at a time. */
+  protected static final int WINDOW = 1 << 26;
+  /** Subject of session problems. */
+  protected static final String SESSION = "Session";
+
+  /** Whether to set REMs instead of printing a report. */
+  private final boolean rem;
+  /** Summing executor, made on first use. */
+  private ThreadPoolExecutor executor;
+
+  /**
+   * Makes an instance that sets REMs if the given is true, or prints a report.
+   */
+  public Checksum(boolean rem) {
+    this.rem = rem;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean run(CueSheet sheet) throws Exception {
+    List<Track> tracks = sheet.getTracks();
+    if (tracks.isEmpty()) {
+      throw new SessionEmptyException(SESSION);
+    }
+    List<Source> sources = new ArrayList<>();
+    try {
+      long[] starts = getStarts(sheet, sources);
+      Source last = sources.get(sources.size() - 1);
+      ThreadPoolExecutor executor = getExecutor();
+      List<Future<AudioChecksum>> futures = new ArrayList<>(starts.length);
+      try {
+        for (int i = 0; i < starts.length; i++) {
+          List<Piece> pieces = getPieces(
+            sources,
+            starts[i],
+            i + 1 < starts.length ? starts[i + 1] : last.start + last.frames
+          );
+          boolean first = i == 0, end = i + 1 == starts.length;
+          futures.add(executor.submit(() -> sum(pieces, first, end)));
+        }
+        List<AudioChecksum> checksums = new ArrayList<>(starts.length);
+        for (Future<AudioChecksum> future : futures) {
+          checksums.add(future.get());
+        }
+        if (this.rem) {
+          setRems(tracks, checksums);
+        } else {
+          print(tracks, checksums);
+        }
+      } catch (ExecutionException exception) {
+        Throwable cause = exception.getCause();
+        throw cause instanceof Exception ? (Exception) cause : exception;
+      } finally {
+        futures.forEach(future -> future.cancel(false));
+      }
+    } finally {
+      for (Source source : sources) {
+        source.channel.close();
+      }
+    }
+    return true;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return this.rem
+      ? EnumSet.of(Field.INDEX, Field.REM)
+      : EnumSet.of(Field.INDEX);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return this.rem ? EnumSet.of(Field.REM) : EnumSet.noneOf(Field.class);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return this.rem ? KEY_REM : KEY;
+  }
+
+  /** Returns its executor. */
+  private synchronized ThreadPoolExecutor getExecutor() {
+    if (this.executor == null) {
+      int parallelism = Runtime.getRuntime().availableProcessors();
+      this.executor =
+        new ThreadPoolExecutor(
+          parallelism,
+          parallelism,
+          1,
+          TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(),
+          runnable -> {
+            Thread thread = new Thread(runnable, "Checksum");
+            thread.setDaemon(true);
+            return thread;
+          }
+        );
+      this.executor.allowCoreThreadTimeOut(true);
+    }
+    return this.executor;
+  }
+
+  /**
+   * Opens the files of the given cuesheet into the given list, and returns
+   * the starts of its tracks in CD frames from the start of the first file.
+   */
+  private static long[] getStarts(CueSheet sheet, List<Source> sources)
+    throws IOException {
+    List<Track> tracks = sheet.getTracks();
+    long[] out = new long[tracks.size()];
+    Source source = null;
+    for (int i = 0; i < out.length; i++) {
+      Track track = tracks.get(i);
+      if (!track.hasIndexes()) {
+        throw new TrackEmptyException(track.getNumber());
+      }
+      Index start = getStart(track);
+      for (Index index : track.getIndexes()) {
+        if (index.hasFilePath()) {
+          Path path = FileProbe.resolve(sheet, index.getFilePath());
+          if (source == null || !path.equals(source.path)) {
+            source =
+              open(
+                path,
+                index.getFileType(),
+                source == null ? 0 : source.start + source.frames
+              );
+            sources.add(source);
+          }
+        } else if (source == null) {
+          throw new FileIncompleteException(
+            track.getNumber(),
+            index.getNumber()
+          );
+        }
+        if (index != start) {
+          continue;
+        }
+        if (index.getFrame() >= source.frames) {
+          throw new IndexBeyondFileException(
+            track.getNumber(),
+            index.getNumber(),
+            (int) Math.min(source.frames, Integer.MAX_VALUE)
+          );
+        }
+        out[i] = source.start + index.getFrame();
+        if (i > 0 && out[i] <= out[i - 1]) {
+          throw new FrameMisnumberException(
+            track.getNumber(),
+            index.getNumber()
+          );
+        }
+      }
+    }
+    return out;
+  }
+
+  /** Returns the INDEX 01 of the given track, or its first without. */
+  private static Index getStart(Track track) {
+    for (Index index : track.getIndexes()) {
+      if (index.getNumber() == 1) {
+        return index;
+      }
+    }
+    return track.getIndexes().get(0);
+  }
+
+  /**
+   * Opens the given file of the given type, which starts at the given CD
+   * frame.
+   */
+  private static Source open(Path path, String type, long start)
+    throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      MediaProbe.Layout layout = MediaProbe.getLayout(channel, type);
+      if (layout == null || !layout.isCdda()) {
+        throw new AudioUnsupportedException(path.toString());
+      }
+      return new Source(path, channel, layout, start);
+    } catch (IOException | RuntimeException exception) {
+      channel.close();
+      throw exception;
+    }
+  }
+
+  /**
+   * Returns the pieces of the given files from the first until the second
+   * given CD frame. The last piece of a file runs to its end, including any
+   * partial CD frame.
+   */
+  private static List<Piece> getPieces(
+    List<Source> sources,
+    long from,
+    long to
+  ) {
+    List<Piece> out = new ArrayList<>();
+    for (Source source : sources) {
+      long end = source.start + source.frames;
+      if (source.start >= to || end <= from) {
+        continue;
+      }
+      out.add(
+        new Piece(
+          source.channel,
+          source.layout.getPosition(Math.max(from - source.start, 0)),
+          to >= end
+            ? source.layout.getEnd()
+            : source.layout.getPosition(to - source.start)
+        )
+      );
+    }
+    return out;
+  }
+
+  /**
+   * Sums the given pieces of a track, and whether it is the first and the last
+   * of its disc.
+   */
+  private static AudioChecksum sum(
+    List<Piece> pieces,
+    boolean first,
+    boolean last
+  ) throws IOException {
+    long samples = 0;
+    for (Piece piece : pieces) {
+      samples += (piece.to - piece.from) / AudioChecksum.SAMPLE_SIZE;
+    }
+    AudioChecksum out = new AudioChecksum(samples, first, last);
+    for (Piece piece : pieces) {
+      for (long position = piece.from; position < piece.to;) {
+        long size = Math.min(WINDOW, piece.to - position);
+        out.update(
+          piece.channel.map(FileChannel.MapMode.READ_ONLY, position, size)
+        );
+        position += size;
+      }
+    }
+    return out;
+  }
+
+  /**
+   * Sets the given checksums as REMs of the given tracks, replacing those of
+   * previous runs.
+   */
+  private static void setRems(
+    List<Track> tracks,
+    List<AudioChecksum> checksums
+  ) {
+    for (int i = 0; i < checksums.size(); i++) {
+      Track track = tracks.get(i);
+      AudioChecksum checksum = checksums.get(i);
+      Iterator<String> rems = track.getRems().iterator();
+      while (rems.hasNext()) {
+        String rem = rems.next();
+        if (
+          rem.startsWith(REM_CRC32 + " ") ||
+          rem.startsWith(REM_ACCURATERIP_V1 + " ") ||
+          rem.startsWith(REM_ACCURATERIP_V2 + " ")
+        ) {
+          rems.remove();
+        }
+      }
+      track.addRem(REM_CRC32 + " " + toHex(checksum.getCrc32()));
+      track.addRem(
+        REM_ACCURATERIP_V1 + " " + toHex(checksum.getAccurateRipV1())
+      );
+      track.addRem(
+        REM_ACCURATERIP_V2 + " " + toHex(checksum.getAccurateRipV2())
+      );
+    }
+  }
+
+  /** Prints the given checksums of the given tracks. */
+  private static void print(List<Track> tracks, List<AudioChecksum> checksums) {
+    PrintStream out = Output.get();
+    out.println("Track  CRC32     AR v1     AR v2");
+    for (int i = 0; i < checksums.size(); i++) {
+      AudioChecksum checksum = checksums.get(i);
+      out.println(
+        String.format(
+          Locale.ROOT,
+          "%02d     %s  %s  %s",
+          tracks.get(i).getNumber(),
+          toHex(checksum.getCrc32()),
+          toHex(checksum.getAccurateRipV1()),
+          toHex(checksum.getAccurateRipV2())
+        )
+      );
+    }
+  }
+
+  /** Returns the given checksum in upper-case hexadecimal of 8 digits. */
+  private static String toHex(int checksum) {
+    return String.format(Locale.ROOT, "%08X", checksum);
+  }
+
+  /** A referenced file. */
+  private static class Source {
+
+    /** Path. */
+    final Path path;
+    /** Open channel. */
+    final FileChannel channel;
+    /** Layout. */
+    final MediaProbe.Layout layout;
+    /** Start in CD frames from the start of the first file. */
+    final long start;
+    /** Length in CD frames. */
+    final long frames;
+
+    Source(
+      Path path,
+      FileChannel channel,
+      MediaProbe.Layout layout,
+      long start
+    ) {
+      this.path = path;
+      this.channel = channel;
+      this.layout = layout;
+      this.start = start;
+      this.frames = layout.getFrames();
+    }
+  }
+
+  /** A range of the audio of a track in a file. */
+  private static class Piece {
+
+    /** Channel of the file. */
+    final FileChannel channel;
+    /** Position of the start. */
+    final long from;
+    /** Position of the end. */
+    final long to;
+
+    Piece(FileChannel channel, long from, long to) {
+      this.channel = channel;
+      this.from = from;
+      this.to = to;
+    }
+  }
+}
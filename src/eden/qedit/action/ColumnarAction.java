@@ -0,0 +1,113 @@
+package eden.qedit.action;
+
+import static eden.common.shared.Constants.SPACE;
+
+import eden.common.model.cd.CueSheet;
+import eden.qedit.model.FrameTable;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Runs consecutive frame actions over one frame table of a cuesheet, which is
+ * applied back to it after the last.
+ *
+ * @author Brendon
+ * @see FrameAction
+ */
+public class ColumnarAction implements CueSheetAction {
+
+  /**
+   * Returns the given actions with every run of consecutive frame actions
+   * replaced by one instance. Runs of a single action, and those that a
+   * traversal could run in one pass, are left as they are.
+   */
+  public static List<CueSheetAction> group(List<CueSheetAction> actions) {
+    List<CueSheetAction> out = new LinkedList<>();
+    List<FrameAction> run = new ArrayList<>();
+    for (CueSheetAction action : actions) {
+      if (action instanceof FrameAction) {
+        run.add((FrameAction) action);
+        continue;
+      }
+      flush(run, out);
+      out.add(action);
+    }
+    flush(run, out);
+    return out;
+  }
+
+  /** Moves the given run of actions to the given list. */
+  private static void flush(List<FrameAction> run, List<CueSheetAction> out) {
+    if (
+      run.size() > 1 &&
+      !run
+        .stream()
+        .allMatch(action ->
+          action instanceof TraversalAction &&
+          ((TraversalAction) action).isFusible()
+        )
+    ) {
+      out.add(new ColumnarAction(new ArrayList<>(run)));
+    } else {
+      out.addAll(run);
+    }
+    run.clear();
+  }
+
+  /** Grouped actions. */
+  private final List<FrameAction> actions;
+
+  /** Makes an instance with the given actions. */
+  public ColumnarAction(List<FrameAction> actions) {
+    this.actions = actions;
+  }
+
+  /** Returns its grouped actions. */
+  public List<FrameAction> getActions() {
+    return this.actions;
+  }
+
+  /**
+   * {@inheritDoc} The cuesheet is left as it is if an action fails.
+   */
+  @Override
+  public boolean run(CueSheet sheet) throws Exception {
+    FrameTable table = FrameTable.of(sheet);
+    for (FrameAction action : this.actions) {
+      if (!action.run(table)) {
+        return false;
+      }
+    }
+    table.apply();
+    return true;
+  }
+
+  /** {@inheritDoc} Those of its actions combined. */
+  @Override
+  public Set<Field> getReads() {
+    Set<Field> out = EnumSet.noneOf(Field.class);
+    this.actions.forEach(action -> out.addAll(action.getReads()));
+    return out;
+  }
+
+  /** {@inheritDoc} Those of its actions combined. */
+  @Override
+  public Set<Field> getWrites() {
+    Set<Field> out = EnumSet.noneOf(Field.class);
+    this.actions.forEach(action -> out.addAll(action.getWrites()));
+    return out;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return this.actions
+      .stream()
+      .map(FrameAction::toString)
+      .collect(Collectors.joining(SPACE));
+  }
+}
@@ -0,0 +1,81 @@
+package eden.qedit.action;
+
+import static eden.common.shared.Constants.SPACE;
+
+import eden.common.model.cd.CueSheet;
+import eden.qedit.io.CueSheetBinary;
+import eden.qedit.io.OutputFile;
+import eden.qedit.util.Events;
+import eden.qedit.util.Stats;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes to the given path in the binary format. The path may contain the
+ * placeholders of {@link Write}. Files in the binary format are read as
+ * cuesheets, so that `write` converts them back.
+ *
+ * @author Brendon
+ */
+public class Convert implements CueSheetAction {
+
+  /** Key. */
+  public static final String KEY = "convert";
+  /** Output path template. */
+  private final String template;
+  /** Writer whose path template is that of this. */
+  private final Write target;
+  /** Number of outputs skipped as unchanged. */
+  private final AtomicInteger unchanged = new AtomicInteger();
+
+  /** Makes an instance with the given output path template. */
+  public Convert(String template) {
+    this.template = template;
+    this.target = new Write(template);
+  }
+
+  /** Returns whether its path template has placeholders. */
+  public boolean hasPlaceholders() {
+    return this.target.hasPlaceholders();
+  }
+
+  /** Returns the number of outputs it skipped as unchanged. */
+  public int getUnchanged() {
+    return this.unchanged.get();
+  }
+
+  /** Returns its output path for the given input file. */
+  public Path getPath(File input) {
+    return this.target.getPath(input);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean run(CueSheet sheet) throws IOException {
+    Path path = getPath(sheet.hasFile() ? sheet.getFile().getFile() : null);
+    Events events = Events.get();
+    Events.Write event = events == null
+      ? null
+      : events.beginWrite(path.toString());
+    byte[] bytes = CueSheetBinary.write(sheet);
+    boolean written = OutputFile.write(path, ByteBuffer.wrap(bytes));
+    if (written) {
+      Stats.addWritten(bytes.length);
+    } else {
+      this.unchanged.incrementAndGet();
+    }
+    if (event != null) {
+      event.commit(written ? bytes.length : 0, !written);
+    }
+    return true;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return KEY + SPACE + this.template;
+  }
+}
@@ -1,6 +1,8 @@
 package eden.qedit.action;
 
 import eden.common.model.cd.CueSheet;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * A CueSheetAction operates on cuesheets.
@@ -12,6 +14,40 @@ public interface CueSheetAction {
   /** Runs its operation on the given cuesheet and returns its success. */
   boolean run(CueSheet sheet) throws Exception;
 
+  /** Returns the fields whose values it depends on. */
+  default Set<Field> getReads() {
+    return EnumSet.allOf(Field.class);
+  }
+
+  /**
+   * Returns the fields that it may change. One that declares none is never
+   * dropped from a plan, as it is run for its other effects.
+   */
+  default Set<Field> getWrites() {
+    return EnumSet.noneOf(Field.class);
+  }
+
+  /**
+   * Returns the fields whose values it uses as strings. Those that no action
+   * decodes may be parsed raw. By default, those that it reads.
+   */
+  default Set<Field> getDecodes() {
+    return getReads();
+  }
+
+  /** Returns the fields that it overwrites regardless of their values. */
+  default Set<Field> getKills() {
+    return EnumSet.noneOf(Field.class);
+  }
+
+  /**
+   * Returns whether it renders cuesheets of its own, so that it is not run
+   * among output actions that share a rendering.
+   */
+  default boolean isRendering() {
+    return false;
+  }
+
   /** {@inheritDoc} */
   @Override
   String toString();
@@ -0,0 +1,344 @@
+package eden.qedit.action;
+
+import static eden.common.shared.Constants.SPACE;
+
+import eden.common.excep.cd.FileIncompleteException;
+import eden.common.excep.cd.FrameMisnumberException;
+import eden.common.excep.cd.SessionEmptyException;
+import eden.common.excep.cd.TrackEmptyException;
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Index;
+import eden.common.model.cd.Track;
+import eden.qedit.excep.ImageUnsupportedException;
+import eden.qedit.excep.IndexBeyondFileException;
+import eden.qedit.excep.InputOverwriteException;
+import eden.qedit.io.CueSheetBinary;
+import eden.qedit.io.CueSheetSerializer;
+import eden.qedit.io.FileProbe;
+import eden.qedit.io.MediaProbe;
+import eden.qedit.io.OutputFile;
+import eden.qedit.util.Stats;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extracts the tracks of a cuesheet of a single WAVE or BINARY image into the
+ * given directory, which may contain the placeholders of {@link Write}. Each
+ * track runs from its INDEX 01 until that of the next, the first from the
+ * start of the image, so that gaps are appended to the tracks before them.
+ *
+ * Audio tracks are written as `NN.wav` with a header of the format of the
+ * image, others as `NN.bin` of raw sectors. Their ranges are transferred from
+ * the image by the operating system in parallel, without copying them through
+ * the heap. A cuesheet of the written files is written as `{name}.tracks.cue`
+ * after the input file, or `tracks.cue` without one, but never over the input.
+ * The working cuesheet is unchanged.
+ *
+ * @author Brendon
+ */
+public class ExtractTracks implements CueSheetAction {
+
+  /** Key. */
+  public static final String KEY = "extract-tracks";
+  /** Default number of tracks to extract concurrently. */
+  public static final int DEFAULT_PARALLELISM = 4;
+  /** Name of the written cuesheet, after that of the input file if any. */
+  protected static final String NAME = "tracks.cue";
+  /** Subject of session problems. */
+  protected static final String SESSION = "Session";
+
+  /** Output directory template. */
+  private final String template;
+  /** Writer whose path template is that of this. */
+  private final Write target;
+  /** Transfer executor, made on first use. */
+  private ThreadPoolExecutor executor;
+
+  /** Makes an instance with the given output directory template. */
+  public ExtractTracks(String template) {
+    this.template = template;
+    this.target = new Write(template);
+  }
+
+  /** Returns whether its directory template has placeholders. */
+  public boolean hasPlaceholders() {
+    return this.target.hasPlaceholders();
+  }
+
+  /** Returns its output directory for the given input file. */
+  public Path getPath(File input) {
+    return this.target.getPath(input);
+  }
+
+  /** Returns the path of its written cuesheet for the given input file. */
+  public Path getSheetPath(File input) {
+    return getPath(input).resolve(getName(input));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean run(CueSheet sheet) throws Exception {
+    List<Track> tracks = sheet.getTracks();
+    Index first = getImage(tracks);
+    File input = sheet.hasFile() ? sheet.getFile().getFile() : null;
+    Path image = FileProbe.resolve(sheet, first.getFilePath());
+    Path directory = getPath(input);
+    Path target = directory.resolve(getName(input));
+    if (isInput(target, input)) {
+      throw new InputOverwriteException(target.toString());
+    }
+    try (
+      FileChannel channel = FileChannel.open(image, StandardOpenOption.READ)
+    ) {
+      MediaProbe.Layout layout = MediaProbe.getLayout(
+        channel,
+        first.getFileType()
+      );
+      if (layout == null) {
+        throw new ImageUnsupportedException(image.toString());
+      }
+      int[] starts = getStarts(tracks, layout.getFrames());
+      String[] names = new String[starts.length];
+      String[] types = new String[starts.length];
+      ThreadPoolExecutor executor = getExecutor();
+      String owner = OutputFile.getInput();
+      List<Future<?>> futures = new ArrayList<>(starts.length);
+      long written = 0;
+      Files.createDirectories(directory);
+      try {
+        for (int i = 0; i < starts.length; i++) {
+          Track track = tracks.get(i);
+          boolean audio = "AUDIO".equalsIgnoreCase(track.getType());
+          names[i] =
+            String.format(
+              Locale.ROOT,
+              "%02d.%s",
+              track.getNumber(),
+              audio ? "wav" : "bin"
+            );
+          types[i] = audio ? "WAVE" : "BINARY";
+          Path path = directory.resolve(names[i]);
+          long from = layout.getPosition(starts[i]);
+          long to = i + 1 < starts.length
+            ? layout.getPosition(starts[i + 1])
+            : layout.getEnd();
+          ByteBuffer header = audio
+            ? layout.toWaveHeader(to - from)
+            : ByteBuffer.allocate(0);
+          futures.add(
+            executor.submit(() -> {
+              OutputFile.setInput(owner);
+              try {
+                OutputFile.transfer(path, header, channel, from, to - from);
+              } finally {
+                OutputFile.setInput(null);
+              }
+              return null;
+            })
+          );
+          written += header.remaining() + to - from;
+        }
+        CueSheet out = rebase(sheet, starts, names, types);
+        StringBuilder text = new StringBuilder();
+        CueSheetSerializer.write(out, text);
+        ByteBuffer bytes = CueSheetSerializer.encode(
+          text,
+          CueSheetSerializer.getCharset(out)
+        );
+        if (OutputFile.write(target, bytes)) {
+          Stats.addWritten(bytes.remaining());
+        }
+        for (Future<?> future : futures) {
+          future.get();
+        }
+        Stats.addWritten(written);
+      } catch (ExecutionException exception) {
+        Throwable cause = exception.getCause();
+        throw cause instanceof Exception ? (Exception) cause : exception;
+      } finally {
+        futures.forEach(future -> future.cancel(false));
+      }
+    }
+    return true;
+  }
+
+  /**
+   * {@inheritDoc} Its cuesheet of the written files is rendered apart from
+   * the render buffer.
+   */
+  @Override
+  public boolean isRendering() {
+    return true;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return KEY + SPACE + this.template;
+  }
+
+  /** Returns its executor. */
+  private synchronized ThreadPoolExecutor getExecutor() {
+    if (this.executor == null) {
+      this.executor =
+        new ThreadPoolExecutor(
+          DEFAULT_PARALLELISM,
+          DEFAULT_PARALLELISM,
+          1,
+          TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(),
+          runnable -> {
+            Thread thread = new Thread(runnable, "ExtractTracks");
+            thread.setDaemon(true);
+            return thread;
+          }
+        );
+      this.executor.allowCoreThreadTimeOut(true);
+    }
+    return this.executor;
+  }
+
+  /**
+   * Returns the first index of the given tracks, whose file is their only
+   * one.
+   *
+   * @throws ImageUnsupportedException If they have another file.
+   */
+  private static Index getImage(List<Track> tracks) {
+    if (tracks.isEmpty()) {
+      throw new SessionEmptyException(SESSION);
+    }
+    Index out = null;
+    for (Track track : tracks) {
+      if (!track.hasIndexes()) {
+        throw new TrackEmptyException(track.getNumber());
+      }
+      if (out == null) {
+        out = track.getIndexes().get(0);
+        if (!out.hasFile()) {
+          throw new FileIncompleteException(track.getNumber(), out.getNumber());
+        }
+      }
+      for (Index index : track.getIndexes()) {
+        if (
+          index.hasFilePath() && !index.getFilePath().equals(out.getFilePath())
+        ) {
+          throw new ImageUnsupportedException(index.getFilePath());
+        }
+      }
+    }
+    return out;
+  }
+
+  /**
+   * Returns the starts of the given tracks in an image of the given length in
+   * CD frames: at their INDEX 01, or first INDEX without, and 0 for the first.
+   *
+   * @throws FrameMisnumberException If a track does not start after the one
+   * before.
+   * @throws IndexBeyondFileException If a track starts at or beyond the end.
+   */
+  private static int[] getStarts(List<Track> tracks, long frames) {
+    int[] out = new int[tracks.size()];
+    for (int i = 1; i < out.length; i++) {
+      Track track = tracks.get(i);
+      Index start = track.getIndexes().get(0);
+      for (Index index : track.getIndexes()) {
+        if (index.getNumber() == 1) {
+          start = index;
+          break;
+        }
+      }
+      out[i] = start.getFrame();
+      if (out[i] <= out[i - 1]) {
+        throw new FrameMisnumberException(track.getNumber(), start.getNumber());
+      }
+      if (out[i] >= frames) {
+        throw new IndexBeyondFileException(
+          track.getNumber(),
+          start.getNumber(),
+          (int) frames
+        );
+      }
+    }
+    return out;
+  }
+
+  /**
+   * Returns a copy of the given cuesheet whose indexes are in the track files
+   * of the given names and types, which start at the given frames.
+   */
+  private static CueSheet rebase(
+    CueSheet sheet,
+    int[] starts,
+    String[] names,
+    String[] types
+  ) throws IOException {
+    File file = sheet.hasFile() ? sheet.getFile().getFile() : new File(NAME);
+    CueSheet out = CueSheetBinary.read(
+      ByteBuffer.wrap(CueSheetBinary.write(sheet)),
+      file
+    );
+    if (sheet.hasFile()) {
+      out.setFile(sheet.getFile());
+    }
+    int segment = -1;
+    for (Track track : out.getTracks()) {
+      for (Index index : track.getIndexes()) {
+        int frame = index.getFrame(), previous = segment;
+        if (segment < 0) {
+          segment = 0;
+        }
+        while (segment + 1 < starts.length && frame >= starts[segment + 1]) {
+          segment++;
+        }
+        index.setFrame(frame - starts[segment]);
+        if (segment != previous) {
+          index.setFile(names[segment], types[segment]);
+        } else {
+          index.unsetFile();
+        }
+      }
+    }
+    return out;
+  }
+
+  /** Returns the name of the written cuesheet of the given input file. */
+  private static String getName(File input) {
+    if (input == null || input.getName().equals("-")) {
+      return NAME;
+    }
+    String file = input.getName();
+    int dot = file.lastIndexOf('.');
+    return (dot > 0 ? file.substring(0, dot) : file) + "." + NAME;
+  }
+
+  /** Returns whether the given path is that of the given input file. */
+  private static boolean isInput(Path path, File input) throws IOException {
+    if (input == null || input.getName().equals("-")) {
+      return false;
+    }
+    Path file = input.toPath();
+    if (path.getFileSystem() != file.getFileSystem()) {
+      return false;
+    }
+    Path absolute = path.toAbsolutePath().normalize();
+    if (absolute.equals(file.toAbsolutePath().normalize())) {
+      return true;
+    }
+    return Files.exists(path) && Files.isSameFile(path, file);
+  }
+}
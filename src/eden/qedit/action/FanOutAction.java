@@ -0,0 +1,125 @@
+package eden.qedit.action;
+
+import static eden.common.shared.Constants.SPACE;
+
+import eden.common.model.cd.CueSheet;
+import eden.qedit.io.CueSheetSerializer;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Renders a cuesheet once for a run of output actions. Actions that change no
+ * field and render nothing may come between them, as they leave the rendering
+ * valid.
+ *
+ * @author Brendon
+ * @see OutputAction
+ */
+public class FanOutAction implements CueSheetAction {
+
+  /**
+   * Returns the given actions with every run of output actions, and of those
+   * that change no field and render nothing between them, replaced by one
+   * instance. Runs with a single output action are left as they are.
+   */
+  public static List<CueSheetAction> group(List<CueSheetAction> actions) {
+    List<CueSheetAction> out = new LinkedList<>();
+    List<CueSheetAction> run = new ArrayList<>();
+    int outputs = 0;
+    for (CueSheetAction action : actions) {
+      if (action instanceof OutputAction) {
+        run.add(action);
+        outputs++;
+        continue;
+      }
+      if (
+        outputs > 0 && action.getWrites().isEmpty() && !action.isRendering()
+      ) {
+        run.add(action);
+        continue;
+      }
+      flush(run, outputs, out);
+      outputs = 0;
+      out.add(action);
+    }
+    flush(run, outputs, out);
+    return out;
+  }
+
+  /** Moves the given run of actions to the given list. */
+  private static void flush(
+    List<CueSheetAction> run,
+    int outputs,
+    List<CueSheetAction> out
+  ) {
+    int last = run.size();
+    while (last > 0 && !(run.get(last - 1) instanceof OutputAction)) {
+      last--;
+    }
+    if (outputs > 1) {
+      out.add(new FanOutAction(new ArrayList<>(run.subList(0, last))));
+    } else {
+      out.addAll(run.subList(0, last));
+    }
+    out.addAll(run.subList(last, run.size()));
+    run.clear();
+  }
+
+  /** Grouped actions. */
+  private final List<CueSheetAction> actions;
+
+  /** Makes an instance with the given actions. */
+  public FanOutAction(List<CueSheetAction> actions) {
+    this.actions = actions;
+  }
+
+  /** Returns its grouped actions. */
+  public List<CueSheetAction> getActions() {
+    return this.actions;
+  }
+
+  /**
+   * {@inheritDoc} The cuesheet is rendered on reaching the first output
+   * action. Any failure halts the rest.
+   */
+  @Override
+  public boolean run(CueSheet sheet) throws Exception {
+    CharSequence text = null;
+    for (CueSheetAction action : this.actions) {
+      if (!(action instanceof OutputAction)) {
+        if (!action.run(sheet)) {
+          return false;
+        }
+        continue;
+      }
+      if (text == null) {
+        text = CueSheetSerializer.render(sheet);
+      }
+      if (!((OutputAction) action).output(sheet, text)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** {@inheritDoc} Those of its actions combined. */
+  @Override
+  public Set<Field> getDecodes() {
+    Set<Field> out = EnumSet.noneOf(Field.class);
+    this.actions.forEach(action -> out.addAll(action.getDecodes()));
+    return out;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return this.actions
+      .stream()
+      .map(CueSheetAction::toString)
+      .collect(Collectors.joining(SPACE));
+  }
+}
@@ -0,0 +1,48 @@
+package eden.qedit.action;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Cuesheet fields that actions read and write.
+ *
+ * @author Brendon
+ * @see Planner
+ */
+public enum Field {
+  CATALOG,
+  CDTEXTFILE,
+  CHARSET,
+  EOL,
+  FLAGS,
+  INDEX,
+  ISRC,
+  POSTGAP,
+  PREGAP,
+  REM,
+  SESSION_PERFORMER,
+  SESSION_SONGWRITER,
+  SESSION_TITLE,
+  TRACK_PERFORMER,
+  TRACK_SONGWRITER,
+  TRACK_TITLE;
+
+  /**
+   * Returns the given session and track fields that are covered by the given
+   * operation mode.
+   */
+  public static Set<Field> of(
+    CueSheetAction.Mode mode,
+    Field session,
+    Field track
+  ) {
+    switch (mode) {
+      case SESSION:
+        return EnumSet.of(session);
+      case TRACK:
+        return EnumSet.of(track);
+      default:
+        return EnumSet.of(session, track);
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package eden.qedit.action;
+
+import eden.qedit.model.FrameTable;
+
+/**
+ * A FrameAction operates on time codes only: PREGAPs, POSTGAPs, and INDEX
+ * numbers, frames and FILEs. It can run over the columns of a frame table, so
+ * that consecutive instances share one conversion to and from it.
+ *
+ * @author Brendon
+ * @see ColumnarAction
+ */
+public interface FrameAction extends CueSheetAction {
+  /** Runs itself on the given frame table and returns its success. */
+  boolean run(FrameTable table) throws Exception;
+}
@@ -0,0 +1,187 @@
+package eden.qedit.action;
+
+import static eden.common.shared.Constants.SPACE;
+
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Index;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Runs consecutive traversal actions in a single traversal. At every node, the
+ * actions visit in their given order.
+ *
+ * @author Brendon
+ * @see TraversalAction
+ */
+public class FusedAction implements CueSheetAction {
+
+  /**
+   * Returns the given actions with every run of consecutive fusible traversal
+   * actions replaced by one instance.
+   */
+  public static List<CueSheetAction> fuse(List<CueSheetAction> actions) {
+    List<CueSheetAction> out = new LinkedList<>();
+    List<TraversalAction> run = new ArrayList<>();
+    for (CueSheetAction action : actions) {
+      if (
+        action instanceof TraversalAction &&
+        ((TraversalAction) action).isFusible()
+      ) {
+        run.add((TraversalAction) action);
+        continue;
+      }
+      flush(run, out);
+      out.add(action);
+    }
+    flush(run, out);
+    return out;
+  }
+
+  /**
+   * Traverses the given cuesheet once with the given actions and returns
+   * success.
+   */
+  static boolean traverse(CueSheet sheet, List<TraversalAction> actions) {
+    Session session = sheet.getSession();
+    for (TraversalAction action : actions) {
+      action.visit(sheet);
+    }
+    for (TraversalAction action : actions) {
+      action.visit(session);
+    }
+    for (Track track : session.getTracks()) {
+      for (TraversalAction action : actions) {
+        action.visit(track);
+      }
+      for (Index index : track.getIndexes()) {
+        for (TraversalAction action : actions) {
+          action.visit(track, index);
+        }
+      }
+    }
+    return true;
+  }
+
+  /** Moves the given run of actions to the given list. */
+  private static void flush(
+    List<TraversalAction> run,
+    List<CueSheetAction> out
+  ) {
+    if (run.size() == 1) {
+      out.add(run.get(0));
+    } else if (!run.isEmpty()) {
+      out.add(new FusedAction(new ArrayList<>(run)));
+    }
+    run.clear();
+  }
+
+  /** Fused actions. */
+  private final List<TraversalAction> actions;
+  /** Fused actions that visit cuesheets. */
+  private final TraversalAction[] sheetActions;
+  /** Fused actions that visit sessions. */
+  private final TraversalAction[] sessionActions;
+  /** Fused actions that visit tracks. */
+  private final TraversalAction[] trackActions;
+  /** Fused actions that visit indexes. */
+  private final TraversalAction[] indexActions;
+
+  /** Makes an instance with the given actions. */
+  public FusedAction(List<TraversalAction> actions) {
+    this.actions = actions;
+    this.sheetActions = filter(actions, CueSheet.class);
+    this.sessionActions = filter(actions, Session.class);
+    this.trackActions = filter(actions, Track.class);
+    this.indexActions = filter(actions, Track.class, Index.class);
+  }
+
+  /** Returns its fused actions. */
+  public List<TraversalAction> getActions() {
+    return this.actions;
+  }
+
+  /**
+   * {@inheritDoc} Nodes are skipped at levels that none of its actions visit.
+   */
+  @Override
+  public boolean run(CueSheet sheet) {
+    Session session = sheet.getSession();
+    for (TraversalAction action : this.sheetActions) {
+      action.visit(sheet);
+    }
+    for (TraversalAction action : this.sessionActions) {
+      action.visit(session);
+    }
+    if (this.trackActions.length == 0 && this.indexActions.length == 0) {
+      return true;
+    }
+    for (Track track : session.getTracks()) {
+      for (TraversalAction action : this.trackActions) {
+        action.visit(track);
+      }
+      if (this.indexActions.length > 0) {
+        for (Index index : track.getIndexes()) {
+          for (TraversalAction action : this.indexActions) {
+            action.visit(track, index);
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /** {@inheritDoc} Those of its actions combined. */
+  @Override
+  public Set<Field> getReads() {
+    Set<Field> out = EnumSet.noneOf(Field.class);
+    this.actions.forEach(action -> out.addAll(action.getReads()));
+    return out;
+  }
+
+  /** {@inheritDoc} Those of its actions combined. */
+  @Override
+  public Set<Field> getWrites() {
+    Set<Field> out = EnumSet.noneOf(Field.class);
+    this.actions.forEach(action -> out.addAll(action.getWrites()));
+    return out;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return this.actions
+      .stream()
+      .map(TraversalAction::toString)
+      .collect(Collectors.joining(SPACE));
+  }
+
+  /**
+   * Returns the given actions that override the visit method of the given
+   * parameter types.
+   */
+  private static TraversalAction[] filter(
+    List<TraversalAction> actions,
+    Class<?>... types
+  ) {
+    return actions
+      .stream()
+      .filter(action -> {
+        try {
+          return (
+            action.getClass().getMethod("visit", types).getDeclaringClass() !=
+            TraversalAction.class
+          );
+        } catch (NoSuchMethodException exception) {
+          throw new AssertionError(exception);
+        }
+      })
+      .toArray(TraversalAction[]::new);
+  }
+}
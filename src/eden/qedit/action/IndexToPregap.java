@@ -2,6 +2,12 @@ package eden.qedit.action;
 
 import eden.common.model.cd.CueSheet;
 import eden.common.model.cd.Index;
+import eden.common.model.cd.Track;
+import eden.qedit.io.FileProbe;
+import eden.qedit.io.MediaProbe;
+import eden.qedit.model.FrameTable;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Moves INDEX 00 to PREGAP. For each track:
@@ -10,50 +16,155 @@ import eden.common.model.cd.Index;
  *
  * - The FILE for INDEX 01 is set to that of INDEX 00.
  *
- * - INDEX 00 is removed.
+ * - INDEX 00 is removed, along with its REMs.
  *
- * If INDEX 01 has a file, then it needs to calculate the duration between INDEX
- * 00 and the end of its file. But as calculations on files are not yet
- * supported, it does nothing.
+ * If INDEX 01 has a file, then the duration is that between INDEX 00 and the
+ * end of its file, plus that before INDEX 01, and INDEX 01 keeps its file. The
+ * length of the file of INDEX 00 is probed from its header. If it is unknown,
+ * or if INDEX 00 has a file and does not start it, then it does nothing.
  *
  * @author Brendon
  */
-public class IndexToPregap implements CueSheetAction {
+public class IndexToPregap implements FrameAction {
 
   /** Key. */
   public static final String KEY = "index-to-pregap";
+  /** Media probe. */
+  private final MediaProbe media;
+
+  /** Makes an instance with its own media probe. */
+  public IndexToPregap() {
+    this(new MediaProbe());
+  }
+
+  /** Makes an instance with the given media probe. */
+  public IndexToPregap(MediaProbe media) {
+    this.media = media;
+  }
 
   /** {@inheritDoc} */
   @Override
   public boolean run(CueSheet sheet) {
-    sheet
-      .getTracks()
-      .forEach(track -> {
-        if (
-          track.getIndexes().size() > 1 &&
-          track.getIndex(0).getNumber() == Index.MIN_NUMBER &&
-          track.getIndex(1).getNumber() == Index.MIN_NUMBER + 1 &&
-          !track.getIndex(1).hasFilePath()
+    String path = null, type = null;
+    for (Track track : sheet.getTracks()) {
+      if (
+        track.getIndexes().size() > 1 &&
+        track.getIndex(0).getNumber() == Index.MIN_NUMBER &&
+        track.getIndex(1).getNumber() == Index.MIN_NUMBER + 1
+      ) {
+        Index index0 = track.getIndex(0), index1 = track.getIndex(1);
+        if (index0.hasFilePath()) {
+          path = index0.getFilePath();
+          type = index0.getFileType();
+        }
+        long frames;
+        if (!index1.hasFilePath()) {
+          frames = index1.getFrame() - index0.getFrame();
+        } else if (
+          path == null || (index0.hasFilePath() && index0.getFrame() > 0)
         ) {
-          int frames =
-            track.getIndex(1).getFrame() - track.getIndex(0).getFrame();
-          if (frames > 0) {
-            track.setPregap(
-              track.hasPregap() ? track.getPregap() + frames : frames
-            );
-            track
-              .getIndex(1)
-              .setFile(
-                track.getIndex(0).getFilePath(),
-                track.getIndex(0).getFileType()
-              );
-            track.getIndexes().remove(0);
+          frames = 0;
+        } else {
+          long length = this.media.getFrames(
+            FileProbe.resolve(sheet, path),
+            type
+          );
+          frames =
+            length == MediaProbe.UNKNOWN || length < index0.getFrame()
+              ? 0
+              : length - index0.getFrame() + index1.getFrame();
+        }
+        if (frames > 0 && frames <= Integer.MAX_VALUE) {
+          int pregap = (int) frames;
+          track.setPregap(
+            track.hasPregap() ? track.getPregap() + pregap : pregap
+          );
+          if (!index1.hasFilePath()) {
+            index1.setFile(index0.getFilePath(), index0.getFileType());
           }
+          track.getIndexes().remove(0);
+        }
+      }
+      for (Index index : track.getIndexes()) {
+        if (index.hasFilePath()) {
+          path = index.getFilePath();
+          type = index.getFileType();
         }
-      });
+      }
+    }
     return true;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public boolean run(FrameTable table) {
+    int[] pregaps = table.getPregaps();
+    String path = null, type = null;
+    for (int t = 0; t < table.getTrackCount(); t++) {
+      int i = table.getStart(t);
+      int[] numbers = table.getNumbers(), frames = table.getFrames();
+      if (
+        table.getStart(t + 1) - i > 1 &&
+        numbers[i] == Index.MIN_NUMBER &&
+        numbers[i + 1] == Index.MIN_NUMBER + 1
+      ) {
+        boolean hasFile0 = table.getPath(i) != null;
+        boolean hasFile1 = table.getPath(i + 1) != null;
+        if (hasFile0) {
+          path = table.getPath(i);
+          type = table.getType(i);
+        }
+        long duration;
+        if (!hasFile1) {
+          duration = frames[i + 1] - frames[i];
+        } else if (path == null || (hasFile0 && frames[i] > 0)) {
+          duration = 0;
+        } else {
+          long length = this.media.getFrames(
+            FileProbe.resolve(table.getSheet(), path),
+            type
+          );
+          duration =
+            length == MediaProbe.UNKNOWN || length < frames[i]
+              ? 0
+              : length - frames[i] + frames[i + 1];
+        }
+        if (duration > 0 && duration <= Integer.MAX_VALUE) {
+          int pregap = (int) duration;
+          pregaps[t] =
+            pregaps[t] == FrameTable.UNSET ? pregap : pregaps[t] + pregap;
+          if (!hasFile1) {
+            table.setFile(i + 1, table.getPath(i), table.getType(i));
+          }
+          table.rewrite();
+          table.keepUntil(t);
+          table.keep(i + 1, table.getStart(t + 1));
+          table.endTrack();
+        }
+      }
+      for (int j = i; j < table.getStart(t + 1); j++) {
+        if (table.getPath(j) != null) {
+          path = table.getPath(j);
+          type = table.getType(j);
+        }
+      }
+    }
+    table.commit();
+    return true;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.of(Field.INDEX, Field.PREGAP);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return EnumSet.of(Field.INDEX, Field.PREGAP, Field.REM);
+  }
+
   /** {@inheritDoc} */
   @Override
   public String toString() {
@@ -1,23 +1,66 @@
 package eden.qedit.action;
 
-import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
- * Erases CD-Text.
+ * Erases CD-Text, which includes ISRC.
  *
  * @author Brendon
  */
-public class NoCDText implements CueSheetAction {
+public class NoCDText implements TraversalAction {
 
   /** Key. */
   public static final String KEY = "no-cdtext";
 
   /** {@inheritDoc} */
   @Override
-  public boolean run(CueSheet sheet) {
-    sheet.getSession().getTracks().forEach(track -> track.clearCdText());
-    sheet.getSession().clearCdText();
-    return true;
+  public void visit(Session session) {
+    session.clearCdText();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void visit(Track track) {
+    track.clearCdText();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.noneOf(Field.class);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return EnumSet.of(
+      Field.CDTEXTFILE,
+      Field.ISRC,
+      Field.SESSION_PERFORMER,
+      Field.SESSION_SONGWRITER,
+      Field.SESSION_TITLE,
+      Field.TRACK_PERFORMER,
+      Field.TRACK_SONGWRITER,
+      Field.TRACK_TITLE
+    );
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getKills() {
+    return EnumSet.of(
+      Field.CDTEXTFILE,
+      Field.ISRC,
+      Field.SESSION_PERFORMER,
+      Field.SESSION_SONGWRITER,
+      Field.SESSION_TITLE,
+      Field.TRACK_PERFORMER,
+      Field.TRACK_SONGWRITER,
+      Field.TRACK_TITLE
+    );
   }
 
   /** {@inheritDoc} */
@@ -1,22 +1,41 @@
 package eden.qedit.action;
 
-import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Session;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Erases CATALOG.
  *
  * @author Brendon
  */
-public class NoCatalog implements CueSheetAction {
+public class NoCatalog implements TraversalAction {
 
   /** Key. */
   public static final String KEY = "no-catalog";
 
   /** {@inheritDoc} */
   @Override
-  public boolean run(CueSheet sheet) {
-    sheet.getSession().unsetCatalog();
-    return true;
+  public void visit(Session session) {
+    session.unsetCatalog();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.noneOf(Field.class);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return EnumSet.of(Field.CATALOG);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getKills() {
+    return EnumSet.of(Field.CATALOG);
   }
 
   /** {@inheritDoc} */
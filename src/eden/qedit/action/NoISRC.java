@@ -1,22 +1,41 @@
 package eden.qedit.action;
 
-import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Track;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Erases ISRCs.
  *
  * @author Brendon
  */
-public class NoISRC implements CueSheetAction {
+public class NoISRC implements TraversalAction {
 
   /** Key. */
   public static final String KEY = "no-isrc";
 
   /** {@inheritDoc} */
   @Override
-  public boolean run(CueSheet sheet) {
-    sheet.getTracks().forEach(track -> track.unsetIsrc());
-    return true;
+  public void visit(Track track) {
+    track.unsetIsrc();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.noneOf(Field.class);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return EnumSet.of(Field.ISRC);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getKills() {
+    return EnumSet.of(Field.ISRC);
   }
 
   /** {@inheritDoc} */
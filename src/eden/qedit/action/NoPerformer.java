@@ -1,13 +1,16 @@
 package eden.qedit.action;
 
-import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Erases PERFORMERs.
  *
  * @author Brendon
  */
-public class NoPerformer implements CueSheetAction {
+public class NoPerformer implements TraversalAction {
 
   /** Key: all. */
   public static final String KEY = "no-performer";
@@ -25,14 +28,36 @@ public class NoPerformer implements CueSheetAction {
 
   /** {@inheritDoc} */
   @Override
-  public boolean run(CueSheet sheet) {
-    if (mode != Mode.TRACK) {
-      sheet.getSession().unsetPerformer();
+  public void visit(Session session) {
+    if (this.mode != Mode.TRACK) {
+      session.unsetPerformer();
     }
-    if (mode != Mode.SESSION) {
-      sheet.getSession().getTracks().forEach(track -> track.unsetPerformer());
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void visit(Track track) {
+    if (this.mode != Mode.SESSION) {
+      track.unsetPerformer();
     }
-    return true;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.noneOf(Field.class);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return Field.of(this.mode, Field.SESSION_PERFORMER, Field.TRACK_PERFORMER);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getKills() {
+    return Field.of(this.mode, Field.SESSION_PERFORMER, Field.TRACK_PERFORMER);
   }
 
   /** {@inheritDoc} */
@@ -1,24 +1,52 @@
 package eden.qedit.action;
 
-import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Track;
+import eden.qedit.model.FrameTable;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Erases POSTGAPs.
  *
  * @author Brendon
  */
-public class NoPostgap implements CueSheetAction {
+public class NoPostgap implements TraversalAction, FrameAction {
 
   /** Key. */
   public static final String KEY = "no-postgap";
 
   /** {@inheritDoc} */
   @Override
-  public boolean run(CueSheet sheet) {
-    sheet.getTracks().forEach(track -> track.unsetPostgap());
+  public void visit(Track track) {
+    track.unsetPostgap();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean run(FrameTable table) {
+    Arrays.fill(table.getPostgaps(), FrameTable.UNSET);
     return true;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.noneOf(Field.class);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return EnumSet.of(Field.POSTGAP);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getKills() {
+    return EnumSet.of(Field.POSTGAP);
+  }
+
   /** {@inheritDoc} */
   @Override
   public String toString() {
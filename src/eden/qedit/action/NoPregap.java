@@ -1,24 +1,52 @@
 package eden.qedit.action;
 
-import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Track;
+import eden.qedit.model.FrameTable;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Erases PREGAPs.
  *
  * @author Brendon
  */
-public class NoPregap implements CueSheetAction {
+public class NoPregap implements TraversalAction, FrameAction {
 
   /** Key. */
   public static final String KEY = "no-pregap";
 
   /** {@inheritDoc} */
   @Override
-  public boolean run(CueSheet sheet) {
-    sheet.getTracks().forEach(track -> track.unsetPregap());
+  public void visit(Track track) {
+    track.unsetPregap();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean run(FrameTable table) {
+    Arrays.fill(table.getPregaps(), FrameTable.UNSET);
     return true;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.noneOf(Field.class);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return EnumSet.of(Field.PREGAP);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getKills() {
+    return EnumSet.of(Field.PREGAP);
+  }
+
   /** {@inheritDoc} */
   @Override
   public String toString() {
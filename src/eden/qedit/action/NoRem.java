@@ -1,28 +1,55 @@
 package eden.qedit.action;
 
-import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Index;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Erases REMs.
  *
  * @author Brendon
  */
-public class NoRem implements CueSheetAction {
+public class NoRem implements TraversalAction {
 
   /** Key. */
   public static final String KEY = "no-rem";
 
   /** {@inheritDoc} */
   @Override
-  public boolean run(CueSheet sheet) {
-    sheet
-      .getTracks()
-      .forEach(track -> {
-        track.getIndexes().forEach(index -> index.getRems().clear());
-        track.getRems().clear();
-      });
-    sheet.getSession().getRems().clear();
-    return true;
+  public void visit(Session session) {
+    session.getRems().clear();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void visit(Track track) {
+    track.getRems().clear();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void visit(Track track, Index index) {
+    index.getRems().clear();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.noneOf(Field.class);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return EnumSet.of(Field.REM);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getKills() {
+    return EnumSet.of(Field.REM);
   }
 
   /** {@inheritDoc} */
@@ -1,13 +1,16 @@
 package eden.qedit.action;
 
-import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Erases SONGWRITERs.
  *
  * @author Brendon
  */
-public class NoSongwriter implements CueSheetAction {
+public class NoSongwriter implements TraversalAction {
 
   /** Key: all. */
   public static final String KEY = "no-songwriter";
@@ -25,14 +28,44 @@ public class NoSongwriter implements CueSheetAction {
 
   /** {@inheritDoc} */
   @Override
-  public boolean run(CueSheet sheet) {
+  public void visit(Session session) {
     if (this.mode != Mode.TRACK) {
-      sheet.getSession().unsetSongwriter();
+      session.unsetSongwriter();
     }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void visit(Track track) {
     if (this.mode != Mode.SESSION) {
-      sheet.getSession().getTracks().forEach(track -> track.unsetSongwriter());
+      track.unsetSongwriter();
     }
-    return true;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.noneOf(Field.class);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return Field.of(
+      this.mode,
+      Field.SESSION_SONGWRITER,
+      Field.TRACK_SONGWRITER
+    );
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getKills() {
+    return Field.of(
+      this.mode,
+      Field.SESSION_SONGWRITER,
+      Field.TRACK_SONGWRITER
+    );
   }
 
   /** {@inheritDoc} */
@@ -1,13 +1,16 @@
 package eden.qedit.action;
 
-import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Erases TITLEs.
  *
  * @author Brendon
  */
-public class NoTitle implements CueSheetAction {
+public class NoTitle implements TraversalAction {
 
   /** Key: all. */
   public static final String KEY = "no-title";
@@ -25,14 +28,36 @@ public class NoTitle implements CueSheetAction {
 
   /** {@inheritDoc} */
   @Override
-  public boolean run(CueSheet sheet) {
+  public void visit(Session session) {
     if (this.mode != Mode.TRACK) {
-      sheet.getSession().unsetTitle();
+      session.unsetTitle();
     }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void visit(Track track) {
     if (this.mode != Mode.SESSION) {
-      sheet.getSession().getTracks().forEach(track -> track.unsetTitle());
+      track.unsetTitle();
     }
-    return true;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.noneOf(Field.class);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return Field.of(this.mode, Field.SESSION_TITLE, Field.TRACK_TITLE);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getKills() {
+    return Field.of(this.mode, Field.SESSION_TITLE, Field.TRACK_TITLE);
   }
 
   /** {@inheritDoc} */
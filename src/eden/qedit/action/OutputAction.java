@@ -0,0 +1,33 @@
+package eden.qedit.action;
+
+import eden.common.model.cd.CueSheet;
+import eden.qedit.io.CueSheetSerializer;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * An OutputAction outputs cuesheets as rendered text. Consecutive ones share a
+ * single rendering.
+ *
+ * @author Brendon
+ * @see FanOutAction
+ */
+public interface OutputAction extends CueSheetAction {
+  /**
+   * Outputs the given rendering of the given cuesheet and returns its
+   * success.
+   */
+  boolean output(CueSheet sheet, CharSequence text) throws Exception;
+
+  /** {@inheritDoc} None, as raw values are rendered as they are. */
+  @Override
+  default Set<Field> getDecodes() {
+    return EnumSet.noneOf(Field.class);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  default boolean run(CueSheet sheet) throws Exception {
+    return output(sheet, CueSheetSerializer.render(sheet));
+  }
+}
@@ -0,0 +1,101 @@
+package eden.qedit.action;
+
+import java.util.EnumSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Set;
+
+/**
+ * Optimizes action chains before they run. It:
+ *
+ * - Drops actions whose every change is overwritten or left unread by later
+ * actions.
+ *
+ * - Merges consecutive `shift-times` whose offsets can be summed without
+ * changing the outcome of clamping.
+ *
+ * It also tells the fields that a plan never decodes, for lazy parsing.
+ *
+ * @author Brendon
+ * @see CueSheetAction#getReads()
+ * @see CueSheetAction#getWrites()
+ * @see CueSheetAction#getKills()
+ */
+public class Planner {
+
+  /** Returns the optimized plan of the given actions. */
+  public static List<CueSheetAction> plan(List<CueSheetAction> actions) {
+    return merge(prune(actions));
+  }
+
+  /**
+   * Returns the given actions without those that only change fields which no
+   * later action reads before overwriting.
+   */
+  public static List<CueSheetAction> prune(List<CueSheetAction> actions) {
+    LinkedList<CueSheetAction> out = new LinkedList<>();
+    Set<Field> live = EnumSet.noneOf(Field.class);
+    ListIterator<CueSheetAction> iterator = actions.listIterator(
+      actions.size()
+    );
+    while (iterator.hasPrevious()) {
+      CueSheetAction action = iterator.previous();
+      Set<Field> writes = action.getWrites();
+      if (!writes.isEmpty() && writes.stream().noneMatch(live::contains)) {
+        continue;
+      }
+      live.removeAll(action.getKills());
+      live.addAll(action.getReads());
+      out.addFirst(action);
+    }
+    return out;
+  }
+
+  /**
+   * Returns the fields that none of the given actions decodes, which may be
+   * parsed raw.
+   */
+  public static Set<Field> raw(List<CueSheetAction> actions) {
+    Set<Field> out = EnumSet.allOf(Field.class);
+    actions.forEach(action -> out.removeAll(action.getDecodes()));
+    return out;
+  }
+
+  /**
+   * Returns the given actions with consecutive `shift-times` merged where
+   * possible. A negative offset followed by a positive one is not merged as
+   * clamping at the first frame would be lost.
+   */
+  public static List<CueSheetAction> merge(List<CueSheetAction> actions) {
+    LinkedList<CueSheetAction> out = new LinkedList<>();
+    for (CueSheetAction action : actions) {
+      if (
+        action instanceof ShiftTimes &&
+        !out.isEmpty() &&
+        out.getLast() instanceof ShiftTimes
+      ) {
+        int last = ((ShiftTimes) out.getLast()).getOffset();
+        int next = ((ShiftTimes) action).getOffset();
+        long sum = (long) last + next;
+        if (
+          last != 0 &&
+          next != 0 &&
+          !(last < 0 && next > 0) &&
+          sum == (int) sum
+        ) {
+          out.removeLast();
+          if (sum != 0) {
+            out.add(new ShiftTimes((int) sum));
+          }
+          continue;
+        }
+      }
+      out.add(action);
+    }
+    return out;
+  }
+
+  /** To prevent instantiations of this class. */
+  protected Planner() {}
+}
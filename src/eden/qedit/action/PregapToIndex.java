@@ -2,6 +2,9 @@ package eden.qedit.action;
 
 import eden.common.model.cd.CueSheet;
 import eden.common.model.cd.Index;
+import eden.qedit.model.FrameTable;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Moves PREGAP to INDEX 00. For each track:
@@ -15,7 +18,7 @@ import eden.common.model.cd.Index;
  *
  * @author Brendon
  */
-public class PregapToIndex implements CueSheetAction {
+public class PregapToIndex implements FrameAction {
 
   /** Key. */
   public static final String KEY = "pregap-to-index";
@@ -62,6 +65,61 @@ public class PregapToIndex implements CueSheetAction {
     return true;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public boolean run(FrameTable table) {
+    int[] pregaps = table.getPregaps();
+    for (int t = 0; t < table.getTrackCount(); t++) {
+      int i = table.getStart(t);
+      if (pregaps[t] == FrameTable.UNSET || i == table.getStart(t + 1)) {
+        continue;
+      }
+      int[] frames = table.getFrames();
+      int frame = frames[i] - pregaps[t];
+      switch (table.getNumbers()[i]) {
+        case Index.MIN_NUMBER:
+          if (frame < 0) {
+            frames[i] = Index.MIN_FRAME;
+            pregaps[t] = -frame;
+          } else if (frame > 0) {
+            frames[i] = frame;
+            pregaps[t] = FrameTable.UNSET;
+          }
+          break;
+        case Index.MIN_NUMBER + 1:
+          if (frame > 0) {
+            table.rewrite();
+            table.keepUntil(t);
+            table.add(
+              Index.MIN_NUMBER,
+              frame,
+              table.getPath(i),
+              table.getType(i)
+            );
+            table.setFile(i, null, null);
+            table.keep(i, table.getStart(t + 1));
+            table.endTrack();
+            pregaps[t] = FrameTable.UNSET;
+          }
+          break;
+      }
+    }
+    table.commit();
+    return true;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.of(Field.INDEX, Field.PREGAP);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return EnumSet.of(Field.INDEX, Field.PREGAP);
+  }
+
   /** {@inheritDoc} */
   @Override
   public String toString() {
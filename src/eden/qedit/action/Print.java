@@ -1,23 +1,22 @@
 package eden.qedit.action;
 
-import static eden.common.shared.Constants.STDOUT;
-
 import eden.common.model.cd.CueSheet;
+import eden.qedit.io.Output;
 
 /**
  * Prints to the standard output.
  *
  * @author Brendon
  */
-public class Print implements CueSheetAction {
+public class Print implements OutputAction {
 
   /** Key. */
   public static final String KEY = "print";
 
-  /** @inheritDoc */
+  /** {@inheritDoc} */
   @Override
-  public boolean run(CueSheet sheet) {
-    STDOUT.print(sheet.getSession().toString(sheet.getFile().getLineEnding()));
+  public boolean output(CueSheet sheet, CharSequence text) {
+    Output.get().append(text);
     return true;
   }
 
@@ -0,0 +1,57 @@
+package eden.qedit.action;
+
+import static eden.common.shared.Constants.SPACE;
+
+import eden.common.model.cd.CueSheet;
+import java.nio.charset.Charset;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Sets charset to the given, in which the cuesheet is then written.
+ *
+ * @author Brendon
+ */
+public class SetCharset implements TraversalAction {
+
+  /** Key. */
+  public static final String KEY = "set-charset";
+  /** Charset. */
+  private final Charset charset;
+
+  /** Makes an instance with the given charset. */
+  public SetCharset(Charset charset) {
+    this.charset = Objects.requireNonNull(charset, "charset");
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void visit(CueSheet sheet) {
+    sheet.getFile().setCharset(this.charset);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.noneOf(Field.class);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return EnumSet.of(Field.CHARSET);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getKills() {
+    return EnumSet.of(Field.CHARSET);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return KEY + SPACE + this.charset.name();
+  }
+}
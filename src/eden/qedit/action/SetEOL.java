@@ -4,14 +4,16 @@ import static eden.common.shared.Constants.SPACE;
 
 import eden.common.model.cd.CueSheet;
 import eden.common.model.plaintext.LineEnding;
+import java.util.EnumSet;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Sets line ending to the given.
  *
  * @author Brendon
  */
-public class SetEOL implements CueSheetAction {
+public class SetEOL implements TraversalAction {
 
   /** Key. */
   public static final String KEY = "set-eol";
@@ -25,9 +27,26 @@ public class SetEOL implements CueSheetAction {
 
   /** {@inheritDoc} */
   @Override
-  public boolean run(CueSheet sheet) {
+  public void visit(CueSheet sheet) {
     sheet.getFile().setLineEnding(this.lineEnding);
-    return true;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.noneOf(Field.class);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return EnumSet.of(Field.EOL);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getKills() {
+    return EnumSet.of(Field.EOL);
   }
 
   /** {@inheritDoc} */
@@ -2,15 +2,19 @@ package eden.qedit.action;
 
 import static eden.common.shared.Constants.SPACE;
 
-import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Track;
 import eden.common.util.Numbers;
+import eden.qedit.model.FrameTable;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Sets PREGAPs.
  *
  * @author Brendon
  */
-public class SetPregap implements CueSheetAction {
+public class SetPregap implements TraversalAction, FrameAction {
 
   /** Key. */
   public static final String KEY = "set-pregap";
@@ -24,11 +28,35 @@ public class SetPregap implements CueSheetAction {
 
   /** {@inheritDoc} */
   @Override
-  public boolean run(CueSheet sheet) {
-    sheet.getTracks().forEach(track -> track.setPregap(this.pregap));
+  public void visit(Track track) {
+    track.setPregap(this.pregap);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean run(FrameTable table) {
+    Arrays.fill(table.getPregaps(), this.pregap);
     return true;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.noneOf(Field.class);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return EnumSet.of(Field.PREGAP);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getKills() {
+    return EnumSet.of(Field.PREGAP);
+  }
+
   /** {@inheritDoc} */
   @Override
   public String toString() {
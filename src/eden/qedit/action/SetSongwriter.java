@@ -2,14 +2,17 @@ package eden.qedit.action;
 
 import static eden.common.shared.Constants.SPACE;
 
-import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Sets SONGWRITERs.
  *
  * @author Brendon
  */
-public class SetSongwriter implements CueSheetAction {
+public class SetSongwriter implements TraversalAction {
 
   /** Key: all. */
   public static final String KEY = "set-songwriter";
@@ -30,17 +33,44 @@ public class SetSongwriter implements CueSheetAction {
 
   /** {@inheritDoc} */
   @Override
-  public boolean run(CueSheet sheet) {
-    if (this.mode != Mode.TRACK) {
-      sheet.getSession().setSongwriter(this.songwriter);
+  public void visit(Session session) {
+    if (this.mode != CueSheetAction.Mode.TRACK) {
+      session.setSongwriter(this.songwriter);
     }
-    if (this.mode != Mode.SESSION) {
-      sheet
-        .getSession()
-        .getTracks()
-        .forEach(track -> track.setSongwriter(this.songwriter));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void visit(Track track) {
+    if (this.mode != CueSheetAction.Mode.SESSION) {
+      track.setSongwriter(this.songwriter);
     }
-    return true;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.noneOf(Field.class);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return Field.of(
+      this.mode,
+      Field.SESSION_SONGWRITER,
+      Field.TRACK_SONGWRITER
+    );
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getKills() {
+    return Field.of(
+      this.mode,
+      Field.SESSION_SONGWRITER,
+      Field.TRACK_SONGWRITER
+    );
   }
 
   /** {@inheritDoc} */
@@ -2,14 +2,17 @@ package eden.qedit.action;
 
 import static eden.common.shared.Constants.SPACE;
 
-import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Sets TITLEs.
  *
  * @author Brendon
  */
-public class SetTitle implements CueSheetAction {
+public class SetTitle implements TraversalAction {
 
   /** Key: all. */
   public static final String KEY = "set-title";
@@ -30,17 +33,36 @@ public class SetTitle implements CueSheetAction {
 
   /** {@inheritDoc} */
   @Override
-  public boolean run(CueSheet sheet) {
+  public void visit(Session session) {
     if (this.mode != CueSheetAction.Mode.TRACK) {
-      sheet.getSession().setTitle(this.title);
+      session.setTitle(this.title);
     }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void visit(Track track) {
     if (this.mode != CueSheetAction.Mode.SESSION) {
-      sheet
-        .getSession()
-        .getTracks()
-        .forEach(track -> track.setTitle(this.title));
+      track.setTitle(this.title);
     }
-    return true;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.noneOf(Field.class);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return Field.of(this.mode, Field.SESSION_TITLE, Field.TRACK_TITLE);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getKills() {
+    return Field.of(this.mode, Field.SESSION_TITLE, Field.TRACK_TITLE);
   }
 
   /** {@inheritDoc} */
@@ -4,25 +4,33 @@ import static eden.common.shared.Constants.SPACE;
 
 import eden.common.model.cd.CueSheet;
 import eden.common.model.cd.Index;
+import eden.common.model.cd.Track;
+import eden.qedit.model.FrameTable;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Shifts INDEX time codes by the given frame offset.
  *
  * @author Brendon
  */
-public class ShiftTimes implements CueSheetAction {
+public class ShiftTimes implements TraversalAction, FrameAction {
 
   /** Key. */
   public static final String KEY = "shift-times";
   /** Frame offset. */
-  private int offset;
+  private final int offset;
 
   /** Makes an instance with the given frame offset. */
   public ShiftTimes(int offset) {
     this.offset = offset;
   }
 
-  /** {@inheritDoc} */
+  /**
+   * {@inheritDoc} The offset of `0` is resolved from the cuesheet before
+   * traversing.
+   */
   @Override
   public boolean run(CueSheet sheet) {
     if (
@@ -30,22 +38,59 @@ public class ShiftTimes implements CueSheetAction {
       sheet.getSession().hasTracks() &&
       sheet.getSession().getTrack(0).hasIndexes()
     ) {
-      this.offset = -sheet.getTrack(0).getIndex(0).getFrame();
+      return FusedAction.traverse(
+        sheet,
+        Collections.singletonList(
+          new ShiftTimes(-sheet.getTrack(0).getIndex(0).getFrame())
+        )
+      );
+    }
+    return FusedAction.traverse(sheet, Collections.singletonList(this));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean run(FrameTable table) {
+    int[] frames = table.getFrames();
+    int offset = this.offset;
+    if (offset == 0 && table.getTrackCount() > 0 && table.getStart(1) > 0) {
+      offset = -frames[0];
+    }
+    for (int i = 0, count = table.getIndexCount(); i < count; i++) {
+      frames[i] = Math.max(Index.MIN_FRAME, frames[i] + offset);
     }
-    sheet
-      .getTracks()
-      .forEach(track -> {
-        track
-          .getIndexes()
-          .forEach(index -> {
-            index.setFrame(
-              Math.max(Index.MIN_FRAME, index.getFrame() + this.offset)
-            );
-          });
-      });
     return true;
   }
 
+  /** Returns its frame offset. */
+  public int getOffset() {
+    return this.offset;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void visit(Track track, Index index) {
+    index.setFrame(Math.max(Index.MIN_FRAME, index.getFrame() + this.offset));
+  }
+
+  /** Returns whether it has a fixed offset. */
+  @Override
+  public boolean isFusible() {
+    return this.offset != 0;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.of(Field.INDEX);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return EnumSet.of(Field.INDEX);
+  }
+
   /** {@inheritDoc} */
   @Override
   public String toString() {
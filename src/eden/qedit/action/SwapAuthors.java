@@ -1,31 +1,56 @@
 package eden.qedit.action;
 
-import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Session;
 import eden.common.model.cd.Track;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Swaps SONGWRITERs and PERFORMERs.
  *
  * @author Brendon
  */
-public class SwapAuthors implements CueSheetAction {
+public class SwapAuthors implements TraversalAction {
 
   /** Key. */
   public static final String KEY = "swap-authors";
 
   /** {@inheritDoc} */
   @Override
-  public boolean run(CueSheet sheet) {
-    String performer;
-    for (Track track : sheet.getTracks()) {
-      performer = track.getPerformer();
-      track.setPerformer(track.getSongwriter());
-      track.setSongwriter(performer);
-    }
-    performer = sheet.getSession().getPerformer();
-    sheet.getSession().setPerformer(sheet.getSession().getSongwriter());
-    sheet.getSession().setSongwriter(performer);
-    return true;
+  public void visit(Session session) {
+    String performer = session.getPerformer();
+    session.setPerformer(session.getSongwriter());
+    session.setSongwriter(performer);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void visit(Track track) {
+    String performer = track.getPerformer();
+    track.setPerformer(track.getSongwriter());
+    track.setSongwriter(performer);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getReads() {
+    return EnumSet.of(
+      Field.SESSION_PERFORMER,
+      Field.SESSION_SONGWRITER,
+      Field.TRACK_PERFORMER,
+      Field.TRACK_SONGWRITER
+    );
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Set<Field> getWrites() {
+    return EnumSet.of(
+      Field.SESSION_PERFORMER,
+      Field.SESSION_SONGWRITER,
+      Field.TRACK_PERFORMER,
+      Field.TRACK_SONGWRITER
+    );
   }
 
   /** {@inheritDoc} */
@@ -0,0 +1,40 @@
+package eden.qedit.action;
+
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Index;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+import java.util.Collections;
+
+/**
+ * A TraversalAction operates on cuesheets one node at a time. Each visit may
+ * only read and write the node it is given, so that consecutive instances can
+ * share a single traversal.
+ *
+ * @author Brendon
+ * @see FusedAction
+ */
+public interface TraversalAction extends CueSheetAction {
+  /** Visits the given cuesheet before its session. */
+  default void visit(CueSheet sheet) {}
+
+  /** Visits the given session before its tracks. */
+  default void visit(Session session) {}
+
+  /** Visits the given track before its indexes. */
+  default void visit(Track track) {}
+
+  /** Visits the given index of the given track. */
+  default void visit(Track track, Index index) {}
+
+  /** Returns whether it can share a traversal with others. */
+  default boolean isFusible() {
+    return true;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  default boolean run(CueSheet sheet) {
+    return FusedAction.traverse(sheet, Collections.singletonList(this));
+  }
+}
@@ -1,35 +1,123 @@
 package eden.qedit.action;
 
+import static eden.common.shared.Constants.SPACE;
+
 import eden.common.model.cd.CueSheet;
-import eden.common.util.CueSheets;
+import eden.qedit.io.Archives;
+import eden.qedit.io.CueSheetSerializer;
+import eden.qedit.io.OutputFile;
+import eden.qedit.util.Events;
+import eden.qedit.util.Stats;
+import java.io.File;
 import java.io.IOException;
-import java.io.Writer;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
- * Writes to the given path.
+ * Writes to the given path. The path may contain placeholders that are
+ * substituted from the path of the input file:
+ *
+ * - `{dir}`: its directory.
+ *
+ * - `{file}`: its file name.
+ *
+ * - `{name}`: its file name without extension.
+ *
+ * - `{ext}`: its extension without the dot.
+ *
+ * Outputs are in the charset of the input file. Files that have the output
+ * already are not rewritten. Paths into archives, such as `{dir}/{file}` of an
+ * input in one, are written into them.
  *
  * @author Brendon
  */
-public class Write implements CueSheetAction {
+public class Write implements OutputAction {
 
   /** Key. */
   public static final String KEY = "write";
-  /** Output path. */
-  private final Path path;
+  /** Placeholder pattern. */
+  protected static final Pattern REGEX_PLACEHOLDER = Pattern.compile(
+    "\\{(dir|file|name|ext)\\}"
+  );
+  /** Output path template. */
+  private final String template;
+  /** Number of outputs skipped as unchanged. */
+  private final AtomicInteger unchanged = new AtomicInteger();
+
+  /** Makes an instance with the given output path template. */
+  public Write(String template) {
+    this.template = template;
+  }
+
+  /** Returns whether its path template has placeholders. */
+  public boolean hasPlaceholders() {
+    return REGEX_PLACEHOLDER.matcher(this.template).find();
+  }
 
-  /** Makes an instance with the given path. */
-  public Write(Path path) {
-    this.path = path;
+  /** Returns the number of outputs it skipped as unchanged. */
+  public int getUnchanged() {
+    return this.unchanged.get();
+  }
+
+  /** Returns its output path for the given input file. */
+  public Path getPath(File input) {
+    if (input == null || !hasPlaceholders()) {
+      return Archives.toPath(this.template);
+    }
+    String file = input.getName(), directory = input.getParent();
+    int dot = file.lastIndexOf('.');
+    Matcher matcher = REGEX_PLACEHOLDER.matcher(this.template);
+    StringBuffer buffer = new StringBuffer(this.template.length() * 2);
+    while (matcher.find()) {
+      String value;
+      switch (matcher.group(1)) {
+        case "dir":
+          value = directory == null ? "." : directory;
+          break;
+        case "file":
+          value = file;
+          break;
+        case "name":
+          value = dot > 0 ? file.substring(0, dot) : file;
+          break;
+        default:
+          value = dot > 0 ? file.substring(dot + 1) : "";
+      }
+      matcher.appendReplacement(buffer, Matcher.quoteReplacement(value));
+    }
+    return Archives.toPath(matcher.appendTail(buffer).toString());
   }
 
   /** {@inheritDoc} */
   @Override
-  public boolean run(CueSheet sheet) throws IOException {
-    try (Writer writer = Files.newBufferedWriter(this.path)) {
-      CueSheets.write(sheet, writer);
+  public boolean output(CueSheet sheet, CharSequence text) throws IOException {
+    Path path = getPath(sheet.hasFile() ? sheet.getFile().getFile() : null);
+    Events events = Events.get();
+    Events.Write event = events == null
+      ? null
+      : events.beginWrite(path.toString());
+    ByteBuffer bytes = CueSheetSerializer.encode(
+      text,
+      CueSheetSerializer.getCharset(sheet)
+    );
+    boolean written = OutputFile.write(path, bytes);
+    if (written) {
+      Stats.addWritten(bytes.remaining());
+    } else {
+      this.unchanged.incrementAndGet();
+    }
+    if (event != null) {
+      event.commit(written ? bytes.remaining() : 0, !written);
     }
     return true;
   }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return KEY + SPACE + this.template;
+  }
 }
@@ -0,0 +1,25 @@
+package eden.qedit.excep;
+
+import eden.common.excep.cd.BadCueSheetException;
+
+/**
+ * Thrown when a file is not CD-DA audio that can be read.
+ *
+ * @author Brendon
+ */
+public class AudioUnsupportedException extends BadCueSheetException {
+
+  /** Serialization version. */
+  private static final long serialVersionUID = 1L;
+  /** Problem. */
+  protected static final String PROBLEM =
+    "The file is not CD-DA audio in WAVE or BINARY.";
+  /** Remedy. */
+  protected static final String REMEDY =
+    "Convert it to 16-bit stereo WAVE at 44.1 kHz.";
+
+  /** Makes an instance with the given file path. */
+  public AudioUnsupportedException(String path) {
+    super(path, PROBLEM, REMEDY);
+  }
+}
@@ -0,0 +1,24 @@
+package eden.qedit.excep;
+
+import eden.common.excep.cd.BadCueSheetException;
+
+/**
+ * Thrown when the length of a file is needed but unknown from its header.
+ *
+ * @author Brendon
+ */
+public class FileLengthUnknownException extends BadCueSheetException {
+
+  /** Serialization version. */
+  private static final long serialVersionUID = 1L;
+  /** Problem. */
+  protected static final String PROBLEM = "The length of the file is unknown.";
+  /** Remedy. */
+  protected static final String REMEDY =
+    "Check that it exists and is a WAVE, AIFF or BINARY file.";
+
+  /** Makes an instance with the given file path. */
+  public FileLengthUnknownException(String path) {
+    super(path, PROBLEM, REMEDY);
+  }
+}
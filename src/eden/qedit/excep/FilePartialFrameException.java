@@ -0,0 +1,25 @@
+package eden.qedit.excep;
+
+import eden.common.excep.cd.BadCueSheetException;
+
+/**
+ * Thrown when a file to be joined into an image ends within a CD frame.
+ *
+ * @author Brendon
+ */
+public class FilePartialFrameException extends BadCueSheetException {
+
+  /** Serialization version. */
+  private static final long serialVersionUID = 1L;
+  /** Problem. */
+  protected static final String PROBLEM =
+    "The length of the file is not of whole CD frames.";
+  /** Remedy. */
+  protected static final String REMEDY =
+    "Pad it to a multiple of 588 samples, or 2352 bytes, before merging.";
+
+  /** Makes an instance with the given file path. */
+  public FilePartialFrameException(String path) {
+    super(path, PROBLEM, REMEDY);
+  }
+}
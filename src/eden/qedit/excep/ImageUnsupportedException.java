@@ -0,0 +1,25 @@
+package eden.qedit.excep;
+
+import eden.common.excep.cd.BadCueSheetException;
+
+/**
+ * Thrown when a cuesheet is not of a single image that can be split.
+ *
+ * @author Brendon
+ */
+public class ImageUnsupportedException extends BadCueSheetException {
+
+  /** Serialization version. */
+  private static final long serialVersionUID = 1L;
+  /** Problem. */
+  protected static final String PROBLEM =
+    "The cuesheet is not of a single WAVE or BINARY image.";
+  /** Remedy. */
+  protected static final String REMEDY =
+    "Join its files into one, or convert them to WAVE.";
+
+  /** Makes an instance with the given subject. */
+  public ImageUnsupportedException(String subject) {
+    super(subject, PROBLEM, REMEDY);
+  }
+}
@@ -0,0 +1,35 @@
+package eden.qedit.excep;
+
+import eden.common.excep.cd.BadCueSheetException;
+import eden.common.util.CDDAFrame;
+
+/**
+ * Thrown when an INDEX falls at or beyond the end of its file.
+ *
+ * @author Brendon
+ */
+public class IndexBeyondFileException extends BadCueSheetException {
+
+  /** Serialization version. */
+  private static final long serialVersionUID = 1L;
+  /** Problem. */
+  protected static final String PROBLEM =
+    "The index is at or beyond the end of its file.";
+
+  /** Returns the remedy for the given file length in CD frames. */
+  public static String makeRemedy(int frames) {
+    return (
+      "Correct it to be before " +
+      CDDAFrame.toTimeCode(frames) +
+      ", or check the file."
+    );
+  }
+
+  /**
+   * Makes an instance with the given track and index numbers, and file length
+   * in CD frames.
+   */
+  public IndexBeyondFileException(int track, int index, int frames) {
+    super(track, index, PROBLEM, makeRemedy(frames));
+  }
+}
@@ -0,0 +1,25 @@
+package eden.qedit.excep;
+
+import eden.common.excep.cd.BadCueSheetException;
+
+/**
+ * Thrown when an output would be written over its input cuesheet.
+ *
+ * @author Brendon
+ */
+public class InputOverwriteException extends BadCueSheetException {
+
+  /** Serialization version. */
+  private static final long serialVersionUID = 1L;
+  /** Problem. */
+  protected static final String PROBLEM =
+    "The output would overwrite the input cuesheet.";
+  /** Remedy. */
+  protected static final String REMEDY =
+    "Write it to another directory, or rename the input.";
+
+  /** Makes an instance with the given output path. */
+  public InputOverwriteException(String path) {
+    super(path, PROBLEM, REMEDY);
+  }
+}
@@ -0,0 +1,170 @@
+package eden.qedit.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Resolves paths into ZIP archives, such as `album.zip!/disc1.cue`, through
+ * the zip file system. A path is one if the part before the first `!/` is a
+ * regular file.
+ *
+ * Each archive is opened once on first use and shared among threads until
+ * {@link #close()}. Entries written to an open archive are kept by its file
+ * system, which rewrites the archive once on closing, copying the other
+ * entries as they are. Archives without written entries are left untouched.
+ *
+ * @author Brendon
+ */
+public class Archives {
+
+  /** Separator between an archive and its entry. */
+  public static final String SEPARATOR = "!/";
+
+  /** Open archives by real path. */
+  protected static final ConcurrentMap<Path, FileSystem> FILE_SYSTEMS =
+    new ConcurrentHashMap<>();
+  /** Open archives by path as given. */
+  protected static final ConcurrentMap<String, FileSystem> NAMES =
+    new ConcurrentHashMap<>();
+
+  /** Returns whether the given path is into an archive. */
+  public static boolean isArchived(String path) {
+    return indexOf(path) >= 0;
+  }
+
+  /**
+   * Returns the path of the given string, in the file system of its archive if
+   * it is into one.
+   */
+  public static Path toPath(String path) {
+    int index = indexOf(path);
+    if (index < 0) {
+      return Paths.get(path);
+    }
+    return getFileSystem(path.substring(0, index))
+      .getPath(getEntry(path, index));
+  }
+
+  /** Reads the whole of the given path into an archive. */
+  public static ByteBuffer read(String path) throws IOException {
+    return ByteBuffer.wrap(Files.readAllBytes(toPath(path)));
+  }
+
+  /**
+   * Returns the regular entries matched by the given glob pattern into an
+   * archive in path order, as paths into it.
+   */
+  public static List<String> expand(String pattern) throws IOException {
+    int index = indexOf(pattern);
+    String archive = pattern.substring(0, index + 1);
+    FileSystem system = getFileSystem(pattern.substring(0, index));
+    PathMatcher matcher = system.getPathMatcher(
+      "glob:" + getEntry(pattern, index)
+    );
+    try (Stream<Path> stream = Files.walk(system.getPath("/"))) {
+      return stream
+        .filter(p -> matcher.matches(p) && Files.isRegularFile(p))
+        .sorted()
+        .map(p -> archive + p)
+        .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Closes all open archives, rewriting those with written entries. All are
+   * closed even if some throw, in which case the first is rethrown.
+   */
+  public static void close() throws IOException {
+    IOException out = null;
+    NAMES.clear();
+    for (Path archive : new ArrayList<>(FILE_SYSTEMS.keySet())) {
+      FileSystem system = FILE_SYSTEMS.remove(archive);
+      try {
+        system.close();
+      } catch (IOException exception) {
+        if (out == null) {
+          out = exception;
+        }
+      }
+    }
+    if (out != null) {
+      throw out;
+    }
+  }
+
+  /**
+   * Returns the position of the separator in the given path if it is into an
+   * archive, or -1. The separator may use the file separator of the platform.
+   */
+  private static int indexOf(String path) {
+    int index = path.indexOf('!');
+    while (
+      index >= 0 &&
+      index + 1 < path.length() &&
+      path.charAt(index + 1) != '/' &&
+      path.charAt(index + 1) != File.separatorChar
+    ) {
+      index = path.indexOf('!', index + 1);
+    }
+    if (index <= 0 || index + 1 == path.length()) {
+      return -1;
+    }
+    String archive = path.substring(0, index);
+    return NAMES.containsKey(archive) || Files.isRegularFile(Paths.get(archive))
+      ? index
+      : -1;
+  }
+
+  /**
+   * Returns the absolute entry of the given path into an archive whose
+   * separator is at the given position.
+   */
+  private static String getEntry(String path, int index) {
+    String entry = path.substring(index + SEPARATOR.length());
+    return "/" + entry.replace(File.separatorChar, '/');
+  }
+
+  /** Returns the file system of the given archive, opening it if needed. */
+  private static FileSystem getFileSystem(String archive) {
+    FileSystem out = NAMES.get(archive);
+    if (out != null) {
+      return out;
+    }
+    Path path;
+    try {
+      path = Paths.get(archive).toRealPath();
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+    out =
+      FILE_SYSTEMS.computeIfAbsent(
+        path,
+        key -> {
+          try {
+            return FileSystems.newFileSystem(key, (ClassLoader) null);
+          } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+          }
+        }
+      );
+    NAMES.putIfAbsent(archive, out);
+    return out;
+  }
+
+  /** To prevent instantiations of this class. */
+  protected Archives() {}
+}
@@ -0,0 +1,148 @@
+package eden.qedit.io;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Detects the charsets of cuesheet files from their bytes in one scan:
+ *
+ * - A UTF-16 byte order mark tells UTF-16 of its order, which is kept on
+ * writing.
+ *
+ * - Input that is all ASCII or valid UTF-8, with or without a byte order mark,
+ * is UTF-8.
+ *
+ * - Input that is valid Shift_JIS and has a run of at least two Japanese
+ * characters is Windows-31J, the Shift_JIS of Windows. A lone one is as likely
+ * a pair of Western characters, such as `’t`.
+ *
+ * - Others are Windows-1252, the Latin-1 of Windows.
+ *
+ * @author Brendon
+ */
+public class CharsetDetector {
+
+  /** UTF-16 in big-endian order with a byte order mark. */
+  public static final Charset UTF_16_BOM = Charset.forName("UTF-16");
+  /** UTF-16 in little-endian order with a byte order mark. */
+  public static final Charset UTF_16LE_BOM = Charset.forName("x-UTF-16LE-BOM");
+  /** Shift_JIS with the extensions of Windows. */
+  public static final Charset WINDOWS_31J = Charset.forName("windows-31j");
+  /** Latin-1 with the extensions of Windows. */
+  public static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+
+  /**
+   * Returns the charset of the remaining given bytes. The buffer position is
+   * unchanged. Direct buffers are copied to be scanned.
+   */
+  public static Charset detect(ByteBuffer bytes) {
+    byte[] array;
+    int from, to;
+    if (bytes.hasArray()) {
+      array = bytes.array();
+      from = bytes.arrayOffset() + bytes.position();
+      to = bytes.arrayOffset() + bytes.limit();
+    } else {
+      array = new byte[bytes.remaining()];
+      bytes.duplicate().get(array);
+      from = 0;
+      to = array.length;
+    }
+    if (to - from >= 2) {
+      int b0 = array[from] & 0xFF, b1 = array[from + 1] & 0xFF;
+      if (b0 == 0xFF && b1 == 0xFE) {
+        return UTF_16LE_BOM;
+      }
+      if (b0 == 0xFE && b1 == 0xFF) {
+        return UTF_16_BOM;
+      }
+    }
+    int i = from;
+    while (i < to && array[i] >= 0) {
+      i++;
+    }
+    if (i == to || isUtf8(array, i, to)) {
+      return UTF_8;
+    }
+    return isShiftJis(array, i, to) ? WINDOWS_31J : WINDOWS_1252;
+  }
+
+  /**
+   * Returns whether the given bytes are well-formed UTF-8 from the first until
+   * the second given position, as the strict decoder of Java accepts.
+   */
+  private static boolean isUtf8(byte[] bytes, int from, int to) {
+    for (int i = from; i < to;) {
+      int b = bytes[i++] & 0xFF;
+      if (b < 0x80) {
+        continue;
+      }
+      int count, min = 0x80, max = 0xBF;
+      if (b >= 0xC2 && b <= 0xDF) {
+        count = 1;
+      } else if (b >= 0xE0 && b <= 0xEF) {
+        count = 2;
+        if (b == 0xE0) {
+          min = 0xA0;
+        } else if (b == 0xED) {
+          max = 0x9F;
+        }
+      } else if (b >= 0xF0 && b <= 0xF4) {
+        count = 3;
+        if (b == 0xF0) {
+          min = 0x90;
+        } else if (b == 0xF4) {
+          max = 0x8F;
+        }
+      } else {
+        return false;
+      }
+      if (to - i < count) {
+        return false;
+      }
+      b = bytes[i++] & 0xFF;
+      if (b < min || b > max) {
+        return false;
+      }
+      for (int j = 1; j < count; j++) {
+        if ((bytes[i++] & 0xC0) != 0x80) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether the given bytes are Shift_JIS from the first until the
+   * second given position, with a run of at least two Japanese characters.
+   */
+  private static boolean isShiftJis(byte[] bytes, int from, int to) {
+    boolean run = false, last = false;
+    for (int i = from; i < to;) {
+      int b = bytes[i++] & 0xFF;
+      if (b < 0x80) {
+        last = false;
+        continue;
+      }
+      if (b < 0xA1 || b > 0xDF) {
+        // Not half-width katakana, so the lead byte of a pair.
+        if (b == 0x80 || b == 0xA0 || b > 0xFC || i == to) {
+          return false;
+        }
+        b = bytes[i++] & 0xFF;
+        if (b < 0x40 || b == 0x7F || b > 0xFC) {
+          return false;
+        }
+      }
+      run |= last;
+      last = true;
+    }
+    return run;
+  }
+
+  /** To prevent instantiations of this class. */
+  protected CharsetDetector() {}
+}
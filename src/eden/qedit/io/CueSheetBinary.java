@@ -0,0 +1,105 @@
+package eden.qedit.io;
+
+import eden.common.model.cd.CueSheet;
+import eden.common.model.plaintext.LineEnding;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary cuesheet format. It encodes the model losslessly, including REMs,
+ * custom statements, the line ending and charset of the cuesheet file, and is
+ * read back without parsing text:
+ *
+ * - Header: the magic bytes `89 51 43 53` and the format version.
+ *
+ * - String table: every distinct string once, so that repeated FILE paths,
+ * types and names cost one reference each.
+ *
+ * - Body: the session, tracks and indexes. Index frames are delta-coded
+ * within each file; canonical FLAGS are a bitset.
+ *
+ * - Lines, in version 2 only: the source lines of CATALOG, CDTEXTFILE, each
+ * track and each index in order, delta-coded, zero for unknown. They are
+ * written on request for cuesheets parsed from text, so that diagnostics of
+ * decoded ones tell their lines.
+ *
+ * Numbers are unsigned LEB128 varints, zigzag-coded where they may be
+ * negative. String references are one-based, zero for null.
+ *
+ * @author Brendon
+ */
+public class CueSheetBinary {
+
+  /** Magic bytes. The first is not valid at the start of UTF-8 text. */
+  public static final byte[] MAGIC = { (byte) 0x89, 'Q', 'C', 'S' };
+  /** Format version. */
+  public static final int VERSION = 1;
+  /** Format version with source lines. */
+  public static final int VERSION_LINES = 2;
+  /** File extension, without the dot. */
+  public static final String EXTENSION = "qcs";
+  /** Line endings by code. */
+  protected static final LineEnding[] LINE_ENDINGS = {
+    null,
+    LineEnding.CR,
+    LineEnding.LF,
+    LineEnding.CRLF,
+  };
+  /** Canonical FLAGS by bit. */
+  protected static final String[] FLAGS = { "DCP", "4CH", "PRE", "SCMS" };
+  /** Track bit: it has a PREGAP. */
+  protected static final int TRACK_PREGAP = 1;
+  /** Track bit: it has a POSTGAP. */
+  protected static final int TRACK_POSTGAP = 1 << 1;
+  /** Track bit: its FLAGS are a list of strings rather than a bitset. */
+  protected static final int TRACK_FLAGS_LIST = 1 << 2;
+  /** Track or index bit: it has REMs or custom statements. */
+  protected static final int EXTRAS = 1 << 3;
+  /** Index bit: it has a FILE. */
+  protected static final int INDEX_FILE = 1;
+
+  /** Returns whether the remaining given bytes are in this format. */
+  public static boolean isBinary(ByteBuffer bytes) {
+    if (bytes.remaining() < MAGIC.length) {
+      return false;
+    }
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (bytes.get(bytes.position() + i) != MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the given cuesheet encoded. */
+  public static byte[] write(CueSheet sheet) {
+    return write(sheet, false);
+  }
+
+  /**
+   * Returns the given cuesheet encoded, with its source lines if given and it
+   * has them.
+   */
+  public static byte[] write(CueSheet sheet, boolean lines) {
+    return new CueSheetBinaryWriter().write(sheet, lines);
+  }
+
+  /** Returns the cuesheet of the given file decoded from the given bytes. */
+  public static CueSheet read(ByteBuffer bytes, File file) throws IOException {
+    return new CueSheetBinaryReader(bytes).read(file);
+  }
+
+  /** Returns the code of the given line ending. */
+  protected static int toCode(LineEnding ending) {
+    for (int i = 1; i < LINE_ENDINGS.length; i++) {
+      if (ending == LINE_ENDINGS[i]) {
+        return i;
+      }
+    }
+    return 0;
+  }
+
+  /** To prevent instantiations of this class. */
+  protected CueSheetBinary() {}
+}
@@ -0,0 +1,234 @@
+package eden.qedit.io;
+
+import static eden.qedit.io.CueSheetBinary.EXTRAS;
+import static eden.qedit.io.CueSheetBinary.FLAGS;
+import static eden.qedit.io.CueSheetBinary.INDEX_FILE;
+import static eden.qedit.io.CueSheetBinary.LINE_ENDINGS;
+import static eden.qedit.io.CueSheetBinary.TRACK_FLAGS_LIST;
+import static eden.qedit.io.CueSheetBinary.TRACK_POSTGAP;
+import static eden.qedit.io.CueSheetBinary.TRACK_PREGAP;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import eden.common.model.cd.CDLayoutObject;
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Index;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+import eden.common.model.plaintext.PlainText;
+import eden.qedit.action.Field;
+import eden.qedit.model.LinedCueSheet;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Reads cuesheets in the binary format. It builds the same model as parsing
+ * the text that it was written from, knowing the source lines of its
+ * statements if they were written.
+ *
+ * @author Brendon
+ * @see CueSheetBinary
+ */
+public class CueSheetBinaryReader {
+
+  /** Input. */
+  private final ByteBuffer bytes;
+  /** String table. */
+  private String[] strings;
+
+  /** Makes an instance that reads the remaining given bytes. */
+  public CueSheetBinaryReader(ByteBuffer bytes) {
+    this.bytes = bytes.slice();
+  }
+
+  /**
+   * Reads the cuesheet of the given file, which may be null. Throws if its
+   * input is not of a supported version or is malformed.
+   */
+  public CueSheet read(File file) throws IOException {
+    try {
+      if (!CueSheetBinary.isBinary(this.bytes)) {
+        throw malformed("Not a binary cuesheet");
+      }
+      this.bytes.position(CueSheetBinary.MAGIC.length);
+      int version = readVarint();
+      if (
+        version != CueSheetBinary.VERSION &&
+        version != CueSheetBinary.VERSION_LINES
+      ) {
+        throw malformed("Unsupported version " + version);
+      }
+      this.strings = new String[readCount()];
+      for (int i = 0; i < this.strings.length; i++) {
+        byte[] utf8 = new byte[readCount()];
+        this.bytes.get(utf8);
+        this.strings[i] = new String(utf8, UTF_8);
+      }
+      CueSheet out = readBody(file, version == CueSheetBinary.VERSION_LINES);
+      if (this.bytes.hasRemaining()) {
+        throw malformed("Trailing bytes");
+      }
+      return out;
+    } catch (BufferUnderflowException | IllegalArgumentException exception) {
+      throw malformed("Truncated or malformed");
+    } finally {
+      this.strings = null;
+    }
+  }
+
+  private CueSheet readBody(File file, boolean lines) throws IOException {
+    PlainText text = file == null ? new PlainText() : new PlainText(file);
+    int ending = this.bytes.get() & 0xFF;
+    if (ending >= LINE_ENDINGS.length) {
+      throw malformed("Unknown line ending " + ending);
+    }
+    text.setLineEnding(LINE_ENDINGS[ending]);
+    String charset = readString();
+    text.setCharset(charset == null ? null : Charset.forName(charset));
+    CueSheet out = lines
+      ? new LinedCueSheet(new Session(), text)
+      : new CueSheet(new Session(), text);
+    Session session = out.getSession();
+    session.setCatalog(readString());
+    session.setCdTextFile(readString());
+    session.setPerformer(readString());
+    session.setSongwriter(readString());
+    session.setTitle(readString());
+    readExtras(session);
+    int frame = 0;
+    for (int tracks = readCount(); tracks > 0; tracks--) {
+      int bits = this.bytes.get();
+      Track track = new Track(readSigned(), readString());
+      if ((bits & TRACK_PREGAP) != 0) {
+        track.setPregap(readSigned());
+      }
+      if ((bits & TRACK_POSTGAP) != 0) {
+        track.setPostgap(readSigned());
+      }
+      if ((bits & TRACK_FLAGS_LIST) != 0) {
+        for (int flags = readCount(); flags > 0; flags--) {
+          track.addFlag(readString());
+        }
+      } else {
+        int flags = readVarint();
+        for (int i = 0; i < FLAGS.length; i++) {
+          if ((flags & 1 << i) != 0) {
+            track.addFlag(FLAGS[i]);
+          }
+        }
+      }
+      track.setIsrc(readString());
+      track.setPerformer(readString());
+      track.setSongwriter(readString());
+      track.setTitle(readString());
+      if ((bits & EXTRAS) != 0) {
+        readExtras(track);
+      }
+      for (int indexes = readCount(); indexes > 0; indexes--) {
+        int indexBits = this.bytes.get();
+        int number = readSigned();
+        if ((indexBits & INDEX_FILE) != 0) {
+          frame = 0;
+        }
+        frame += readSigned();
+        Index index = new Index(number, frame);
+        if ((indexBits & INDEX_FILE) != 0) {
+          index.setFile(readString(), readString());
+        }
+        if ((indexBits & EXTRAS) != 0) {
+          readExtras(index);
+        }
+        track.addIndex(index);
+      }
+      session.getTracks().add(track);
+    }
+    if (lines) {
+      readLines((LinedCueSheet) out);
+    }
+    return out;
+  }
+
+  /** Reads the source lines of the statements of the given cuesheet. */
+  private void readLines(LinedCueSheet sheet) throws IOException {
+    long previous = readLine(sheet, Field.CATALOG, 0);
+    previous = readLine(sheet, Field.CDTEXTFILE, previous);
+    for (Track track : sheet.getSession().getTracks()) {
+      previous = readLine(sheet, track, previous);
+      for (Index index : track.getIndexes()) {
+        previous = readLine(sheet, index, previous);
+      }
+    }
+  }
+
+  /**
+   * Reads the source line of the given statement of the given cuesheet after
+   * the given one, and returns it.
+   */
+  private long readLine(LinedCueSheet sheet, Object statement, long previous)
+    throws IOException {
+    long line = previous + readSigned();
+    if (line < LinedCueSheet.UNKNOWN) {
+      throw malformed("Line out of range");
+    }
+    if (line != LinedCueSheet.UNKNOWN) {
+      sheet.setLine(statement, line);
+    }
+    return line;
+  }
+
+  /** Reads the REMs and custom statements of the given object. */
+  private void readExtras(CDLayoutObject object) throws IOException {
+    for (int rems = readCount(); rems > 0; rems--) {
+      object.addRem(readString());
+    }
+    for (int customs = readCount(); customs > 0; customs--) {
+      object.setCustom(readString(), readString());
+    }
+  }
+
+  /** Reads a string reference. */
+  private String readString() throws IOException {
+    int reference = readVarint();
+    if (reference == 0) {
+      return null;
+    }
+    if (reference < 0 || reference > this.strings.length) {
+      throw malformed("String reference out of range");
+    }
+    return this.strings[reference - 1];
+  }
+
+  /** Reads a count, which can not exceed the remaining bytes. */
+  private int readCount() throws IOException {
+    int out = readVarint();
+    if (out < 0 || out > this.bytes.remaining()) {
+      throw malformed("Count out of range");
+    }
+    return out;
+  }
+
+  /** Reads a zigzag-coded number. */
+  private int readSigned() throws IOException {
+    int value = readVarint();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /** Reads a number, taken as unsigned. */
+  private int readVarint() throws IOException {
+    int out = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      byte b = this.bytes.get();
+      out |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return out;
+      }
+    }
+    throw malformed("Varint too long");
+  }
+
+  private static IOException malformed(String message) {
+    return new IOException(message + ".");
+  }
+}
@@ -0,0 +1,264 @@
+package eden.qedit.io;
+
+import static eden.qedit.io.CueSheetBinary.EXTRAS;
+import static eden.qedit.io.CueSheetBinary.FLAGS;
+import static eden.qedit.io.CueSheetBinary.INDEX_FILE;
+import static eden.qedit.io.CueSheetBinary.TRACK_FLAGS_LIST;
+import static eden.qedit.io.CueSheetBinary.TRACK_POSTGAP;
+import static eden.qedit.io.CueSheetBinary.TRACK_PREGAP;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import eden.common.model.cd.CDLayoutObject;
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Index;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+import eden.common.model.plaintext.PlainText;
+import eden.qedit.action.Field;
+import eden.qedit.model.LinedCueSheet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes cuesheets in the binary format. Instances are not thread-safe.
+ *
+ * @author Brendon
+ * @see CueSheetBinary
+ */
+public class CueSheetBinaryWriter {
+
+  /** Strings in the order of their references. */
+  private final List<String> strings = new ArrayList<>();
+  /** References by string. */
+  private final Map<String, Integer> references = new HashMap<>();
+  /** Output buffer. */
+  private byte[] bytes = new byte[1 << 10];
+  /** Output length. */
+  private int length;
+
+  /** Returns the given cuesheet encoded. */
+  public byte[] write(CueSheet sheet) {
+    return write(sheet, false);
+  }
+
+  /**
+   * Returns the given cuesheet encoded, with its source lines if given and it
+   * has them.
+   */
+  public byte[] write(CueSheet sheet, boolean lines) {
+    lines &= sheet instanceof LinedCueSheet;
+    this.strings.clear();
+    this.references.clear();
+    this.length = 0;
+    writeBody(sheet);
+    if (lines) {
+      writeLines((LinedCueSheet) sheet);
+    }
+    byte[] body = Arrays.copyOf(this.bytes, this.length);
+    this.length = 0;
+    for (byte b : CueSheetBinary.MAGIC) {
+      writeByte(b);
+    }
+    writeVarint(
+      lines ? CueSheetBinary.VERSION_LINES : CueSheetBinary.VERSION
+    );
+    writeVarint(this.strings.size());
+    for (String string : this.strings) {
+      byte[] utf8 = string.getBytes(UTF_8);
+      writeVarint(utf8.length);
+      writeBytes(utf8, utf8.length);
+    }
+    writeBytes(body, body.length);
+    return Arrays.copyOf(this.bytes, this.length);
+  }
+
+  private void writeBody(CueSheet sheet) {
+    PlainText file = sheet.hasFile() ? sheet.getFile() : null;
+    writeByte(file == null ? 0 : CueSheetBinary.toCode(file.getLineEnding()));
+    writeString(
+      file == null || !file.hasCharset() ? null : file.getCharset().name()
+    );
+    Session session = sheet.getSession();
+    writeString(session.getCatalog());
+    writeString(session.getCdTextFile());
+    writeString(session.getPerformer());
+    writeString(session.getSongwriter());
+    writeString(session.getTitle());
+    writeExtras(session);
+    writeVarint(session.getTracks().size());
+    int frame = 0;
+    for (Track track : session.getTracks()) {
+      int flags = toBitset(track.getFlags());
+      writeByte(
+        (track.hasPregap() ? TRACK_PREGAP : 0) |
+        (track.hasPostgap() ? TRACK_POSTGAP : 0) |
+        (flags < 0 ? TRACK_FLAGS_LIST : 0) |
+        (hasExtras(track) ? EXTRAS : 0)
+      );
+      writeSigned(track.getNumber());
+      writeString(track.getType());
+      if (track.hasPregap()) {
+        writeSigned(track.getPregap());
+      }
+      if (track.hasPostgap()) {
+        writeSigned(track.getPostgap());
+      }
+      if (flags < 0) {
+        writeVarint(track.getFlags().size());
+        for (String flag : track.getFlags()) {
+          writeString(flag);
+        }
+      } else {
+        writeVarint(flags);
+      }
+      writeString(track.getIsrc());
+      writeString(track.getPerformer());
+      writeString(track.getSongwriter());
+      writeString(track.getTitle());
+      if (hasExtras(track)) {
+        writeExtras(track);
+      }
+      writeVarint(track.getIndexes().size());
+      for (Index index : track.getIndexes()) {
+        boolean hasFile = index.hasFilePath() || index.hasFileType();
+        writeByte(
+          (hasFile ? INDEX_FILE : 0) | (hasExtras(index) ? EXTRAS : 0)
+        );
+        writeSigned(index.getNumber());
+        if (hasFile) {
+          frame = 0;
+        }
+        writeSigned(index.getFrame() - frame);
+        frame = index.getFrame();
+        if (hasFile) {
+          writeString(index.getFilePath());
+          writeString(index.getFileType());
+        }
+        if (hasExtras(index)) {
+          writeExtras(index);
+        }
+      }
+    }
+  }
+
+  /** Writes the source lines of the statements of the given cuesheet. */
+  private void writeLines(LinedCueSheet sheet) {
+    long previous = writeLine(sheet, Field.CATALOG, 0);
+    previous = writeLine(sheet, Field.CDTEXTFILE, previous);
+    for (Track track : sheet.getSession().getTracks()) {
+      previous = writeLine(sheet, track, previous);
+      for (Index index : track.getIndexes()) {
+        previous = writeLine(sheet, index, previous);
+      }
+    }
+  }
+
+  /**
+   * Writes the source line of the given statement of the given cuesheet after
+   * the given one, and returns it.
+   */
+  private long writeLine(LinedCueSheet sheet, Object statement, long previous) {
+    long line = sheet.getLine(statement);
+    if (line > Integer.MAX_VALUE) {
+      line = LinedCueSheet.UNKNOWN;
+    }
+    writeSigned((int) (line - previous));
+    return line;
+  }
+
+  /**
+   * Returns the bitset of the given FLAGS, or -1 if they are not canonical:
+   * distinct, upper case and in order.
+   */
+  private static int toBitset(List<String> flags) {
+    int out = 0, next = 0;
+    outer: for (String flag : flags) {
+      for (int i = next; i < FLAGS.length; i++) {
+        if (FLAGS[i].equals(flag)) {
+          out |= 1 << i;
+          next = i + 1;
+          continue outer;
+        }
+      }
+      return -1;
+    }
+    return out;
+  }
+
+  private static boolean hasExtras(CDLayoutObject object) {
+    return object.hasRems() || object.hasCustoms();
+  }
+
+  /** Writes the REMs and custom statements of the given object. */
+  private void writeExtras(CDLayoutObject object) {
+    writeVarint(object.getRems().size());
+    for (String rem : object.getRems()) {
+      writeString(rem);
+    }
+    List<String> customs = new ArrayList<>();
+    object.forEachCustom((key, value) -> {
+      customs.add(key);
+      customs.add(value);
+      return value;
+    });
+    writeVarint(customs.size() / 2);
+    for (String custom : customs) {
+      writeString(custom);
+    }
+  }
+
+  /** Writes a reference to the given string, which may be null. */
+  private void writeString(String string) {
+    if (string == null) {
+      writeVarint(0);
+      return;
+    }
+    Integer reference = this.references.get(string);
+    if (reference == null) {
+      this.strings.add(string);
+      reference = this.strings.size();
+      this.references.put(string, reference);
+    }
+    writeVarint(reference);
+  }
+
+  /** Writes the given number zigzag-coded. */
+  private void writeSigned(int value) {
+    writeVarint((value << 1) ^ (value >> 31));
+  }
+
+  /** Writes the given number, taken as unsigned. */
+  private void writeVarint(int value) {
+    ensure(5);
+    while ((value & ~0x7F) != 0) {
+      this.bytes[this.length++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    this.bytes[this.length++] = (byte) value;
+  }
+
+  private void writeByte(int value) {
+    ensure(1);
+    this.bytes[this.length++] = (byte) value;
+  }
+
+  private void writeBytes(byte[] bytes, int length) {
+    ensure(length);
+    System.arraycopy(bytes, 0, this.bytes, this.length, length);
+    this.length += length;
+  }
+
+  /** Ensures room for the given number of bytes. */
+  private void ensure(int count) {
+    if (this.length + count > this.bytes.length) {
+      this.bytes =
+        Arrays.copyOf(
+          this.bytes,
+          Math.max(this.bytes.length << 1, this.length + count)
+        );
+    }
+  }
+}
@@ -0,0 +1,816 @@
+package eden.qedit.io;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import eden.common.excep.cd.BadCueSheetException;
+import eden.common.excep.cd.CatalogAgainException;
+import eden.common.excep.cd.CommandUnexpectedException;
+import eden.common.excep.string.StringMisquoteException;
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Index;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+import eden.common.model.plaintext.LineEnding;
+import eden.common.model.plaintext.PlainText;
+import eden.common.util.CDDAFrame;
+import eden.common.util.CueSheets;
+import eden.qedit.action.Field;
+import eden.qedit.model.LinedCueSheet;
+import eden.qedit.model.RawIndex;
+import eden.qedit.model.RawSession;
+import eden.qedit.model.RawText;
+import eden.qedit.model.RawTrack;
+import eden.qedit.util.Stats;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Parses cuesheet files as bytes. Commands are matched by byte comparison and
+ * only arguments that are stored are decoded. It builds the same model as
+ * {@code CueSheets.parse(File)} and fails where it fails, except that it does
+ * not hang on files without a line break, and that it reads files in other
+ * charsets than UTF-8.
+ *
+ * Files in the binary format are recognized by their magic bytes and read as
+ * such. Others are parsed into cuesheets that know the lines of their
+ * statements, and the charsets that {@link CharsetDetector} detects. Those in
+ * other charsets than UTF-8 are transcoded into it in one pass and parsed as
+ * such. Those that fail to decode are read as ISO-8859-1, which keeps every
+ * byte.
+ *
+ * Given fields may be kept raw: their values are copied as bytes into the raw
+ * text of the cuesheet, which then consists of raw objects. They are decoded
+ * only if they are read, and otherwise written through as they are.
+ *
+ * Instances reuse their buffers and are not thread-safe; {@link #parse(File)}
+ * keeps one per thread.
+ *
+ * @author Brendon
+ */
+public class CueSheetByteParser {
+
+  /** Files larger than this in bytes are mapped rather than read. */
+  public static final int MAP_THRESHOLD = 1 << 20;
+  /** Parsers by thread. */
+  protected static final ThreadLocal<CueSheetByteParser> PARSERS =
+    ThreadLocal.withInitial(CueSheetByteParser::new);
+  /** Commands in lower case, in the order they are tried. */
+  protected static final byte[][] COMMANDS = {
+    bytes("catalog"),
+    bytes("cdtextfile"),
+    bytes("file"),
+    bytes("flags"),
+    bytes("index"),
+    bytes("isrc"),
+    bytes("performer"),
+    bytes("postgap"),
+    bytes("pregap"),
+    bytes("rem"),
+    bytes("songwriter"),
+    bytes("title"),
+    bytes("track"),
+  };
+  protected static final int CATALOG = 0;
+  protected static final int CDTEXTFILE = 1;
+  protected static final int FILE = 2;
+  protected static final int FLAGS = 3;
+  protected static final int INDEX = 4;
+  protected static final int ISRC = 5;
+  protected static final int PERFORMER = 6;
+  protected static final int POSTGAP = 7;
+  protected static final int PREGAP = 8;
+  protected static final int REM = 9;
+  protected static final int SONGWRITER = 10;
+  protected static final int TITLE = 11;
+  protected static final int TRACK = 12;
+  /** Custom command. */
+  protected static final int CUSTOM = -1;
+  /** Fields kept raw by default. */
+  private static final Set<Field> NO_FIELDS = EnumSet.noneOf(Field.class);
+
+  /** Parses the given file with the parser of the current thread. */
+  public static CueSheet parse(File file) throws IOException {
+    return PARSERS.get().parseFile(file);
+  }
+
+  /**
+   * Parses the given file with the parser of the current thread, keeping the
+   * given fields raw.
+   */
+  public static CueSheet parse(File file, Set<Field> raw) throws IOException {
+    CueSheetByteParser parser = PARSERS.get();
+    parser.raw = raw;
+    try {
+      return parser.parseFile(file);
+    } finally {
+      parser.raw = NO_FIELDS;
+    }
+  }
+
+  /**
+   * Parses the remaining given bytes as the content of the given file with the
+   * parser of the current thread.
+   */
+  public static CueSheet parse(File file, ByteBuffer bytes)
+    throws IOException {
+    return PARSERS.get().parseBytes(file, bytes);
+  }
+
+  /**
+   * Parses the remaining given bytes as the content of the given file with the
+   * parser of the current thread, keeping the given fields raw.
+   */
+  public static CueSheet parse(File file, ByteBuffer bytes, Set<Field> raw)
+    throws IOException {
+    CueSheetByteParser parser = PARSERS.get();
+    parser.raw = raw;
+    try {
+      return parser.parseBytes(file, bytes);
+    } finally {
+      parser.raw = NO_FIELDS;
+    }
+  }
+
+  private static byte[] bytes(String string) {
+    return string.getBytes(ISO_8859_1);
+  }
+
+  private static boolean isBlank(byte b) {
+    return b == ' ' || b == '\t';
+  }
+
+  private static boolean isDigit(byte b) {
+    return b >= '0' && b <= '9';
+  }
+
+  /** Strict decoder, as that of {@code Files.newBufferedReader}. */
+  private final CharsetDecoder decoder = UTF_8
+    .newDecoder()
+    .onMalformedInput(CodingErrorAction.REPORT)
+    .onUnmappableCharacter(CodingErrorAction.REPORT);
+  /** Reusable read buffer. */
+  private ByteBuffer buffer = ByteBuffer.allocate(1 << 14);
+  /** Current input. */
+  private ByteBuffer input;
+  /** Current item. */
+  private byte[] item = new byte[128];
+  /** Length of the current item. */
+  private int length;
+  /** Whether the current item is all ASCII. */
+  private boolean ascii;
+  /** Whether there is no current item, past the end. */
+  private boolean nil;
+  /** Input limit. */
+  private int limit;
+  /** Current and previous bytes. */
+  private int current, previous;
+  private long lineCount;
+  private boolean eof, eol, eow, esc;
+  private LinedCueSheet sheet;
+  private Track track;
+  private Index index;
+  private Mode mode;
+  private String filePath, fileType;
+  /** Fields to keep raw. */
+  private Set<Field> raw = NO_FIELDS;
+  /** Raw text of the current cuesheet, or null if no field is kept raw. */
+  private RawText text;
+
+  /** Parses the given file. */
+  public CueSheet parseFile(File file) throws IOException {
+    try (
+      FileChannel channel = FileChannel.open(
+        file.toPath(),
+        StandardOpenOption.READ
+      )
+    ) {
+      long size = channel.size();
+      Stats.addRead(size);
+      if (size > MAP_THRESHOLD) {
+        this.input = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      } else {
+        if (this.buffer.capacity() < size) {
+          this.buffer =
+            ByteBuffer.allocate(Integer.highestOneBit((int) size) << 1);
+        }
+        this.buffer.clear();
+        while (
+          this.buffer.hasRemaining() && channel.read(this.buffer) >= 0
+        ) {}
+        this.buffer.flip();
+        this.input = this.buffer;
+      }
+    }
+    return parseInput(file);
+  }
+
+  /** Parses the remaining given bytes as the content of the given file. */
+  public CueSheet parseBytes(File file, ByteBuffer bytes) throws IOException {
+    this.input = bytes.slice();
+    return parseInput(file);
+  }
+
+  /** Parses its input as the content of the given file. */
+  private CueSheet parseInput(File file) throws IOException {
+    try {
+      if (CueSheetBinary.isBinary(this.input)) {
+        return CueSheetBinary.read(this.input, file);
+      }
+      Charset charset = transcode();
+      if (!this.raw.isEmpty()) {
+        this.text = new RawText(this.input.remaining() >> 2);
+      }
+      return parse(
+        new LinedCueSheet(
+          this.text == null ? new Session() : new RawSession(this.text),
+          new PlainText(file, charset, LineEnding.SYSTEM)
+        )
+      );
+    } finally {
+      this.input = null;
+      this.text = null;
+      this.sheet = null;
+      this.track = null;
+      this.index = null;
+      this.filePath = null;
+      this.fileType = null;
+    }
+  }
+
+  private CueSheet parse(LinedCueSheet sheet) throws IOException {
+    this.sheet = sheet;
+    this.mode = Mode.SESSION;
+    this.current = this.previous = 0;
+    this.lineCount = 1;
+    this.eof = this.eol = this.eow = this.esc = this.nil = false;
+    this.limit = this.input.limit();
+    parseLineEnding();
+    if (!readWord() || this.length == 0) {
+      return sheet;
+    }
+    if (
+      this.length >= 3 &&
+      this.item[0] == (byte) 0xEF &&
+      this.item[1] == (byte) 0xBB &&
+      this.item[2] == (byte) 0xBF
+    ) {
+      System.arraycopy(this.item, 3, this.item, 0, this.length -= 3);
+      this.ascii = isAscii();
+    }
+    do {
+      if (this.length == 0) {
+        continue;
+      }
+      switch (command()) {
+        case CATALOG:
+          if (getSession().hasCatalog()) {
+            throw new CatalogAgainException(this.lineCount);
+          }
+          sheet.setLine(Field.CATALOG, this.lineCount);
+          if (isRaw(Field.CATALOG)) {
+            getRawSession().setRaw(Field.CATALOG, readWordRaw());
+          } else {
+            getSession().setCatalog(readWordString());
+          }
+          break;
+        case CDTEXTFILE:
+          sheet.setLine(Field.CDTEXTFILE, this.lineCount);
+          if (isRaw(Field.CDTEXTFILE)) {
+            getRawSession().setRaw(Field.CDTEXTFILE, readWordUnquotedRaw());
+          } else {
+            getSession().setCdTextFile(readWordUnquoted());
+          }
+          break;
+        case FILE:
+          this.filePath = readWordUnquoted();
+          this.fileType = readWordString();
+          break;
+        case FLAGS:
+          requireMode(Mode.TRACK);
+          if (isRaw(Field.FLAGS)) {
+            long flags = readFlagsRaw();
+            if (flags != RawText.NONE) {
+              ((RawTrack) this.track).setRaw(Field.FLAGS, flags);
+              break;
+            }
+          }
+          for (String flag : toFlags().split("\\p{Blank}")) {
+            this.track.addFlag(flag);
+          }
+          break;
+        case INDEX:
+          parseIndex();
+          break;
+        case ISRC:
+          requireMode(Mode.TRACK);
+          if (isRaw(Field.ISRC)) {
+            ((RawTrack) this.track).setRaw(Field.ISRC, readWordRaw());
+          } else {
+            this.track.setIsrc(readWordString());
+          }
+          break;
+        case PERFORMER:
+          if (this.mode == Mode.SESSION) {
+            if (isRaw(Field.SESSION_PERFORMER)) {
+              getRawSession()
+                .setRaw(Field.SESSION_PERFORMER, readWordUnquotedRaw());
+            } else {
+              getSession().setPerformer(readWordUnquoted());
+            }
+          } else if (isRaw(Field.TRACK_PERFORMER)) {
+            ((RawTrack) this.track).setRaw(
+                Field.TRACK_PERFORMER,
+                readWordUnquotedRaw()
+              );
+          } else {
+            this.track.setPerformer(readWordUnquoted());
+          }
+          break;
+        case POSTGAP:
+          requireMode(Mode.INDEX);
+          readWord();
+          this.track.setPostgap(toFrame());
+          break;
+        case PREGAP:
+          requireMode(Mode.TRACK);
+          readWord();
+          this.track.setPregap(toFrame());
+          break;
+        case REM:
+          parseRem();
+          break;
+        case SONGWRITER:
+          if (this.mode == Mode.SESSION) {
+            if (isRaw(Field.SESSION_SONGWRITER)) {
+              getRawSession()
+                .setRaw(Field.SESSION_SONGWRITER, readWordUnquotedRaw());
+            } else {
+              getSession().setSongwriter(readWordUnquoted());
+            }
+          } else if (isRaw(Field.TRACK_SONGWRITER)) {
+            ((RawTrack) this.track).setRaw(
+                Field.TRACK_SONGWRITER,
+                readWordUnquotedRaw()
+              );
+          } else {
+            this.track.setSongwriter(readWordUnquoted());
+          }
+          break;
+        case TITLE:
+          if (this.mode == Mode.SESSION) {
+            if (isRaw(Field.SESSION_TITLE)) {
+              getRawSession()
+                .setRaw(Field.SESSION_TITLE, readWordUnquotedRaw());
+            } else {
+              getSession().setTitle(readWordUnquoted());
+            }
+          } else if (isRaw(Field.TRACK_TITLE)) {
+            ((RawTrack) this.track).setRaw(
+                Field.TRACK_TITLE,
+                readWordUnquotedRaw()
+              );
+          } else {
+            this.track.setTitle(readWordUnquoted());
+          }
+          break;
+        case TRACK:
+          long line = this.lineCount;
+          readWord();
+          int number = toInt();
+          this.track =
+            this.text == null
+              ? new Track(number, readWordString())
+              : new RawTrack(number, readWordString(), this.text);
+          getSession().getTracks().add(this.track);
+          sheet.setLine(this.track, line);
+          this.mode = Mode.TRACK;
+          break;
+        default:
+          parseCustom();
+      }
+    } while (readWord());
+    return sheet;
+  }
+
+  /**
+   * Detects the charset of the input and returns it. Input in another than
+   * UTF-8 is decoded once and replaced by its UTF-8 encoding.
+   */
+  private Charset transcode() throws IOException {
+    Charset charset = CharsetDetector.detect(this.input);
+    if (charset.equals(UTF_8)) {
+      return charset;
+    }
+    CharBuffer chars;
+    try {
+      chars =
+        charset
+          .newDecoder()
+          .onMalformedInput(CodingErrorAction.REPORT)
+          .onUnmappableCharacter(CodingErrorAction.REPORT)
+          .decode(this.input.duplicate());
+    } catch (CharacterCodingException exception) {
+      charset = ISO_8859_1;
+      chars = charset.decode(this.input.duplicate());
+    }
+    this.input = UTF_8.encode(chars);
+    return charset;
+  }
+
+  /**
+   * Sets the line ending to that of the first line break. Without one, the
+   * default line ending stays.
+   */
+  private void parseLineEnding() {
+    ByteBuffer input = this.input;
+    for (int i = 0, limit = input.limit(); i < limit; i++) {
+      byte b = input.get(i);
+      if (b == '\r') {
+        this.sheet
+          .getFile()
+          .setLineEnding(
+            i + 1 < limit && input.get(i + 1) == '\n'
+              ? LineEnding.CRLF
+              : LineEnding.CR
+          );
+        return;
+      }
+      if (b == '\n') {
+        this.sheet.getFile().setLineEnding(LineEnding.LF);
+        return;
+      }
+    }
+  }
+
+  private void parseIndex() throws IOException {
+    long line = this.lineCount;
+    readWord();
+    int number = toInt();
+    readWord();
+    this.index =
+      this.text == null
+        ? new Index(number, toFrame())
+        : new RawIndex(number, toFrame(), this.text);
+    if (this.filePath != null && this.fileType != null) {
+      this.index.setFile(this.filePath, this.fileType);
+      this.filePath = null;
+      this.fileType = null;
+    }
+    this.track.addIndex(this.index);
+    this.sheet.setLine(this.index, line);
+    this.mode = Mode.INDEX;
+  }
+
+  private void parseRem() throws IOException {
+    if (isRaw(Field.REM)) {
+      long rem = readRestOfLineRaw();
+      switch (this.mode) {
+        case SESSION:
+          getRawSession().addRawRem(rem);
+          break;
+        case TRACK:
+          ((RawTrack) this.track).addRawRem(rem);
+          break;
+        default:
+          ((RawIndex) this.index).addRawRem(rem);
+      }
+      return;
+    }
+    switch (this.mode) {
+      case SESSION:
+        getSession().addRem(readRestOfLine());
+        break;
+      case TRACK:
+        this.track.addRem(readRestOfLine());
+        break;
+      default:
+        this.index.addRem(readRestOfLine());
+    }
+  }
+
+  private void parseCustom() throws IOException {
+    String command = toItemString();
+    switch (this.mode) {
+      case SESSION:
+        getSession().setCustom(command, readRestOfLine());
+        break;
+      case TRACK:
+        this.track.setCustom(command, readRestOfLine());
+        break;
+      default:
+        this.index.setCustom(command, readRestOfLine());
+    }
+  }
+
+  /** Throws if it is not in the given mode. */
+  private void requireMode(Mode mode) throws IOException {
+    if (this.mode != mode) {
+      throw new CommandUnexpectedException(this.lineCount, toItemString());
+    }
+  }
+
+  /** Returns the command of the current item. */
+  private int command() throws IOException {
+    if (!this.ascii) {
+      String string = toItemString();
+      for (int i = 0; i < COMMANDS.length; i++) {
+        if (string.equalsIgnoreCase(new String(COMMANDS[i], ISO_8859_1))) {
+          return i;
+        }
+      }
+      return CUSTOM;
+    }
+    next: for (int i = 0; i < COMMANDS.length; i++) {
+      byte[] command = COMMANDS[i];
+      if (command.length != this.length) {
+        continue;
+      }
+      for (int j = 0; j < command.length; j++) {
+        if ((this.item[j] | 0x20) != command[j]) {
+          continue next;
+        }
+      }
+      return i;
+    }
+    return CUSTOM;
+  }
+
+  private Session getSession() {
+    return this.sheet.getSession();
+  }
+
+  private RawSession getRawSession() {
+    return (RawSession) this.sheet.getSession();
+  }
+
+  /** Returns whether the given field is kept raw. */
+  private boolean isRaw(Field field) {
+    return this.text != null && this.raw.contains(field);
+  }
+
+  /** Reads a word and returns it as is. */
+  private String readWordString() throws IOException {
+    return readWord() ? toItemString() : null;
+  }
+
+  /** Reads a word and returns it without enclosing quotes. */
+  private String readWordUnquoted() throws IOException {
+    if (!readWord()) {
+      return CueSheets.ensureNoQuote(null);
+    }
+    if (
+      this.ascii &&
+      this.length >= 2 &&
+      this.item[0] == '"' &&
+      this.item[this.length - 1] == '"'
+    ) {
+      return new String(this.item, 1, this.length - 2, ISO_8859_1);
+    }
+    return CueSheets.ensureNoQuote(toItemString());
+  }
+
+  /** Reads a word into the raw text and returns its slice, or none. */
+  private long readWordRaw() throws IOException {
+    return readWord()
+      ? this.text.add(this.item, 0, this.length)
+      : RawText.NONE;
+  }
+
+  /**
+   * Reads a word without enclosing quotes into the raw text and returns its
+   * slice.
+   */
+  private long readWordUnquotedRaw() throws IOException {
+    if (!readWord()) {
+      // Fails as the other does.
+      CueSheets.ensureNoQuote(null);
+      return RawText.NONE;
+    }
+    return RawText.isEnclosed(this.item, 0, this.length)
+      ? this.text.add(this.item, 1, this.length - 2)
+      : this.text.add(this.item, 0, this.length);
+  }
+
+  /** Reads the rest of the line into the raw text and returns its slice. */
+  private long readRestOfLineRaw() throws IOException {
+    if (this.eol) {
+      return this.text.add(this.item, 0, 0);
+    }
+    return readItem(false)
+      ? this.text.add(this.item, 0, this.length)
+      : RawText.NONE;
+  }
+
+  /**
+   * Reads the rest of the line into the raw text as flags separated by single
+   * spaces, and returns its slice. Returns none if there are no flags, and the
+   * current item is then to be split.
+   */
+  private long readFlagsRaw() throws IOException {
+    if (this.eol) {
+      return this.text.add(this.item, 0, 0);
+    }
+    if (!readItem(false)) {
+      return RawText.NONE;
+    }
+    int length = this.length;
+    while (length > 0 && isBlank(this.item[length - 1])) {
+      length--;
+    }
+    if (length == 0) {
+      return RawText.NONE;
+    }
+    for (int i = 0; i < length; i++) {
+      if (this.item[i] == '\t') {
+        this.item[i] = ' ';
+      }
+    }
+    return this.text.add(this.item, 0, length);
+  }
+
+  /**
+   * Returns the current item if it was read as flags, or reads the rest of
+   * the line.
+   */
+  private String toFlags() throws IOException {
+    return isRaw(Field.FLAGS) ? toItemString() : readRestOfLine();
+  }
+
+  private String readRestOfLine() throws IOException {
+    if (this.eol) {
+      return "";
+    }
+    return readItem(false) ? toItemString() : null;
+  }
+
+  private boolean readWord() throws IOException {
+    return readItem(true);
+  }
+
+  /**
+   * Reads the next item into the item buffer and returns whether there was
+   * one. This mirrors {@code CueSheetParser.readItem} byte for byte.
+   */
+  private boolean readItem(boolean word) throws IOException {
+    if (this.eof) {
+      this.length = 0;
+      this.nil = true;
+      return false;
+    }
+    ByteBuffer input = this.input;
+    int position = input.position(), limit = this.limit;
+    this.length = 0;
+    this.ascii = true;
+    this.nil = false;
+    try {
+      while (true) {
+        if (this.eol) {
+          if (this.lineCount < Long.MAX_VALUE) {
+            this.lineCount++;
+          }
+          this.eol = false;
+        }
+        this.previous = this.current;
+        this.current = position < limit ? input.get(position++) & 0xFF : -1;
+        switch (this.current) {
+          case '"':
+            this.eow = false;
+            this.esc = !this.esc;
+            break;
+          case '\t':
+          case ' ':
+            if (this.esc) {
+              break;
+            }
+            if (this.eow) {
+              continue;
+            }
+            this.eow = true;
+            if (!word) {
+              break;
+            }
+            return true;
+          case '\n':
+            if (this.previous == '\r') {
+              continue;
+            }
+            return endLine();
+          case '\r':
+            return endLine();
+          case -1:
+            this.eof = true;
+            return endLine();
+          default:
+            this.eow = false;
+        }
+        append((byte) this.current);
+      }
+    } finally {
+      input.position(position);
+    }
+  }
+
+  private boolean endLine() {
+    this.eol = true;
+    this.eow = true;
+    if (this.esc) {
+      throw new StringMisquoteException(
+        BadCueSheetException.makeSubject(this.lineCount)
+      );
+    }
+    return true;
+  }
+
+  private void append(byte b) {
+    if (this.length == this.item.length) {
+      byte[] item = new byte[this.length << 1];
+      System.arraycopy(this.item, 0, item, 0, this.length);
+      this.item = item;
+    }
+    this.item[this.length++] = b;
+    this.ascii &= b >= 0;
+  }
+
+  private boolean isAscii() {
+    for (int i = 0; i < this.length; i++) {
+      if (this.item[i] < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Decodes the current item. */
+  private String toItemString() throws IOException {
+    if (this.nil) {
+      return null;
+    }
+    if (this.ascii) {
+      return new String(this.item, 0, this.length, ISO_8859_1);
+    }
+    CharBuffer chars = this.decoder
+      .reset()
+      .decode(ByteBuffer.wrap(this.item, 0, this.length));
+    return chars.toString();
+  }
+
+  /** Parses the current item as an integer. */
+  private int toInt() throws IOException {
+    if (this.length == 0 || this.length > 9) {
+      return Integer.parseInt(toItemString());
+    }
+    int out = 0;
+    for (int i = 0; i < this.length; i++) {
+      byte b = this.item[i];
+      if (!isDigit(b)) {
+        return Integer.parseInt(toItemString());
+      }
+      out = out * 10 + b - '0';
+    }
+    return out;
+  }
+
+  /** Parses the current item as a `MM:SS:FF` time code. */
+  private int toFrame() throws IOException {
+    byte[] item = this.item;
+    if (
+      this.length != 8 ||
+      !isDigit(item[0]) ||
+      !isDigit(item[1]) ||
+      !isDigit(item[3]) ||
+      !isDigit(item[4]) ||
+      !isDigit(item[6]) ||
+      !isDigit(item[7])
+    ) {
+      return CDDAFrame.parse(toItemString());
+    }
+    return (
+      (item[6] - '0') *
+      10 +
+      item[7] -
+      '0' +
+      CDDAFrame.FPS *
+      ((item[3] - '0') * 10 + item[4] - '0') +
+      CDDAFrame.FPM *
+      ((item[0] - '0') * 10 + item[1] - '0')
+    );
+  }
+
+  /** Parser modes. */
+  private enum Mode {
+    SESSION,
+    TRACK,
+    INDEX,
+  }
+}
@@ -0,0 +1,489 @@
+package eden.qedit.io;
+
+import static eden.common.shared.Constants.EOL;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import eden.common.model.cd.CDLayoutObject;
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Index;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+import eden.common.util.CDDAFrame;
+import eden.common.util.Numbers;
+import eden.qedit.action.Field;
+import eden.qedit.model.RawObject;
+import eden.qedit.model.RawText;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes cuesheets without intermediate statements. The output is that of
+ * {@code CueSheets.write(CueSheet, Writer)}: the line ending of the cuesheet
+ * file, or that of the system without one. Raw values are written through
+ * without being decoded into strings.
+ *
+ * @author Brendon
+ */
+public class CueSheetSerializer {
+
+  /** Two-digit numbers by value. */
+  protected static final String[] DIGITS2 = new String[100];
+  /** Render buffers by thread. */
+  protected static final ThreadLocal<StringBuilder> BUILDERS =
+    ThreadLocal.withInitial(() -> new StringBuilder(1 << 14));
+  /** Encoders by thread. */
+  protected static final ThreadLocal<Encoder> ENCODERS =
+    ThreadLocal.withInitial(() -> new Encoder(UTF_8));
+  /** Encoders of other charsets than UTF-8 by thread. */
+  protected static final ThreadLocal<Map<Charset, Encoder>> OTHER_ENCODERS =
+    ThreadLocal.withInitial(HashMap::new);
+
+  static {
+    for (int i = 0; i < DIGITS2.length; i++) {
+      DIGITS2[i] =
+        new String(new char[] { (char) ('0' + i / 10), (char) ('0' + i % 10) });
+    }
+  }
+
+  /**
+   * Renders the given cuesheet into the render buffer of the current thread
+   * and returns it. The buffer is valid until the next render on the thread.
+   */
+  public static StringBuilder render(CueSheet sheet) {
+    StringBuilder builder = BUILDERS.get();
+    builder.setLength(0);
+    try {
+      write(sheet, builder);
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+    return builder;
+  }
+
+  /** Writes the given cuesheet to the given appendable. */
+  public static void write(CueSheet sheet, Appendable out) throws IOException {
+    String eol = sheet.hasFile() && sheet.getFile().hasLineEnding()
+      ? sheet.getFile().getLineEnding().toString()
+      : EOL;
+    Session session = sheet.getSession();
+    rems(out, "REM", session, eol);
+    if (
+      session.hasCatalog() &&
+      !raw(out, "CATALOG", session, Field.CATALOG, false, eol)
+    ) {
+      statement(out, "CATALOG", session.getCatalog(), eol);
+    }
+    if (
+      session.hasCdTextFile() &&
+      !raw(out, "CDTEXTFILE", session, Field.CDTEXTFILE, true, eol)
+    ) {
+      quoted(out, "CDTEXTFILE", session.getCdTextFile(), eol);
+    }
+    if (
+      session.hasPerformer() &&
+      !raw(out, "PERFORMER", session, Field.SESSION_PERFORMER, true, eol)
+    ) {
+      quoted(out, "PERFORMER", session.getPerformer(), eol);
+    }
+    if (
+      session.hasSongwriter() &&
+      !raw(out, "SONGWRITER", session, Field.SESSION_SONGWRITER, true, eol)
+    ) {
+      quoted(out, "SONGWRITER", session.getSongwriter(), eol);
+    }
+    if (
+      session.hasTitle() &&
+      !raw(out, "TITLE", session, Field.SESSION_TITLE, true, eol)
+    ) {
+      quoted(out, "TITLE", session.getTitle(), eol);
+    }
+    customs(out, session, eol);
+    for (Track track : session.getTracks()) {
+      write(track, out, eol);
+    }
+  }
+
+  /** Writes the given text to the given channel in UTF-8. */
+  public static void write(CharSequence text, WritableByteChannel channel)
+    throws IOException {
+    ENCODERS.get().write(text, channel);
+  }
+
+  /**
+   * Encodes the given text in UTF-8 into the encode buffer of the current
+   * thread and returns it. The buffer is valid until the next encode on the
+   * thread.
+   */
+  public static ByteBuffer encode(CharSequence text) throws IOException {
+    return ENCODERS.get().encode(text);
+  }
+
+  /**
+   * Encodes the given text in the given charset into the encode buffer of the
+   * current thread and returns it. The buffer is valid until the next encode
+   * on the thread. Characters the charset can not map fail it.
+   */
+  public static ByteBuffer encode(CharSequence text, Charset charset)
+    throws IOException {
+    if (charset.equals(UTF_8)) {
+      return ENCODERS.get().encode(text);
+    }
+    return OTHER_ENCODERS
+      .get()
+      .computeIfAbsent(charset, Encoder::new)
+      .encode(text);
+  }
+
+  /**
+   * Returns the charset of the file of the given cuesheet to write it in, or
+   * UTF-8 without one.
+   */
+  public static Charset getCharset(CueSheet sheet) {
+    return sheet.hasFile() && sheet.getFile().hasCharset()
+      ? sheet.getFile().getCharset()
+      : UTF_8;
+  }
+
+  private static void write(Track track, Appendable out, String eol)
+    throws IOException {
+    List<Index> indexes = track.getIndexes();
+    if (!indexes.isEmpty() && indexes.get(0).hasFilePath()) {
+      file(out, indexes.get(0), eol);
+    }
+    out.append("  TRACK ");
+    number(out, track.getNumber());
+    out.append(' ');
+    append(out, track.getType());
+    out.append(eol);
+    if (
+      track.hasFlags() && !raw(out, "    FLAGS", track, Field.FLAGS, false, eol)
+    ) {
+      out.append("    FLAGS ");
+      boolean first = true;
+      for (String flag : track.getFlags()) {
+        if (!first) {
+          out.append(' ');
+        }
+        out.append(String.valueOf(flag));
+        first = false;
+      }
+      out.append(eol);
+    }
+    rems(out, "    REM", track, eol);
+    if (
+      track.hasIsrc() && !raw(out, "    ISRC", track, Field.ISRC, false, eol)
+    ) {
+      statement(out, "    ISRC", track.getIsrc(), eol);
+    }
+    if (
+      track.hasTitle() &&
+      !raw(out, "    TITLE", track, Field.TRACK_TITLE, true, eol)
+    ) {
+      quoted(out, "    TITLE", track.getTitle(), eol);
+    }
+    if (
+      track.hasPerformer() &&
+      !raw(out, "    PERFORMER", track, Field.TRACK_PERFORMER, true, eol)
+    ) {
+      quoted(out, "    PERFORMER", track.getPerformer(), eol);
+    }
+    if (
+      track.hasSongwriter() &&
+      !raw(out, "    SONGWRITER", track, Field.TRACK_SONGWRITER, true, eol)
+    ) {
+      quoted(out, "    SONGWRITER", track.getSongwriter(), eol);
+    }
+    customs(out, track, eol);
+    if (track.hasPregap()) {
+      out.append("    PREGAP ");
+      timeCode(out, track.getPregap());
+      out.append(eol);
+    }
+    for (int i = 0; i < indexes.size(); i++) {
+      Index index = indexes.get(i);
+      if (i > 0 && index.hasFilePath()) {
+        file(out, index, eol);
+      }
+      out.append("    INDEX ");
+      number(out, index.getNumber());
+      out.append(' ');
+      timeCode(out, index.getFrame());
+      out.append(eol);
+      rems(out, "    REM", index, eol);
+      customs(out, index, eol);
+    }
+    if (track.hasPostgap()) {
+      out.append("    POSTGAP ");
+      timeCode(out, track.getPostgap());
+      out.append(eol);
+    }
+  }
+
+  /** Writes the FILE statement of the given index. */
+  private static void file(Appendable out, Index index, String eol)
+    throws IOException {
+    out.append("FILE ");
+    quote(out, index.getFilePath());
+    out.append(' ');
+    append(out, index.getFileType());
+    out.append(eol);
+  }
+
+  /** Writes the custom statements of the given object. */
+  private static void customs(
+    Appendable out,
+    CDLayoutObject object,
+    String eol
+  ) throws IOException {
+    if (!object.hasCustoms()) {
+      return;
+    }
+    object.forEachCustom((key, value) -> {
+      try {
+        append(out, key);
+        out.append(' ');
+        append(out, value);
+        out.append(eol);
+      } catch (IOException exception) {
+        throw new UncheckedIOException(exception);
+      }
+      return value;
+    });
+  }
+
+  /**
+   * Writes a statement of the given command and the given raw field of the
+   * given object, quoted if so, and returns true, or returns false if the
+   * field is not raw.
+   */
+  private static boolean raw(
+    Appendable out,
+    String command,
+    CDLayoutObject object,
+    Field field,
+    boolean quoted,
+    String eol
+  ) throws IOException {
+    if (!(object instanceof RawObject)) {
+      return false;
+    }
+    RawObject raw = (RawObject) object;
+    long slice = raw.getRaw(field);
+    if (slice == RawText.NONE) {
+      return false;
+    }
+    RawText text = raw.getText();
+    out.append(command).append(' ');
+    if (quoted && !text.isEnclosed(slice)) {
+      out.append('"');
+      text.append(out, slice);
+      out.append('"');
+    } else {
+      text.append(out, slice);
+    }
+    out.append(eol);
+    return true;
+  }
+
+  /** Writes the REMs of the given object as statements of the given command. */
+  private static void rems(
+    Appendable out,
+    String command,
+    CDLayoutObject object,
+    String eol
+  ) throws IOException {
+    if (object instanceof RawObject) {
+      RawObject raw = (RawObject) object;
+      for (int i = 0; i < raw.getRawRemCount(); i++) {
+        out.append(command).append(' ');
+        raw.getText().append(out, raw.getRawRem(i));
+        out.append(eol);
+      }
+      if (raw.getRawRemCount() > 0) {
+        return;
+      }
+    }
+    for (String rem : object.getRems()) {
+      statement(out, command, rem, eol);
+    }
+  }
+
+  /** Writes a statement of the given command and argument. */
+  private static void statement(
+    Appendable out,
+    String command,
+    String argument,
+    String eol
+  ) throws IOException {
+    out.append(command).append(' ');
+    append(out, argument);
+    out.append(eol);
+  }
+
+  /** Writes a statement of the given command and quoted argument. */
+  private static void quoted(
+    Appendable out,
+    String command,
+    String argument,
+    String eol
+  ) throws IOException {
+    out.append(command).append(' ');
+    quote(out, argument);
+    out.append(eol);
+  }
+
+  /** Writes the given string unless it is null. */
+  private static void append(Appendable out, String string)
+    throws IOException {
+    if (string != null) {
+      out.append(string);
+    }
+  }
+
+  /**
+   * Writes the given string enclosed in quotes unless it already is, as
+   * {@code CueSheets.ensureQuote} does.
+   */
+  private static void quote(Appendable out, String string)
+    throws IOException {
+    if (isEnclosed(string)) {
+      out.append(string);
+    } else {
+      out.append('"').append(string).append('"');
+    }
+  }
+
+  /** Returns whether the given string matches {@code ^".*"$}. */
+  private static boolean isEnclosed(String string) {
+    int last = string.length() - 1;
+    if (last < 1 || string.charAt(0) != '"' || string.charAt(last) != '"') {
+      return false;
+    }
+    for (int i = 1; i < last; i++) {
+      switch (string.charAt(i)) {
+        case '\n':
+        case '\r':
+        case '\u0085':
+        case '\u2028':
+        case '\u2029':
+          return false;
+        default:
+      }
+    }
+    return true;
+  }
+
+  /** Writes the given number in at least two digits. */
+  private static void number(Appendable out, int number) throws IOException {
+    if (number >= 0 && number < DIGITS2.length) {
+      out.append(DIGITS2[number]);
+    } else {
+      out.append(Numbers.toString2Digits(number));
+    }
+  }
+
+  /** Writes the given frame as a `MM:SS:FF` time code. */
+  private static void timeCode(Appendable out, int frame) throws IOException {
+    Numbers.requireNonNegative(frame);
+    number(out, frame / CDDAFrame.FPM);
+    out.append(':');
+    out.append(DIGITS2[frame % CDDAFrame.FPM / CDDAFrame.FPS]);
+    out.append(':');
+    out.append(DIGITS2[frame % CDDAFrame.FPS]);
+  }
+
+  /** Reusable encoder with its output buffer. */
+  private static class Encoder {
+
+    /** Encoder, as strict as that of {@code Files.newBufferedWriter}. */
+    final CharsetEncoder encoder;
+    /** Output buffer, made on first use. */
+    ByteBuffer bytes;
+    /** Encode buffer. */
+    ByteBuffer encoded = ByteBuffer.allocate(1 << 14);
+
+    /** Makes an instance of the given charset. */
+    Encoder(Charset charset) {
+      this.encoder =
+        charset
+          .newEncoder()
+          .onMalformedInput(CodingErrorAction.REPORT)
+          .onUnmappableCharacter(CodingErrorAction.REPORT);
+    }
+
+    /** Encodes the given text into its encode buffer and returns it. */
+    ByteBuffer encode(CharSequence text) throws IOException {
+      CharBuffer chars = CharBuffer.wrap(text);
+      CoderResult result;
+      this.encoder.reset();
+      this.encoded.clear();
+      while (
+        (result = this.encoder.encode(chars, this.encoded, true)).isOverflow()
+      ) {
+        grow();
+      }
+      if (result.isError()) {
+        result.throwException();
+      }
+      while (this.encoder.flush(this.encoded).isOverflow()) {
+        grow();
+      }
+      this.encoded.flip();
+      return this.encoded;
+    }
+
+    /** Doubles the capacity of its encode buffer. */
+    private void grow() {
+      this.encoded.flip();
+      this.encoded =
+        ByteBuffer.allocate(this.encoded.capacity() << 1).put(this.encoded);
+    }
+
+    /** Writes the given text to the given channel. */
+    void write(CharSequence text, WritableByteChannel channel)
+      throws IOException {
+      if (this.bytes == null) {
+        this.bytes = ByteBuffer.allocateDirect(1 << 14);
+      }
+      CharBuffer chars = CharBuffer.wrap(text);
+      CoderResult result;
+      this.encoder.reset();
+      do {
+        result = this.encoder.encode(chars, this.bytes, true);
+        if (result.isError()) {
+          result.throwException();
+        }
+        drain(channel);
+      } while (result.isOverflow());
+      while (this.encoder.flush(this.bytes).isOverflow()) {
+        drain(channel);
+      }
+      drain(channel);
+    }
+
+    /** Writes its output buffer to the given channel and clears it. */
+    private void drain(WritableByteChannel channel) throws IOException {
+      this.bytes.flip();
+      try {
+        while (this.bytes.hasRemaining()) {
+          channel.write(this.bytes);
+        }
+      } finally {
+        this.bytes.clear();
+      }
+    }
+  }
+
+  /** To prevent instantiations of this class. */
+  protected CueSheetSerializer() {}
+}
@@ -0,0 +1,142 @@
+package eden.qedit.io;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Reads documents from a stream one at a time, as they arrive. The stream is
+ * either one document, or many in a format:
+ *
+ * - `nul`: each is terminated by a NUL byte, though the last may be not.
+ *
+ * - `length`: each is prefixed by its length in bytes in decimal and a line
+ * feed.
+ *
+ * Outputs are written back in the same format, so that runs can be chained in
+ * a pipeline. It is not thread-safe.
+ *
+ * @author Brendon
+ */
+public class DocumentStream {
+
+  /** Largest document in bytes. */
+  public static final int MAX_LENGTH = Integer.MAX_VALUE - 8;
+
+  /** Returns the format of the given name. */
+  public static Format toFormat(String name) {
+    return Format.valueOf(name.toUpperCase(Locale.ROOT));
+  }
+
+  /**
+   * Writes the given bytes as a document of the given format, or as they are
+   * for none, to the given stream.
+   */
+  public static void write(OutputStream out, Format format, byte[] bytes)
+    throws IOException {
+    if (format == Format.LENGTH) {
+      out.write((bytes.length + "\n").getBytes(US_ASCII));
+    }
+    out.write(bytes);
+    if (format == Format.NUL) {
+      out.write(0);
+    }
+    out.flush();
+  }
+
+  /** Source. */
+  private final InputStream in;
+  /** Format, or null for one document. */
+  private final Format format;
+  /** Reusable document buffer. */
+  private byte[] buffer = new byte[1 << 14];
+  /** Whether the end of the source is reached. */
+  private boolean end = false;
+
+  /** Makes an instance that reads the given stream in the given format. */
+  public DocumentStream(InputStream in, Format format) {
+    this.in = new BufferedInputStream(in, 1 << 16);
+    this.format = format;
+  }
+
+  /** Returns its format, or null for one document. */
+  public Format getFormat() {
+    return this.format;
+  }
+
+  /** Returns the next document, or null past the last. */
+  public ByteBuffer read() throws IOException {
+    if (this.end) {
+      return null;
+    }
+    if (this.format == null) {
+      this.end = true;
+      return readUntil(-1);
+    }
+    if (this.format == Format.NUL) {
+      ByteBuffer out = readUntil(0);
+      return this.end && !out.hasRemaining() ? null : out;
+    }
+    long length = 0;
+    int b = this.in.read();
+    if (b < 0) {
+      this.end = true;
+      return null;
+    }
+    do {
+      if (b < '0' || b > '9') {
+        throw new IOException("Bad document length.");
+      }
+      length = length * 10 + b - '0';
+      if (length > MAX_LENGTH) {
+        throw new IOException("Document too long.");
+      }
+    } while ((b = this.in.read()) != '\n');
+    byte[] bytes = new byte[(int) length];
+    for (int i = 0, n; i < bytes.length; i += n) {
+      if ((n = this.in.read(bytes, i, bytes.length - i)) < 0) {
+        throw new EOFException("Document ended early.");
+      }
+    }
+    return ByteBuffer.wrap(bytes);
+  }
+
+  /**
+   * Reads until the given terminator, which is dropped, or the end of the
+   * source.
+   */
+  private ByteBuffer readUntil(int terminator) throws IOException {
+    int count = 0, b;
+    while ((b = this.in.read()) != terminator) {
+      if (b < 0) {
+        this.end = true;
+        break;
+      }
+      if (count == this.buffer.length) {
+        if (count == MAX_LENGTH) {
+          throw new IOException("Document too long.");
+        }
+        this.buffer =
+          Arrays.copyOf(
+            this.buffer,
+            (int) Math.min((long) count << 1, MAX_LENGTH)
+          );
+      }
+      this.buffer[count++] = (byte) b;
+    }
+    return ByteBuffer.wrap(Arrays.copyOf(this.buffer, count));
+  }
+
+  /** Document formats. */
+  public enum Format {
+    NUL,
+    LENGTH,
+  }
+}
@@ -0,0 +1,229 @@
+package eden.qedit.io;
+
+import eden.common.model.cd.CueSheet;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Probes whether files exist and are directories. Each directory is listed
+ * once and results are cached for the lifetime of the instance, which may be
+ * shared among threads. Listings of different directories run concurrently,
+ * up to its parallelism.
+ *
+ * Names found in a listing are probed once for their type. Names not found
+ * are absent, unless the listing has one that differs only in case, in which
+ * case the file system decides.
+ *
+ * @author Brendon
+ */
+public class FileProbe {
+
+  /** Default number of directories to list concurrently. */
+  public static final int DEFAULT_PARALLELISM = 4;
+  /** Listing of a directory that does not exist or is not one. */
+  private static final Listing ABSENT_LISTING = new Listing();
+
+  /**
+   * Returns the path of the given file referenced by the given cuesheet,
+   * relative to the directory of its file, which may be into an archive.
+   */
+  public static Path resolve(CueSheet sheet, String file) {
+    String directory = sheet.hasFile()
+      ? sheet.getFile().getFile().getParent()
+      : null;
+    return Archives.toPath(
+      (directory == null ? "." : directory) + File.separator + file
+    );
+  }
+
+  /** Returns the result of probing the given path on the file system. */
+  public static Result stat(Path path) {
+    if (Files.notExists(path)) {
+      return Result.ABSENT;
+    }
+    return Files.isDirectory(path) ? Result.DIRECTORY : Result.FILE;
+  }
+
+  /** Directory listings by path. */
+  private final ConcurrentMap<Path, CompletableFuture<Listing>> listings =
+    new ConcurrentHashMap<>();
+  /** Results by path. */
+  private final ConcurrentMap<Path, Result> results = new ConcurrentHashMap<>();
+  /** Listing executor, made on first use. */
+  private ThreadPoolExecutor executor;
+  /** Number of directories to list concurrently. */
+  private int parallelism = DEFAULT_PARALLELISM;
+
+  /**
+   * Sets its parallelism, before its first listing. One or less lists in the
+   * calling thread.
+   */
+  public synchronized void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  /** Starts listing the parent directories of the given paths. */
+  public void prefetch(Collection<Path> paths) {
+    for (Path path : paths) {
+      Path parent = path.getParent();
+      if (parent != null && !this.results.containsKey(path)) {
+        getListing(parent);
+      }
+    }
+  }
+
+  /** Returns the result of probing the given path. */
+  public Result probe(Path path) {
+    Result out = this.results.get(path);
+    if (out == null) {
+      out = lookUp(path);
+      this.results.putIfAbsent(path, out);
+    }
+    return out;
+  }
+
+  /** Forgets all listings and results. */
+  public void clear() {
+    this.listings.clear();
+    this.results.clear();
+  }
+
+  /** Looks up the given path in the listing of its parent. */
+  private Result lookUp(Path path) {
+    Path parent = path.getParent(), file = path.getFileName();
+    if (parent == null || file == null) {
+      return stat(path);
+    }
+    String name = file.toString();
+    if (name.equals(".") || name.equals("..")) {
+      return stat(path);
+    }
+    Listing listing;
+    try {
+      listing = getListing(parent).get();
+    } catch (ExecutionException exception) {
+      listing = null;
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      listing = null;
+    }
+    if (listing == null) {
+      return stat(path);
+    }
+    if (listing.names.contains(name)) {
+      try {
+        return Files
+            .readAttributes(path, BasicFileAttributes.class)
+            .isDirectory()
+          ? Result.DIRECTORY
+          : Result.FILE;
+      } catch (NoSuchFileException exception) {
+        return Result.ABSENT;
+      } catch (IOException exception) {
+        return Result.FILE;
+      }
+    }
+    return listing.folded.contains(fold(name)) ? stat(path) : Result.ABSENT;
+  }
+
+  /** Returns the listing of the given directory, starting it if needed. */
+  private CompletableFuture<Listing> getListing(Path directory) {
+    CompletableFuture<Listing> out = this.listings.get(directory);
+    if (out != null) {
+      return out;
+    }
+    CompletableFuture<Listing> future = new CompletableFuture<>();
+    out = this.listings.putIfAbsent(directory, future);
+    if (out != null) {
+      return out;
+    }
+    ThreadPoolExecutor executor = getExecutor();
+    if (executor == null) {
+      future.complete(list(directory));
+    } else {
+      executor.execute(() -> future.complete(list(directory)));
+    }
+    return future;
+  }
+
+  /** Returns its executor, or null to list in the calling thread. */
+  private synchronized ThreadPoolExecutor getExecutor() {
+    if (this.parallelism <= 1) {
+      return null;
+    }
+    if (this.executor == null) {
+      this.executor =
+        new ThreadPoolExecutor(
+          this.parallelism,
+          this.parallelism,
+          1,
+          TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(),
+          runnable -> {
+            Thread thread = new Thread(runnable, "FileProbe");
+            thread.setDaemon(true);
+            return thread;
+          }
+        );
+      this.executor.allowCoreThreadTimeOut(true);
+    }
+    return this.executor;
+  }
+
+  /**
+   * Lists the given directory. Returns null if it can not be listed but may
+   * still be probed into.
+   */
+  private static Listing list(Path directory) {
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+      Listing out = new Listing();
+      for (Path entry : stream) {
+        String name = entry.getFileName().toString();
+        out.names.add(name);
+        out.folded.add(fold(name));
+      }
+      return out;
+    } catch (NoSuchFileException exception) {
+      return ABSENT_LISTING;
+    } catch (IOException | RuntimeException exception) {
+      return null;
+    }
+  }
+
+  /** Returns the given name folded for case-insensitive comparison. */
+  private static String fold(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  /** Probe results. */
+  public enum Result {
+    ABSENT,
+    DIRECTORY,
+    FILE,
+  }
+
+  /** Names in a directory. */
+  private static class Listing {
+
+    /** Names as they are. */
+    final Set<String> names = new HashSet<>();
+    /** Names folded for case-insensitive comparison. */
+    final Set<String> folded = new HashSet<>();
+  }
+}
@@ -0,0 +1,420 @@
+package eden.qedit.io;
+
+import eden.common.util.CDDAFrame;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Probes the lengths of media files in CD frames. Only headers are read:
+ *
+ * - `WAVE`: the `fmt ` and `data` chunks of a RIFF file.
+ *
+ * - `AIFF`: the `COMM` chunk of an AIFF or AIFF-C file.
+ *
+ * - `BINARY`, `MOTOROLA`: the file size in raw CD-DA sectors.
+ *
+ * Other types, such as `MP3`, are unknown. Lengths are cached by path and
+ * validated against the size and modification time of the file on each probe,
+ * along with whether they are of whole CD frames. Instances may be shared among
+ * threads. The layouts of WAVE and BINARY files can also be read, to cut them
+ * at CD frames.
+ *
+ * @author Brendon
+ */
+public class MediaProbe {
+
+  /** Unknown length. */
+  public static final long UNKNOWN = -1;
+  /** Number of bytes in a raw CD-DA sector. */
+  public static final int SECTOR_SIZE = 2352;
+  /** Maximum number of chunks to walk before giving up. */
+  protected static final int MAX_CHUNKS = 64;
+  /** Largest `fmt ` chunk to read in bytes. */
+  protected static final int MAX_FORMAT = 1 << 10;
+  /** Sample rate of CD-DA. */
+  protected static final int CD_RATE = 44100;
+  /** Bytes in a sample frame of CD-DA: 16-bit stereo. */
+  protected static final int CD_ALIGN = 4;
+  /** RIFF chunk tag. */
+  private static final byte[] RIFF = tag("RIFF");
+  /** WAVE form tag. */
+  private static final byte[] WAVE = tag("WAVE");
+  /** Format chunk tag. */
+  private static final byte[] FMT = tag("fmt ");
+  /** Data chunk tag. */
+  private static final byte[] DATA = tag("data");
+
+  /** Lengths by path. */
+  private final ConcurrentMap<Path, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the length in CD frames of the given file of the given type, or
+   * {@link #UNKNOWN} if it is absent, unreadable, malformed or of an unknown
+   * type.
+   */
+  public long getFrames(Path path, String type) {
+    Entry entry = getEntry(path, type);
+    return entry == null ? UNKNOWN : entry.frames;
+  }
+
+  /**
+   * Returns whether the given file of the given type is of whole CD frames,
+   * which it is taken to be if its length is unknown.
+   */
+  public boolean isWhole(Path path, String type) {
+    Entry entry = getEntry(path, type);
+    return entry == null || entry.whole;
+  }
+
+  /** Forgets all lengths. */
+  public void clear() {
+    this.entries.clear();
+  }
+
+  /**
+   * Returns the entry of the given file of the given type, probing it if it
+   * has changed, or null if it is absent or not a regular file.
+   */
+  private Entry getEntry(Path path, String type) {
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    } catch (IOException exception) {
+      return null;
+    }
+    if (!attributes.isRegularFile()) {
+      return null;
+    }
+    long size = attributes.size();
+    long modified = attributes.lastModifiedTime().toMillis();
+    String key = type == null ? "" : type.toUpperCase(Locale.ROOT);
+    Entry entry = this.entries.get(path);
+    if (
+      entry != null &&
+      entry.size == size &&
+      entry.modified == modified &&
+      entry.type.equals(key)
+    ) {
+      return entry;
+    }
+    double frames;
+    try {
+      frames = probe(path, key, size);
+    } catch (IOException | RuntimeException exception) {
+      frames = UNKNOWN;
+    }
+    entry = new Entry(key, size, modified, frames);
+    this.entries.put(path, entry);
+    return entry;
+  }
+
+  /**
+   * Probes the given file of the given upper-case type and size. Returns its
+   * length in CD frames with any part of one.
+   */
+  private static double probe(Path path, String type, long size)
+    throws IOException {
+    switch (type) {
+      case "BINARY":
+      case "MOTOROLA":
+        return (double) size / SECTOR_SIZE;
+      case "WAVE":
+      case "AIFF":
+        break;
+      default:
+        return UNKNOWN;
+    }
+    try (
+      FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)
+    ) {
+      return type.equals("WAVE")
+        ? probeWave(channel, size)
+        : probeAiff(channel);
+    }
+  }
+
+  /**
+   * Returns the layout of the given open file of the given type, or null if it
+   * is not a RIFF WAVE file or raw CD-DA sectors, or is malformed.
+   */
+  public static Layout getLayout(FileChannel channel, String type)
+    throws IOException {
+    switch (type == null ? "" : type.toUpperCase(Locale.ROOT)) {
+      case "BINARY":
+        return new Layout(0, channel.size(), CD_RATE, CD_ALIGN, null);
+      case "WAVE":
+        return readWave(channel, channel.size());
+      default:
+        return null;
+    }
+  }
+
+  /** Probes the given RIFF WAVE file of the given size. */
+  private static double probeWave(FileChannel channel, long size)
+    throws IOException {
+    Layout layout = readWave(channel, size);
+    return layout == null
+      ? UNKNOWN
+      : (double) (layout.length / layout.align) * CDDAFrame.FPS / layout.rate;
+  }
+
+  /** Reads the layout of the given RIFF WAVE file of the given size. */
+  private static Layout readWave(FileChannel channel, long size)
+    throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN);
+    if (
+      !read(channel, buffer, 0, 12) ||
+      !tag(buffer, 0, "RIFF") ||
+      !tag(buffer, 8, "WAVE")
+    ) {
+      return null;
+    }
+    long position = 12, rate = 0;
+    int align = 0;
+    byte[] format = null;
+    for (int i = 0; i < MAX_CHUNKS && read(channel, buffer, position, 8); i++) {
+      long length = buffer.getInt(4) & 0xffffffffL;
+      if (tag(buffer, 0, "fmt ")) {
+        if (length < 16 || length > MAX_FORMAT) {
+          return null;
+        }
+        ByteBuffer chunk = ByteBuffer
+          .allocate((int) length)
+          .order(ByteOrder.LITTLE_ENDIAN);
+        if (!read(channel, chunk, position + 8, (int) length)) {
+          return null;
+        }
+        format = chunk.array();
+        rate = chunk.getInt(4) & 0xffffffffL;
+        align = chunk.getShort(12) & 0xffff;
+      } else if (tag(buffer, 0, "data")) {
+        if (rate == 0 || align == 0) {
+          return null;
+        }
+        // Streamed files may leave the length unset or overstated.
+        length = Math.max(Math.min(length, size - position - 8), 0);
+        return new Layout(position + 8, length, rate, align, format);
+      }
+      position += 8 + length + (length & 1);
+    }
+    return null;
+  }
+
+  /** Probes the given AIFF or AIFF-C file. */
+  private static double probeAiff(FileChannel channel) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(18).order(ByteOrder.BIG_ENDIAN);
+    if (
+      !read(channel, buffer, 0, 12) ||
+      !tag(buffer, 0, "FORM") ||
+      !(tag(buffer, 8, "AIFF") || tag(buffer, 8, "AIFC"))
+    ) {
+      return UNKNOWN;
+    }
+    long position = 12;
+    for (int i = 0; i < MAX_CHUNKS && read(channel, buffer, position, 8); i++) {
+      long length = buffer.getInt(4) & 0xffffffffL;
+      if (tag(buffer, 0, "COMM")) {
+        if (length < 18 || !read(channel, buffer, position + 8, 18)) {
+          return UNKNOWN;
+        }
+        long samples = buffer.getInt(2) & 0xffffffffL;
+        double rate = extended(buffer, 8);
+        if (!(rate >= 1)) {
+          return UNKNOWN;
+        }
+        return samples * CDDAFrame.FPS / rate;
+      }
+      position += 8 + length + (length & 1);
+    }
+    return UNKNOWN;
+  }
+
+  /**
+   * Reads the given number of bytes at the given position into the start of
+   * the given buffer. Returns false if the file ends before.
+   */
+  private static boolean read(
+    FileChannel channel,
+    ByteBuffer buffer,
+    long position,
+    int length
+  ) throws IOException {
+    buffer.clear().limit(length);
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position + buffer.position());
+      if (read < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the bytes of the given tag. */
+  private static byte[] tag(String tag) {
+    return tag.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  /** Returns whether the given buffer has the given tag at the given index. */
+  private static boolean tag(ByteBuffer buffer, int index, String tag) {
+    for (int i = 0; i < 4; i++) {
+      if (buffer.get(index + i) != tag.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the 80-bit IEEE 754 extended precision number at the given index
+   * of the given buffer.
+   */
+  private static double extended(ByteBuffer buffer, int index) {
+    int exponent = buffer.getShort(index) & 0x7fff;
+    long mantissa = buffer.getLong(index + 2);
+    if (exponent == 0 && mantissa == 0) {
+      return 0;
+    }
+    double out = (mantissa >>> 11) * Math.pow(2, exponent - 16383 - 52);
+    return (buffer.get(index) & 0x80) == 0 ? out : -out;
+  }
+
+  /**
+   * Where the audio of a file lies and how it is laid out. Its positions are
+   * in bytes, at whole sample frames.
+   */
+  public static class Layout {
+
+    /** Position of the audio. */
+    private final long offset;
+    /** Length of the audio. */
+    private final long length;
+    /** Sample rate. */
+    private final long rate;
+    /** Bytes in a sample frame. */
+    private final int align;
+    /** Content of the WAVE `fmt ` chunk, or null for CD-DA. */
+    private final byte[] format;
+
+    Layout(long offset, long length, long rate, int align, byte[] format) {
+      this.offset = offset;
+      this.length = length;
+      this.rate = rate;
+      this.align = align;
+      this.format = format;
+    }
+
+    /** Returns the length of the audio in whole CD frames. */
+    public long getFrames() {
+      return this.length / this.align * CDDAFrame.FPS / this.rate;
+    }
+
+    /**
+     * Returns the position of the given CD frame in the file, which is at most
+     * the end of the audio.
+     */
+    public long getPosition(long frame) {
+      long samples = this.length / this.align;
+      return (
+        this.offset +
+        Math.min(frame * this.rate / CDDAFrame.FPS, samples) * this.align
+      );
+    }
+
+    /** Returns whether it is raw CD-DA sectors. */
+    public boolean isRaw() {
+      return this.format == null;
+    }
+
+    /** Returns whether it is of CD-DA: 16-bit stereo PCM at 44.1 kHz. */
+    public boolean isCdda() {
+      if (this.format == null) {
+        return true;
+      }
+      ByteBuffer format = ByteBuffer
+        .wrap(this.format)
+        .order(ByteOrder.LITTLE_ENDIAN);
+      int tag = format.getShort(0) & 0xffff;
+      return (
+        (tag == 1 || tag == 0xfffe) &&
+        format.getShort(2) == 2 &&
+        this.rate == CD_RATE &&
+        this.align == CD_ALIGN &&
+        format.getShort(14) == 16
+      );
+    }
+
+    /** Returns the position of the end of the audio in the file. */
+    public long getEnd() {
+      return this.offset + this.length / this.align * this.align;
+    }
+
+    /**
+     * Returns a RIFF WAVE header of its format for audio of the given length
+     * in bytes.
+     */
+    public ByteBuffer toWaveHeader(long length) {
+      byte[] format = this.format;
+      if (format == null) {
+        format = new byte[16];
+        ByteBuffer.wrap(format)
+          .order(ByteOrder.LITTLE_ENDIAN)
+          .putShort((short) 1)
+          .putShort((short) 2)
+          .putInt(CD_RATE)
+          .putInt(CD_RATE * CD_ALIGN)
+          .putShort((short) CD_ALIGN)
+          .putShort((short) 16);
+      }
+      int pad = format.length & 1;
+      ByteBuffer out = ByteBuffer
+        .allocate(28 + format.length + pad)
+        .order(ByteOrder.LITTLE_ENDIAN);
+      out
+        .put(RIFF)
+        .putInt((int) (20 + format.length + pad + length))
+        .put(WAVE)
+        .put(FMT)
+        .putInt(format.length)
+        .put(format);
+      if (pad != 0) {
+        out.put((byte) 0);
+      }
+      out.put(DATA).putInt((int) length);
+      out.flip();
+      return out;
+    }
+  }
+
+  /** Cached length with the attributes of the file it was probed from. */
+  private static class Entry {
+
+    /** File type. */
+    final String type;
+    /** File size. */
+    final long size;
+    /** File modification time in milliseconds. */
+    final long modified;
+    /** Length in whole CD frames. */
+    final long frames;
+    /** Whether the length is of whole CD frames. */
+    final boolean whole;
+
+    Entry(String type, long size, long modified, double frames) {
+      this.type = type;
+      this.size = size;
+      this.modified = modified;
+      this.frames = (long) frames;
+      this.whole = frames == this.frames;
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package eden.qedit.io;
+
+import static eden.common.shared.Constants.STDOUT;
+
+import java.io.PrintStream;
+
+/**
+ * Per-thread redirectable standard output. Actions print through this so that
+ * parallel jobs can buffer their output and have it flushed in order.
+ *
+ * @author Brendon
+ */
+public class Output {
+
+  /** Redirected streams. */
+  protected static final ThreadLocal<PrintStream> STREAMS = new ThreadLocal<>();
+
+  /** Returns the output stream of the current thread. */
+  public static PrintStream get() {
+    PrintStream out = STREAMS.get();
+    return out == null ? STDOUT : out;
+  }
+
+  /** Redirects the output of the current thread to the given stream. */
+  public static void set(PrintStream stream) {
+    STREAMS.set(stream);
+  }
+
+  /** Restores the output of the current thread to the standard output. */
+  public static void reset() {
+    STREAMS.remove();
+  }
+
+  /** To prevent instantiations of this class. */
+  protected Output() {}
+}
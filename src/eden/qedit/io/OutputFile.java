@@ -0,0 +1,289 @@
+package eden.qedit.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes output files, skipping those whose content would not change. A
+ * regular file is compared only if its size is that of the output, then byte
+ * by byte, so that changed outputs mostly cost a stat more than writing them.
+ *
+ * Outputs are written to sibling temporary files that are moved over their
+ * targets by the sync group, so that a crash leaves either the previous or
+ * the new content. Each is written for the input set on its thread, by which
+ * failures to commit are told. Targets that exist and are not regular files,
+ * such as devices, are written directly, as are entries of archives, which
+ * are committed when the archives are closed. Ranges of other files can be
+ * written as they are without comparing them.
+ *
+ * @author Brendon
+ */
+public class OutputFile {
+
+  /** Comparison buffers by thread. */
+  protected static final ThreadLocal<ByteBuffer> BUFFERS =
+    ThreadLocal.withInitial(() -> ByteBuffer.allocate(1 << 14));
+  /** Temporary file suffix. */
+  protected static final String SUFFIX = ".tmp";
+  /** Inputs by thread. */
+  private static final ThreadLocal<String> INPUTS = new ThreadLocal<>();
+  /** Sync group, or null to commit each file as it is written. */
+  private static volatile SyncGroup group = null;
+
+  /**
+   * Sets the sync group of all outputs, or null to commit each as it is
+   * written.
+   */
+  public static void setGroup(SyncGroup group) {
+    OutputFile.group = group;
+  }
+
+  /** Sets the input of the outputs of the current thread, or null. */
+  public static void setInput(String input) {
+    INPUTS.set(input);
+  }
+
+  /** Returns the input of the outputs of the current thread, or null. */
+  public static String getInput() {
+    return INPUTS.get();
+  }
+
+  /** Commits the pending files of the sync group, if any. */
+  public static void flush() {
+    SyncGroup group = OutputFile.group;
+    if (group != null) {
+      group.flush();
+    }
+  }
+
+  /**
+   * Returns the first failures to commit by input since the last call.
+   *
+   * @see SyncGroup#takeFailures()
+   */
+  public static Map<String, IOException> takeFailures() {
+    SyncGroup group = OutputFile.group;
+    return group == null ? Collections.emptyMap() : group.takeFailures();
+  }
+
+  /**
+   * Writes the remaining given bytes to the given path and returns true, or
+   * returns false if the file has them already. The buffer position is
+   * unchanged.
+   */
+  public static boolean write(Path path, ByteBuffer bytes) throws IOException {
+    if (isUnchanged(path, bytes)) {
+      return false;
+    }
+    write(path, channel -> write(channel, bytes));
+    return true;
+  }
+
+  /**
+   * Writes the remaining given header followed by the given number of bytes
+   * of the given source from the given position to the given path. The bytes
+   * are transferred by the operating system where it can, without copying
+   * them through the heap. Unlike {@link #write(Path, ByteBuffer)}, the file
+   * is written even if it has them already.
+   */
+  public static void transfer(
+    Path path,
+    ByteBuffer header,
+    FileChannel source,
+    long position,
+    long count
+  ) throws IOException {
+    write(
+      path,
+      channel -> {
+        write(channel, header);
+        for (long done = 0; done < count;) {
+          long transferred = source.transferTo(
+            position + done,
+            count - done,
+            channel
+          );
+          if (transferred <= 0) {
+            throw new EOFException(path.toString());
+          }
+          done += transferred;
+        }
+      }
+    );
+  }
+
+  /** Writes the given content to the given path. */
+  private static void write(Path path, Content content) throws IOException {
+    if (path.getFileSystem() != FileSystems.getDefault()) {
+      write(
+        path,
+        content,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING
+      );
+      return;
+    }
+    if (Files.isSymbolicLink(path)) {
+      path =
+        Files.exists(path)
+          ? path.toRealPath()
+          : path.resolveSibling(Files.readSymbolicLink(path));
+    }
+    if (Files.exists(path) && !Files.isRegularFile(path)) {
+      write(path, content, StandardOpenOption.TRUNCATE_EXISTING);
+      return;
+    }
+    Path name = path.getFileName();
+    Path temporary = path.resolveSibling(
+      "." + name + "." + Long.toHexString(System.nanoTime()) + SUFFIX
+    );
+    try {
+      write(temporary, content, StandardOpenOption.CREATE_NEW);
+    } catch (AccessDeniedException exception) {
+      throw new AccessDeniedException(path.toString());
+    } catch (NoSuchFileException exception) {
+      throw new NoSuchFileException(path.toString());
+    } catch (IOException | RuntimeException exception) {
+      Files.deleteIfExists(temporary);
+      throw exception;
+    }
+    try {
+      copyPermissions(path, temporary);
+      SyncGroup group = OutputFile.group;
+      if (group == null) {
+        SyncGroup.sync(temporary, false);
+        SyncGroup.move(temporary, path);
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+          SyncGroup.sync(directory, true);
+        }
+      } else {
+        group.add(temporary, path, INPUTS.get());
+      }
+    } catch (IOException | RuntimeException exception) {
+      Files.deleteIfExists(temporary);
+      throw exception;
+    }
+  }
+
+  /**
+   * Writes the given content to the given path opened with the given options.
+   */
+  private static void write(
+    Path path,
+    Content content,
+    StandardOpenOption... options
+  ) throws IOException {
+    Set<StandardOpenOption> set = EnumSet.of(StandardOpenOption.WRITE, options);
+    try (SeekableByteChannel channel = Files.newByteChannel(path, set)) {
+      content.write(channel);
+    }
+  }
+
+  /**
+   * Writes the remaining given bytes to the given channel. The buffer position
+   * is unchanged.
+   */
+  private static void write(WritableByteChannel channel, ByteBuffer bytes)
+    throws IOException {
+    ByteBuffer input = bytes.duplicate();
+    while (input.hasRemaining()) {
+      channel.write(input);
+    }
+  }
+
+  /** Gives the given file the POSIX permissions of the given source, if any. */
+  private static void copyPermissions(Path source, Path path)
+    throws IOException {
+    PosixFileAttributeView view = Files.getFileAttributeView(
+      source,
+      PosixFileAttributeView.class
+    );
+    if (view != null && Files.exists(source)) {
+      Files.setPosixFilePermissions(path, view.readAttributes().permissions());
+    }
+  }
+
+  /**
+   * Returns whether the given file would have the remaining given bytes. A
+   * pending file of the sync group for it is compared instead, and joined by
+   * the input of the current thread if it has them.
+   */
+  public static boolean isUnchanged(Path path, ByteBuffer bytes)
+    throws IOException {
+    SyncGroup group = OutputFile.group;
+    Path pending = group == null ? null : group.getPending(path);
+    if (pending != null) {
+      if (!hasBytes(pending, bytes)) {
+        return false;
+      }
+      if (group.join(pending, INPUTS.get())) {
+        return true;
+      }
+    }
+    return hasBytes(path, bytes);
+  }
+
+  /**
+   * Returns whether the given file is a regular file and has the remaining
+   * given bytes.
+   */
+  private static boolean hasBytes(Path path, ByteBuffer bytes)
+    throws IOException {
+    if (!Files.isRegularFile(path)) {
+      return false;
+    }
+    try (SeekableByteChannel channel = Files.newByteChannel(path)) {
+      if (channel.size() != bytes.remaining()) {
+        return false;
+      }
+      ByteBuffer buffer = BUFFERS.get();
+      ByteBuffer expected = bytes.duplicate();
+      while (expected.hasRemaining()) {
+        buffer.clear();
+        if (buffer.remaining() > expected.remaining()) {
+          buffer.limit(expected.remaining());
+        }
+        if (channel.read(buffer) < 0) {
+          return false;
+        }
+        buffer.flip();
+        ByteBuffer slice = expected.duplicate();
+        slice.limit(slice.position() + buffer.remaining());
+        if (!slice.equals(buffer)) {
+          return false;
+        }
+        expected.position(slice.limit());
+      }
+      buffer.clear();
+      return channel.read(buffer) < 0;
+    } catch (NoSuchFileException exception) {
+      return false;
+    }
+  }
+
+  /** To prevent instantiations of this class. */
+  protected OutputFile() {}
+
+  /** Content of an output file. */
+  @FunctionalInterface
+  private interface Content {
+    /** Writes itself to the given channel. */
+    void write(WritableByteChannel channel) throws IOException;
+  }
+}
@@ -0,0 +1,295 @@
+package eden.qedit.io;
+
+import eden.common.model.cd.CueSheet;
+import eden.qedit.util.Stats;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches parsed cuesheets on disk, keyed by canonical path, size, modification
+ * time and content hash. A cuesheet whose size and modification time are
+ * unchanged costs one stat; one that was touched but whose content hash is
+ * unchanged costs a read. Sheets modified too shortly before they were cached
+ * are always verified by hash, as a later change may keep the same time.
+ *
+ * Cuesheets are cached in the binary format with their source lines, so that
+ * checks of cached ones tell their lines. The cache is loaded and saved as
+ * a whole, least recently used entries first evicted beyond its size limit.
+ * It is saved only if entries were added or replaced: times of use alone are
+ * kept in memory and saved along with the next change, so that runs that hit
+ * every entry do not rewrite it. Instances may be shared among threads.
+ *
+ * @author Brendon
+ */
+public class SheetCache {
+
+  /** Default limit in bytes of encoded cuesheets. */
+  public static final long DEFAULT_LIMIT = 64L << 20;
+  /** Cache file magic number. */
+  protected static final int MAGIC = 0x51454443;
+  /** Cache file version, bumped whenever the parser or encoding changes. */
+  protected static final int VERSION = 3;
+  /** Modification time granularity in milliseconds to allow for. */
+  protected static final long RACY_WINDOW = 2000;
+
+  /**
+   * Returns the default cache file, under `$XDG_CACHE_HOME` or `~/.cache`.
+   */
+  public static Path getDefaultPath() {
+    String home = System.getenv("XDG_CACHE_HOME");
+    Path directory = home == null || home.isEmpty()
+      ? Paths.get(System.getProperty("user.home"), ".cache")
+      : Paths.get(home);
+    return directory.resolve("qedit").resolve("sheets.cache");
+  }
+
+  /** Cache file. */
+  private final Path path;
+  /** Limit in bytes of encoded cuesheets. */
+  private final long limit;
+  /** Entries by canonical path. */
+  private final ConcurrentMap<String, Entry> entries =
+    new ConcurrentHashMap<>();
+  /** Whether entries have changed since it was loaded. */
+  private volatile boolean dirty = false;
+
+  /** Makes an instance with the given cache file and limit in bytes. */
+  public SheetCache(Path path, long limit) {
+    this.path = path;
+    this.limit = limit;
+  }
+
+  /** Returns its cache file. */
+  public Path getPath() {
+    return this.path;
+  }
+
+  /** Loads its cache file. A missing, stale or corrupt one loads empty. */
+  public void load() {
+    this.entries.clear();
+    try (
+      DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(this.path), 1 << 16)
+      )
+    ) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        return;
+      }
+      for (int count = in.readInt(); count > 0; count--) {
+        String key = in.readUTF();
+        long size = in.readLong(), modified = in.readLong();
+        boolean racy = in.readBoolean();
+        long used = in.readLong();
+        byte[] hash = new byte[in.readUnsignedByte()];
+        in.readFully(hash);
+        byte[] data = new byte[in.readInt()];
+        in.readFully(data);
+        this.entries.put(
+            key,
+            new Entry(size, modified, racy, hash, data, used)
+          );
+      }
+    } catch (IOException | RuntimeException exception) {
+      this.entries.clear();
+    }
+    this.dirty = false;
+  }
+
+  /**
+   * Saves its cache file if it has changed, evicting least recently used
+   * entries beyond its limit.
+   */
+  public void save() throws IOException {
+    if (!this.dirty) {
+      return;
+    }
+    List<Map.Entry<String, Entry>> entries = new ArrayList<>(
+      this.entries.entrySet()
+    );
+    entries.sort(
+      Comparator.comparingLong(
+        (Map.Entry<String, Entry> entry) -> entry.getValue().used
+      ).reversed()
+    );
+    long total = 0;
+    int count = 0;
+    while (count < entries.size()) {
+      total += entries.get(count).getValue().data.length;
+      if (total > this.limit) {
+        break;
+      }
+      count++;
+    }
+    Path directory = this.path.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    Path temporary = Files.createTempFile(directory, "sheets", ".tmp");
+    try {
+      try (
+        DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16)
+        )
+      ) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(count);
+        for (Map.Entry<String, Entry> item : entries.subList(0, count)) {
+          Entry entry = item.getValue();
+          out.writeUTF(item.getKey());
+          out.writeLong(entry.size);
+          out.writeLong(entry.modified);
+          out.writeBoolean(entry.racy);
+          out.writeLong(entry.used);
+          out.writeByte(entry.hash.length);
+          out.write(entry.hash);
+          out.writeInt(entry.data.length);
+          out.write(entry.data);
+        }
+      }
+      try {
+        Files.move(
+          temporary,
+          this.path,
+          StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING
+        );
+      } catch (AtomicMoveNotSupportedException exception) {
+        Files.move(temporary, this.path, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+    this.dirty = false;
+  }
+
+  /**
+   * Returns the cuesheet of the given file from the cache, or parses and
+   * caches it.
+   */
+  public CueSheet parse(File file) throws IOException {
+    Path path = file.toPath();
+    BasicFileAttributes attributes = Files.readAttributes(
+      path,
+      BasicFileAttributes.class
+    );
+    if (!attributes.isRegularFile()) {
+      return CueSheetByteParser.parse(file);
+    }
+    String key = file.getCanonicalPath();
+    long size = attributes.size();
+    long modified = attributes.lastModifiedTime().toMillis();
+    long now = System.currentTimeMillis();
+    Entry entry = this.entries.get(key);
+    if (
+      entry != null &&
+      !entry.racy &&
+      entry.size == size &&
+      entry.modified == modified
+    ) {
+      CueSheet out = decode(entry.data, file);
+      if (out != null) {
+        entry.used = now;
+        return out;
+      }
+    }
+    byte[] bytes = Files.readAllBytes(path);
+    Stats.addRead(bytes.length);
+    byte[] hash = hash(bytes);
+    boolean racy = modified + RACY_WINDOW > now;
+    if (entry != null && Arrays.equals(entry.hash, hash)) {
+      CueSheet out = decode(entry.data, file);
+      if (out != null) {
+        put(
+          key,
+          new Entry(bytes.length, modified, racy, hash, entry.data, now)
+        );
+        return out;
+      }
+    }
+    CueSheet out = CueSheetByteParser.parse(file, ByteBuffer.wrap(bytes));
+    byte[] data = CueSheetBinary.write(out, true);
+    if (data.length <= this.limit) {
+      put(key, new Entry(bytes.length, modified, racy, hash, data, now));
+    }
+    return out;
+  }
+
+  /** Puts the given entry under the given key. */
+  private void put(String key, Entry entry) {
+    this.entries.put(key, entry);
+    this.dirty = true;
+  }
+
+  /** Returns the SHA-256 hash of the given bytes. */
+  private static byte[] hash(byte[] bytes) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(bytes);
+    } catch (NoSuchAlgorithmException exception) {
+      throw new AssertionError(exception);
+    }
+  }
+
+  /**
+   * Returns the cuesheet of the given file decoded from the given encoding, or
+   * null if it is corrupt.
+   */
+  private static CueSheet decode(byte[] data, File file) {
+    try {
+      return CueSheetBinary.read(ByteBuffer.wrap(data), file);
+    } catch (IOException exception) {
+      return null;
+    }
+  }
+
+  /** Cached cuesheet with the attributes of the file it was parsed from. */
+  private static class Entry {
+
+    /** File size. */
+    final long size;
+    /** File modification time in milliseconds. */
+    final long modified;
+    /** Whether it must be verified by hash. */
+    final boolean racy;
+    /** Content hash. */
+    final byte[] hash;
+    /** Encoded cuesheet. */
+    final byte[] data;
+    /** Time of last use in milliseconds. */
+    volatile long used;
+
+    Entry(
+      long size,
+      long modified,
+      boolean racy,
+      byte[] hash,
+      byte[] data,
+      long used
+    ) {
+      this.size = size;
+      this.modified = modified;
+      this.racy = racy;
+      this.hash = hash;
+      this.data = data;
+      this.used = used;
+    }
+  }
+}
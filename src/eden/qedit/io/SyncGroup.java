@@ -0,0 +1,218 @@
+package eden.qedit.io;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A SyncGroup commits written temporary files into place in groups: their
+ * data is synced, they are moved over their targets, then each of their
+ * directories is synced once. A group is committed when it is full, when its
+ * oldest file has waited for the time window, or when it is flushed. Until
+ * then, targets keep their previous content.
+ *
+ * Each file is added for an input, and others may join it if they would write
+ * the same. Files that fail to commit are discarded, and the first failure of
+ * each of their inputs is kept to be taken, so that it is told by input
+ * rather than to the job that happened to commit the group.
+ *
+ * A group of size 1 commits each file as it is added. One of size 0 moves
+ * each file as it is added without syncing, and throws its failure.
+ * Instances are thread-safe.
+ *
+ * @author Brendon
+ * @see OutputFile
+ */
+public class SyncGroup {
+
+  /** Default size in batch. */
+  public static final int DEFAULT_SIZE = 64;
+  /** Default time window in milliseconds. */
+  public static final long DEFAULT_WINDOW = 1000;
+
+  /**
+   * Moves the given temporary file over the given target, atomically if
+   * supported.
+   */
+  static void move(Path temporary, Path target) throws IOException {
+    try {
+      Files.move(
+        temporary,
+        target,
+        StandardCopyOption.ATOMIC_MOVE,
+        StandardCopyOption.REPLACE_EXISTING
+      );
+    } catch (AtomicMoveNotSupportedException exception) {
+      Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /** Syncs the given file or directory. */
+  static void sync(Path path, boolean directory) throws IOException {
+    try (
+      FileChannel channel = FileChannel.open(
+        path,
+        directory ? StandardOpenOption.READ : StandardOpenOption.WRITE
+      )
+    ) {
+      channel.force(true);
+    } catch (IOException exception) {
+      // Not all platforms can open or sync directories.
+      if (!directory) {
+        throw exception;
+      }
+    }
+  }
+
+  /** Maximum number of files pending. */
+  private final int size;
+  /** Time window in nanoseconds. */
+  private final long window;
+  /** Pending files in order. */
+  private final List<Pending> pending = new ArrayList<>();
+  /** Latest pending files by normalized absolute target. */
+  private final Map<Path, Pending> targets = new HashMap<>();
+  /** First commit failures by input. */
+  private final Map<String, IOException> failures = new LinkedHashMap<>();
+  /** Time in nanoseconds when the oldest pending file was added. */
+  private long since;
+
+  /**
+   * Makes an instance with the given size and time window in milliseconds.
+   */
+  public SyncGroup(int size, long window) {
+    if (size < 0 || window < 0) {
+      throw new IllegalArgumentException();
+    }
+    this.size = size;
+    this.window = TimeUnit.MILLISECONDS.toNanos(window);
+  }
+
+  /**
+   * Adds the given temporary file to be moved over the given target for the
+   * given input, or null, and commits the group if it is due.
+   */
+  public synchronized void add(Path temporary, Path target, String input)
+    throws IOException {
+    if (this.size == 0) {
+      move(temporary, target);
+      return;
+    }
+    if (this.pending.isEmpty()) {
+      this.since = System.nanoTime();
+    }
+    Pending pending = new Pending(temporary, target);
+    pending.inputs.add(input);
+    this.pending.add(pending);
+    this.targets.put(getKey(target), pending);
+    if (
+      this.pending.size() >= this.size ||
+      System.nanoTime() - this.since >= this.window
+    ) {
+      flush();
+    }
+  }
+
+  /**
+   * Returns the pending temporary file to be moved over the given target, or
+   * null if there is none.
+   */
+  public synchronized Path getPending(Path target) {
+    Pending pending = this.targets.get(getKey(target));
+    return pending == null ? null : pending.temporary;
+  }
+
+  /**
+   * Adds the given input, or null, to those of the given pending temporary
+   * file and returns true, or returns false if it is no longer pending.
+   */
+  public synchronized boolean join(Path temporary, String input) {
+    for (Pending pending : this.pending) {
+      if (pending.temporary.equals(temporary)) {
+        pending.inputs.add(input);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Commits all pending files. */
+  public synchronized void flush() {
+    if (this.pending.isEmpty()) {
+      return;
+    }
+    List<Pending> pending = new ArrayList<>(this.pending);
+    this.pending.clear();
+    this.targets.clear();
+    Set<Path> directories = new LinkedHashSet<>();
+    for (Pending item : pending) {
+      try {
+        sync(item.temporary, false);
+        move(item.temporary, item.target);
+        Path directory = item.target.toAbsolutePath().getParent();
+        if (directory != null) {
+          directories.add(directory);
+        }
+      } catch (IOException exception) {
+        try {
+          Files.deleteIfExists(item.temporary);
+        } catch (IOException deletion) {
+          exception.addSuppressed(deletion);
+        }
+        for (String input : item.inputs) {
+          this.failures.putIfAbsent(input, exception);
+        }
+      }
+    }
+    for (Path directory : directories) {
+      try {
+        sync(directory, true);
+      } catch (IOException exception) {
+        // Directories are synced on a best-effort basis.
+      }
+    }
+  }
+
+  /**
+   * Returns the first commit failures by input, or null for files added
+   * without one, since the last call.
+   */
+  public synchronized Map<String, IOException> takeFailures() {
+    Map<String, IOException> out = new LinkedHashMap<>(this.failures);
+    this.failures.clear();
+    return out;
+  }
+
+  /** Returns the key of the given target. */
+  private static Path getKey(Path target) {
+    return target.toAbsolutePath().normalize();
+  }
+
+  /** A pending temporary file, its target and the inputs it is written for. */
+  private static class Pending {
+
+    /** Temporary file. */
+    final Path temporary;
+    /** Target. */
+    final Path target;
+    /** Inputs, or null for none. */
+    final Set<String> inputs = new LinkedHashSet<>();
+
+    Pending(Path temporary, Path target) {
+      this.temporary = temporary;
+      this.target = target;
+    }
+  }
+}
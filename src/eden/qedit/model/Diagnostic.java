@@ -0,0 +1,123 @@
+package eden.qedit.model;
+
+import eden.common.excep.EDENException;
+import eden.common.excep.EDENRuntimeException;
+import eden.common.excep.cd.FrameUnexpectedException;
+import eden.common.excep.cd.ISRCMisformatException;
+import eden.common.excep.cd.IndexMisnumberException;
+import eden.common.excep.cd.IndexUnexpectedException;
+import eden.common.excep.cd.MCNMisformatException;
+import eden.common.excep.cd.SessionEmptyException;
+import eden.common.excep.cd.SessionOverflowException;
+import eden.common.excep.cd.TrackEmptyException;
+import eden.common.excep.cd.TrackMisnumberException;
+import eden.common.excep.cd.TrackOverflowException;
+import eden.common.excep.cd.TrackUnexpectedException;
+import eden.common.excep.io.FileAbsentException;
+import eden.common.excep.io.FileDirectoryException;
+import eden.qedit.excep.IndexBeyondFileException;
+
+/**
+ * A problem found in a cuesheet. It tells what its exception would, without
+ * the cost of one.
+ *
+ * @author Brendon
+ */
+public class Diagnostic {
+
+  /** Code. */
+  private final Code code;
+  /** Source line, or {@code LinedCueSheet.UNKNOWN}. */
+  private final long line;
+  /** Subject. */
+  private final String subject;
+  /** Remedy. */
+  private final String remedy;
+
+  /**
+   * Makes an instance with the given code, source line, subject and remedy,
+   * or null for that of the code.
+   */
+  public Diagnostic(Code code, long line, String subject, String remedy) {
+    this.code = code;
+    this.line = line;
+    this.subject = subject;
+    this.remedy = remedy == null ? code.remedy : remedy;
+  }
+
+  /** Returns its code. */
+  public Code getCode() {
+    return this.code;
+  }
+
+  /** Returns its source line, or {@code LinedCueSheet.UNKNOWN}. */
+  public long getLine() {
+    return this.line;
+  }
+
+  /** Returns its subject. */
+  public String getSubject() {
+    return this.subject;
+  }
+
+  /** Returns its problem. */
+  public String getProblem() {
+    return this.code.problem;
+  }
+
+  /** Returns its message, as that of its exception. */
+  public String getMessage() {
+    return this.subject + ": " + this.code.problem;
+  }
+
+  /** Returns its remedy. */
+  public String getRemedy() {
+    return this.remedy;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return this.code + " " + this.line + " " + getMessage();
+  }
+
+  /** Diagnostic codes, with the problems and remedies of their exceptions. */
+  public enum Code {
+    MCN_MISFORMAT(new MCNMisformatException("")),
+    SESSION_EMPTY(new SessionEmptyException("")),
+    SESSION_OVERFLOW(new SessionOverflowException("")),
+    TRACK_MISNUMBER(new TrackMisnumberException("")),
+    TRACK_UNEXPECTED(new TrackUnexpectedException("")),
+    ISRC_MISFORMAT(new ISRCMisformatException("")),
+    TRACK_EMPTY(new TrackEmptyException("")),
+    TRACK_OVERFLOW(new TrackOverflowException("")),
+    INDEX_MISNUMBER(new IndexMisnumberException("")),
+    INDEX_UNEXPECTED(new IndexUnexpectedException("")),
+    FRAME_UNEXPECTED(new FrameUnexpectedException(0, 0)),
+    INDEX_BEYOND_FILE(new IndexBeyondFileException(0, 0, 0)),
+    FILE_ABSENT(new FileAbsentException("")),
+    FILE_DIRECTORY(new FileDirectoryException(""));
+
+    /** Problem. */
+    private final String problem;
+    /** Remedy. */
+    private final String remedy;
+
+    /** Makes an instance with the problem and remedy of the given one. */
+    Code(EDENRuntimeException exception) {
+      this.problem = exception.getProblem();
+      this.remedy = exception.getRemedy();
+    }
+
+    /** Makes an instance with the problem and remedy of the given one. */
+    Code(EDENException exception) {
+      this.problem = exception.getProblem();
+      this.remedy = exception.getRemedy();
+    }
+
+    /** Returns its problem. */
+    public String getProblem() {
+      return this.problem;
+    }
+  }
+}
@@ -0,0 +1,300 @@
+package eden.qedit.model;
+
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Index;
+import eden.common.model.cd.Track;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Columnar time codes of a cuesheet: the PREGAP and POSTGAP of every track,
+ * and the number, frame and FILE of every INDEX in sheet order, in arrays.
+ * The indexes of track `t` are those from `getStart(t)` until
+ * `getStart(t + 1)`. Unset gaps are `Integer.MIN_VALUE`, as in the model.
+ *
+ * It is made from a cuesheet and applied back to it losslessly: indexes keep
+ * their objects, and with them their REMs and custom statements. It is not
+ * thread-safe.
+ *
+ * @author Brendon
+ */
+public class FrameTable {
+
+  /** Value of unset gaps. */
+  public static final int UNSET = Integer.MIN_VALUE;
+
+  /** Returns the table of the given cuesheet. */
+  public static FrameTable of(CueSheet sheet) {
+    return new FrameTable(sheet);
+  }
+
+  /** Source cuesheet. */
+  private final CueSheet sheet;
+  /** Source tracks. */
+  private final Track[] tracks;
+  /** PREGAPs by track. */
+  private final int[] pregaps;
+  /** POSTGAPs by track. */
+  private final int[] postgaps;
+  /** Index columns. */
+  private Columns columns;
+  /** Index columns being rewritten into, or null. */
+  private Columns rewrite;
+  /** Count of tracks rewritten, or -1 if it is not being rewritten. */
+  private int rewritten = -1;
+  /**
+   * FILE paths by origin. Indexes refer to their origins by position, so that
+   * only primitive columns are copied when they are rewritten.
+   */
+  private String[] paths;
+  /** FILE types by origin. */
+  private String[] types;
+  /** Source indexes by origin, or null for those added. */
+  private Index[] sources;
+  /** Origin count. */
+  private int origins;
+
+  /** Makes an instance of the given cuesheet. */
+  protected FrameTable(CueSheet sheet) {
+    this.sheet = sheet;
+    List<Track> tracks = sheet.getSession().getTracks();
+    this.tracks = tracks.toArray(new Track[0]);
+    this.pregaps = new int[this.tracks.length];
+    this.postgaps = new int[this.tracks.length];
+    int count = 0;
+    for (Track track : this.tracks) {
+      count += track.getIndexes().size();
+    }
+    Columns columns = this.columns = new Columns(this.tracks.length, count);
+    this.paths = new String[count];
+    this.types = new String[count];
+    this.sources = new Index[count];
+    int i = 0;
+    for (int t = 0; t < this.tracks.length; t++) {
+      Track track = this.tracks[t];
+      columns.starts[t] = i;
+      this.pregaps[t] = track.getPregap();
+      this.postgaps[t] = track.getPostgap();
+      for (Index index : track.getIndexes()) {
+        columns.numbers[i] = index.getNumber();
+        columns.frames[i] = index.getFrame();
+        columns.origins[i] = i;
+        this.paths[i] = index.getFilePath();
+        this.types[i] = index.getFileType();
+        this.sources[i++] = index;
+      }
+    }
+    columns.starts[this.tracks.length] = columns.count = this.origins = i;
+  }
+
+  /** Returns its source cuesheet. */
+  public CueSheet getSheet() {
+    return this.sheet;
+  }
+
+  /** Returns its track count. */
+  public int getTrackCount() {
+    return this.tracks.length;
+  }
+
+  /** Returns its index count. */
+  public int getIndexCount() {
+    return this.columns.count;
+  }
+
+  /**
+   * Returns the position of the first index of the given track, or the index
+   * count for the track count.
+   */
+  public int getStart(int track) {
+    return this.columns.starts[track];
+  }
+
+  /** Returns the PREGAP column. */
+  public int[] getPregaps() {
+    return this.pregaps;
+  }
+
+  /** Returns the POSTGAP column. */
+  public int[] getPostgaps() {
+    return this.postgaps;
+  }
+
+  /**
+   * Returns the index number column. It is valid until a rewrite is
+   * committed.
+   */
+  public int[] getNumbers() {
+    return this.columns.numbers;
+  }
+
+  /**
+   * Returns the index frame column. It is valid until a rewrite is
+   * committed.
+   */
+  public int[] getFrames() {
+    return this.columns.frames;
+  }
+
+  /** Returns the FILE path of the index at the given position, or null. */
+  public String getPath(int index) {
+    return this.paths[this.columns.origins[index]];
+  }
+
+  /** Returns the FILE type of the index at the given position, or null. */
+  public String getType(int index) {
+    return this.types[this.columns.origins[index]];
+  }
+
+  /** Sets the FILE of the index at the given position, or unsets it. */
+  public void setFile(int index, String path, String type) {
+    int origin = this.columns.origins[index];
+    this.paths[origin] = path;
+    this.types[origin] = type;
+  }
+
+  /**
+   * Begins rewriting its indexes, unless it is being rewritten. Tracks are
+   * then rewritten in order by keeping and adding indexes, and ending each,
+   * until committed. Columns are read from it as they were until then.
+   */
+  public void rewrite() {
+    if (this.rewrite == null) {
+      this.rewrite = new Columns(this.tracks.length, this.columns.count);
+    } else if (this.rewritten >= 0) {
+      return;
+    }
+    this.rewrite.count = 0;
+    this.rewritten = 0;
+  }
+
+  /**
+   * Keeps the indexes of the tracks not yet rewritten before the given one.
+   */
+  public void keepUntil(int track) {
+    if (this.rewritten >= track) {
+      return;
+    }
+    int[] starts = this.columns.starts, into = this.rewrite.starts;
+    int offset = this.rewrite.count - starts[this.rewritten];
+    keep(starts[this.rewritten], starts[track]);
+    while (this.rewritten < track) {
+      this.rewritten++;
+      into[this.rewritten] = starts[this.rewritten] + offset;
+    }
+  }
+
+  /** Keeps the indexes from the first until the second given position. */
+  public void keep(int from, int to) {
+    Columns in = this.columns, out = this.rewrite;
+    int length = to - from;
+    out.ensure(out.count + length);
+    System.arraycopy(in.numbers, from, out.numbers, out.count, length);
+    System.arraycopy(in.frames, from, out.frames, out.count, length);
+    System.arraycopy(in.origins, from, out.origins, out.count, length);
+    out.count += length;
+  }
+
+  /** Adds an index of the given number, frame and FILE, which may be null. */
+  public void add(int number, int frame, String path, String type) {
+    Columns out = this.rewrite;
+    out.ensure(out.count + 1);
+    if (this.origins == this.paths.length) {
+      int capacity = Math.max(this.origins << 1, 8);
+      this.paths = Arrays.copyOf(this.paths, capacity);
+      this.types = Arrays.copyOf(this.types, capacity);
+      this.sources = Arrays.copyOf(this.sources, capacity);
+    }
+    this.paths[this.origins] = path;
+    this.types[this.origins] = type;
+    out.numbers[out.count] = number;
+    out.frames[out.count] = frame;
+    out.origins[out.count++] = this.origins++;
+  }
+
+  /** Ends the track being rewritten. */
+  public void endTrack() {
+    this.rewrite.starts[++this.rewritten] = this.rewrite.count;
+  }
+
+  /**
+   * Commits the rewrite, if any, keeping the indexes of the tracks not yet
+   * rewritten.
+   */
+  public void commit() {
+    if (this.rewritten < 0) {
+      return;
+    }
+    keepUntil(this.tracks.length);
+    this.rewritten = -1;
+    Columns columns = this.columns;
+    this.columns = this.rewrite;
+    this.rewrite = columns;
+  }
+
+  /** Applies itself to its source cuesheet. */
+  public void apply() {
+    Columns columns = this.columns;
+    for (int t = 0; t < this.tracks.length; t++) {
+      Track track = this.tracks[t];
+      track.setPregap(this.pregaps[t]);
+      track.setPostgap(this.postgaps[t]);
+      List<Index> indexes = track.getIndexes();
+      int start = columns.starts[t], end = columns.starts[t + 1];
+      boolean same = indexes.size() == end - start;
+      for (int i = start; i < end; i++) {
+        int origin = columns.origins[i];
+        Index index = this.sources[origin];
+        if (index == null) {
+          index =
+            this.sources[origin] =
+              new Index(columns.numbers[i], columns.frames[i]);
+        } else {
+          index.setNumber(columns.numbers[i]);
+          index.setFrame(columns.frames[i]);
+        }
+        index.setFile(this.paths[origin], this.types[origin]);
+        same = same && indexes.get(i - start) == index;
+      }
+      if (!same) {
+        indexes.clear();
+        for (int i = start; i < end; i++) {
+          indexes.add(this.sources[columns.origins[i]]);
+        }
+      }
+    }
+  }
+
+  /** Index columns. */
+  private static class Columns {
+
+    /** Index starts by track, and the index count last. */
+    int[] starts;
+    /** Index numbers. */
+    int[] numbers;
+    /** Index frames. */
+    int[] frames;
+    /** Index origins. */
+    int[] origins;
+    /** Index count. */
+    int count;
+
+    /** Makes an instance for the given track and index counts. */
+    Columns(int tracks, int count) {
+      this.starts = new int[tracks + 1];
+      this.numbers = new int[count];
+      this.frames = new int[count];
+      this.origins = new int[count];
+    }
+
+    /** Ensures room for the given number of indexes. */
+    void ensure(int count) {
+      if (count > this.numbers.length) {
+        int capacity = Math.max(this.numbers.length << 1, count);
+        this.numbers = Arrays.copyOf(this.numbers, capacity);
+        this.frames = Arrays.copyOf(this.frames, capacity);
+        this.origins = Arrays.copyOf(this.origins, capacity);
+      }
+    }
+  }
+}
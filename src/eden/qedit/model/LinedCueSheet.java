@@ -0,0 +1,68 @@
+package eden.qedit.model;
+
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Session;
+import eden.common.model.plaintext.PlainText;
+import java.util.Arrays;
+
+/**
+ * A cuesheet that knows the source lines of its statements, as parsed from
+ * text. Statements are tracks and indexes by identity, and session fields by
+ * their {@code Field}. Lines are looked up from where the last was found, so
+ * that looking them up in sheet order costs little. It is not thread-safe.
+ *
+ * @author Brendon
+ */
+public class LinedCueSheet extends CueSheet {
+
+  /** Line of unknown statements. */
+  public static final long UNKNOWN = 0;
+
+  /** Returns the line of the given statement in the given cuesheet. */
+  public static long getLine(CueSheet sheet, Object statement) {
+    return sheet instanceof LinedCueSheet
+      ? ((LinedCueSheet) sheet).getLine(statement)
+      : UNKNOWN;
+  }
+
+  /** Statements in source order. */
+  private Object[] statements = new Object[16];
+  /** Lines by statement. */
+  private long[] lines = new long[16];
+  /** Statement count. */
+  private int count = 0;
+  /** Position after the last statement found. */
+  private int cursor = 0;
+
+  /** Makes an instance with the given session and file. */
+  public LinedCueSheet(Session session, PlainText file) {
+    super(session, file);
+  }
+
+  /** Sets the line of the given statement. */
+  public void setLine(Object statement, long line) {
+    if (this.count == this.statements.length) {
+      this.statements = Arrays.copyOf(this.statements, this.count << 1);
+      this.lines = Arrays.copyOf(this.lines, this.count << 1);
+    }
+    this.statements[this.count] = statement;
+    this.lines[this.count++] = line;
+  }
+
+  /** Returns the line of the given statement, or {@code UNKNOWN}. */
+  public long getLine(Object statement) {
+    for (int i = this.cursor; i < this.count; i++) {
+      if (this.statements[i] == statement) {
+        this.cursor = i + 1;
+        return this.lines[i];
+      }
+    }
+    for (int i = 0; i < this.cursor; i++) {
+      if (this.statements[i] == statement) {
+        this.cursor = i + 1;
+        return this.lines[i];
+      }
+    }
+    return UNKNOWN;
+  }
+}
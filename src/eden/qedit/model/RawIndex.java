@@ -0,0 +1,75 @@
+package eden.qedit.model;
+
+import eden.common.model.cd.Index;
+import eden.qedit.action.Field;
+import java.util.Deque;
+
+/**
+ * An Index whose REMs may be kept raw.
+ *
+ * @author Brendon
+ */
+public class RawIndex extends Index implements RawObject {
+
+  /** Raw text. */
+  private final RawText text;
+  /** Raw slices of its REMs. */
+  private long[] rems;
+  /** Number of its raw REMs. */
+  private int remCount;
+
+  /** Makes an instance with the given number, frame and raw text. */
+  public RawIndex(int number, int frame, RawText text) {
+    super(number, frame);
+    this.text = text;
+  }
+
+  /** Adds a REM of the given raw slice. */
+  public void addRawRem(long slice) {
+    this.rems = RawText.add(this.rems, this.remCount++, slice);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public RawText getText() {
+    return this.text;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getRaw(Field field) {
+    return RawText.NONE;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public int getRawRemCount() {
+    return this.remCount;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getRawRem(int index) {
+    return this.rems[index];
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Deque<String> getRems() {
+    Deque<String> out = super.getRems();
+    if (this.remCount > 0) {
+      for (int i = 0; i < this.remCount; i++) {
+        out.add(this.text.decode(this.rems[i]));
+      }
+      this.rems = null;
+      this.remCount = 0;
+    }
+    return out;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean hasRems() {
+    return this.remCount > 0 || super.hasRems();
+  }
+}
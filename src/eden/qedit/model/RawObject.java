@@ -0,0 +1,25 @@
+package eden.qedit.model;
+
+import eden.qedit.action.Field;
+
+/**
+ * A RawObject is a cuesheet object whose values may be kept as raw text until
+ * they are read. Its getters decode them and its setters discard them, so that
+ * it works as its superclass does. Serializers may write them through instead.
+ *
+ * @author Brendon
+ * @see RawText
+ */
+public interface RawObject {
+  /** Returns its raw text. */
+  RawText getText();
+
+  /** Returns the raw slice of the given field, or none. */
+  long getRaw(Field field);
+
+  /** Returns the number of its raw REMs, which is 0 once they are read. */
+  int getRawRemCount();
+
+  /** Returns the raw slice of its REM at the given position. */
+  long getRawRem(int index);
+}
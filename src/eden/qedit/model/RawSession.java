@@ -0,0 +1,235 @@
+package eden.qedit.model;
+
+import eden.common.model.cd.Session;
+import eden.qedit.action.Field;
+import java.util.Deque;
+
+/**
+ * A Session whose CATALOG, CDTEXTFILE, CD-Text and REMs may be kept raw.
+ *
+ * @author Brendon
+ */
+public class RawSession extends Session implements RawObject {
+
+  /** Raw text. */
+  private final RawText text;
+  /** Raw slice of its CATALOG, or none. */
+  private long catalog = RawText.NONE;
+  /** Raw slice of its CDTEXTFILE, or none. */
+  private long cdTextFile = RawText.NONE;
+  /** Raw slice of its PERFORMER, or none. */
+  private long performer = RawText.NONE;
+  /** Raw slice of its SONGWRITER, or none. */
+  private long songwriter = RawText.NONE;
+  /** Raw slice of its TITLE, or none. */
+  private long title = RawText.NONE;
+  /** Raw slices of its REMs. */
+  private long[] rems;
+  /** Number of its raw REMs. */
+  private int remCount;
+
+  /** Makes an instance with the given raw text. */
+  public RawSession(RawText text) {
+    this.text = text;
+  }
+
+  /** Sets the raw slice of the given field. */
+  public void setRaw(Field field, long slice) {
+    switch (field) {
+      case CATALOG:
+        this.catalog = slice;
+        break;
+      case CDTEXTFILE:
+        this.cdTextFile = slice;
+        break;
+      case SESSION_PERFORMER:
+        this.performer = slice;
+        break;
+      case SESSION_SONGWRITER:
+        this.songwriter = slice;
+        break;
+      case SESSION_TITLE:
+        this.title = slice;
+        break;
+      default:
+        throw new IllegalArgumentException(field.toString());
+    }
+  }
+
+  /** Adds a REM of the given raw slice. */
+  public void addRawRem(long slice) {
+    this.rems = RawText.add(this.rems, this.remCount++, slice);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public RawText getText() {
+    return this.text;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getRaw(Field field) {
+    switch (field) {
+      case CATALOG:
+        return this.catalog;
+      case CDTEXTFILE:
+        return this.cdTextFile;
+      case SESSION_PERFORMER:
+        return this.performer;
+      case SESSION_SONGWRITER:
+        return this.songwriter;
+      case SESSION_TITLE:
+        return this.title;
+      default:
+        return RawText.NONE;
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public int getRawRemCount() {
+    return this.remCount;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getRawRem(int index) {
+    return this.rems[index];
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Deque<String> getRems() {
+    Deque<String> out = super.getRems();
+    if (this.remCount > 0) {
+      for (int i = 0; i < this.remCount; i++) {
+        out.add(this.text.decode(this.rems[i]));
+      }
+      this.rems = null;
+      this.remCount = 0;
+    }
+    return out;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean hasRems() {
+    return this.remCount > 0 || super.hasRems();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String getCatalog() {
+    if (this.catalog != RawText.NONE) {
+      super.setCatalog(this.text.decode(this.catalog));
+      this.catalog = RawText.NONE;
+    }
+    return super.getCatalog();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void setCatalog(String catalog) {
+    this.catalog = RawText.NONE;
+    super.setCatalog(catalog);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean hasCatalog() {
+    return this.catalog != RawText.NONE || super.hasCatalog();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String getCdTextFile() {
+    if (this.cdTextFile != RawText.NONE) {
+      super.setCdTextFile(this.text.decode(this.cdTextFile));
+      this.cdTextFile = RawText.NONE;
+    }
+    return super.getCdTextFile();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void setCdTextFile(String cdTextFile) {
+    this.cdTextFile = RawText.NONE;
+    super.setCdTextFile(cdTextFile);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean hasCdTextFile() {
+    return this.cdTextFile != RawText.NONE || super.hasCdTextFile();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String getPerformer() {
+    if (this.performer != RawText.NONE) {
+      super.setPerformer(this.text.decode(this.performer));
+      this.performer = RawText.NONE;
+    }
+    return super.getPerformer();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void setPerformer(String performer) {
+    this.performer = RawText.NONE;
+    super.setPerformer(performer);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean hasPerformer() {
+    return this.performer != RawText.NONE || super.hasPerformer();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String getSongwriter() {
+    if (this.songwriter != RawText.NONE) {
+      super.setSongwriter(this.text.decode(this.songwriter));
+      this.songwriter = RawText.NONE;
+    }
+    return super.getSongwriter();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void setSongwriter(String songwriter) {
+    this.songwriter = RawText.NONE;
+    super.setSongwriter(songwriter);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean hasSongwriter() {
+    return this.songwriter != RawText.NONE || super.hasSongwriter();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String getTitle() {
+    if (this.title != RawText.NONE) {
+      super.setTitle(this.text.decode(this.title));
+      this.title = RawText.NONE;
+    }
+    return super.getTitle();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void setTitle(String title) {
+    this.title = RawText.NONE;
+    super.setTitle(title);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean hasTitle() {
+    return this.title != RawText.NONE || super.hasTitle();
+  }
+}
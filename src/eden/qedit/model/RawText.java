@@ -0,0 +1,132 @@
+package eden.qedit.model;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Raw values of a cuesheet as UTF-8 byte slices of one buffer. A slice is
+ * packed into a long: its offset in the high half and its length in the low
+ * half. Values are decoded only when read, so that those that are only written
+ * through cost no strings.
+ *
+ * @author Brendon
+ * @see RawObject
+ */
+public class RawText {
+
+  /** Slice of no value. */
+  public static final long NONE = -1;
+
+  /**
+   * Returns whether the given bytes match {@code ^".*"$}, as a decoded string
+   * would.
+   */
+  public static boolean isEnclosed(byte[] bytes, int offset, int length) {
+    int last = offset + length - 1;
+    if (length < 2 || bytes[offset] != '"' || bytes[last] != '"') {
+      return false;
+    }
+    for (int i = offset + 1; i < last; i++) {
+      // U+0085, U+2028 and U+2029 end lines as do CR and LF.
+      if (
+        (
+          i + 1 < last &&
+          bytes[i] == (byte) 0xC2 &&
+          bytes[i + 1] == (byte) 0x85
+        ) ||
+        (
+          i + 2 < last &&
+          bytes[i] == (byte) 0xE2 &&
+          bytes[i + 1] == (byte) 0x80 &&
+          (bytes[i + 2] == (byte) 0xA8 || bytes[i + 2] == (byte) 0xA9)
+        )
+      ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the given slices with the given one put at the given count,
+   * growing them if needed.
+   */
+  static long[] add(long[] slices, int count, long slice) {
+    if (slices == null) {
+      slices = new long[4];
+    } else if (count == slices.length) {
+      slices = Arrays.copyOf(slices, count << 1);
+    }
+    slices[count] = slice;
+    return slices;
+  }
+
+  /** Returns the offset of the given slice. */
+  private static int offset(long slice) {
+    return (int) (slice >>> 32);
+  }
+
+  /** Returns the length of the given slice. */
+  private static int length(long slice) {
+    return (int) slice;
+  }
+
+  /** Buffer. */
+  private byte[] bytes;
+  /** Length used. */
+  private int length;
+
+  /** Makes an instance with the given initial capacity. */
+  public RawText(int capacity) {
+    this.bytes = new byte[Math.max(capacity, 16)];
+  }
+
+  /** Adds a copy of the given bytes and returns its slice. */
+  public long add(byte[] source, int offset, int length) {
+    if (this.length + length > this.bytes.length) {
+      byte[] bytes = new byte[Math.max(
+        this.bytes.length << 1,
+        this.length + length
+      )];
+      System.arraycopy(this.bytes, 0, bytes, 0, this.length);
+      this.bytes = bytes;
+    }
+    System.arraycopy(source, offset, this.bytes, this.length, length);
+    long out = (long) this.length << 32 | length;
+    this.length += length;
+    return out;
+  }
+
+  /** Returns the value of the given slice, or null for none. */
+  public String decode(long slice) {
+    return slice == NONE
+      ? null
+      : new String(this.bytes, offset(slice), length(slice), UTF_8);
+  }
+
+  /** Returns whether the value of the given slice matches {@code ^".*"$}. */
+  public boolean isEnclosed(long slice) {
+    return (
+      slice != NONE && isEnclosed(this.bytes, offset(slice), length(slice))
+    );
+  }
+
+  /** Writes the value of the given slice to the given appendable, if any. */
+  public void append(Appendable out, long slice) throws IOException {
+    if (slice == NONE) {
+      return;
+    }
+    int offset = offset(slice), end = offset + length(slice);
+    for (int i = offset; i < end; i++) {
+      if (this.bytes[i] < 0) {
+        out.append(decode(slice));
+        return;
+      }
+    }
+    for (int i = offset; i < end; i++) {
+      out.append((char) this.bytes[i]);
+    }
+  }
+}
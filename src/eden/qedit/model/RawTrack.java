@@ -0,0 +1,245 @@
+package eden.qedit.model;
+
+import eden.common.model.cd.Track;
+import eden.qedit.action.Field;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A Track whose FLAGS, ISRC, CD-Text and REMs may be kept raw. Raw FLAGS are
+ * kept with single spaces between them.
+ *
+ * @author Brendon
+ */
+public class RawTrack extends Track implements RawObject {
+
+  /** Raw text. */
+  private final RawText text;
+  /** Raw slice of its FLAGS, or none. */
+  private long flags = RawText.NONE;
+  /** Raw slice of its ISRC, or none. */
+  private long isrc = RawText.NONE;
+  /** Raw slice of its PERFORMER, or none. */
+  private long performer = RawText.NONE;
+  /** Raw slice of its SONGWRITER, or none. */
+  private long songwriter = RawText.NONE;
+  /** Raw slice of its TITLE, or none. */
+  private long title = RawText.NONE;
+  /** Raw slices of its REMs. */
+  private long[] rems;
+  /** Number of its raw REMs. */
+  private int remCount;
+
+  /** Makes an instance with the given number, type and raw text. */
+  public RawTrack(int number, String type, RawText text) {
+    super(number, type);
+    this.text = text;
+  }
+
+  /**
+   * Sets the raw slice of the given field. FLAGS are added to any that it has.
+   */
+  public void setRaw(Field field, long slice) {
+    switch (field) {
+      case FLAGS:
+        if (this.flags == RawText.NONE && super.getFlags().isEmpty()) {
+          this.flags = slice;
+        } else {
+          addFlags(getFlags(), this.text.decode(slice));
+        }
+        break;
+      case ISRC:
+        this.isrc = slice;
+        break;
+      case TRACK_PERFORMER:
+        this.performer = slice;
+        break;
+      case TRACK_SONGWRITER:
+        this.songwriter = slice;
+        break;
+      case TRACK_TITLE:
+        this.title = slice;
+        break;
+      default:
+        throw new IllegalArgumentException(field.toString());
+    }
+  }
+
+  /** Adds the given space-separated flags to the given list. */
+  private static void addFlags(List<String> list, String flags) {
+    for (String flag : flags.split(" ")) {
+      list.add(flag);
+    }
+  }
+
+  /** Adds a REM of the given raw slice. */
+  public void addRawRem(long slice) {
+    this.rems = RawText.add(this.rems, this.remCount++, slice);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public RawText getText() {
+    return this.text;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getRaw(Field field) {
+    switch (field) {
+      case FLAGS:
+        return this.flags;
+      case ISRC:
+        return this.isrc;
+      case TRACK_PERFORMER:
+        return this.performer;
+      case TRACK_SONGWRITER:
+        return this.songwriter;
+      case TRACK_TITLE:
+        return this.title;
+      default:
+        return RawText.NONE;
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public int getRawRemCount() {
+    return this.remCount;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getRawRem(int index) {
+    return this.rems[index];
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Deque<String> getRems() {
+    Deque<String> out = super.getRems();
+    if (this.remCount > 0) {
+      for (int i = 0; i < this.remCount; i++) {
+        out.add(this.text.decode(this.rems[i]));
+      }
+      this.rems = null;
+      this.remCount = 0;
+    }
+    return out;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean hasRems() {
+    return this.remCount > 0 || super.hasRems();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public List<String> getFlags() {
+    List<String> out = super.getFlags();
+    if (this.flags != RawText.NONE) {
+      addFlags(out, this.text.decode(this.flags));
+      this.flags = RawText.NONE;
+    }
+    return out;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean hasFlags() {
+    return this.flags != RawText.NONE || super.hasFlags();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String getIsrc() {
+    if (this.isrc != RawText.NONE) {
+      super.setIsrc(this.text.decode(this.isrc));
+      this.isrc = RawText.NONE;
+    }
+    return super.getIsrc();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void setIsrc(String isrc) {
+    this.isrc = RawText.NONE;
+    super.setIsrc(isrc);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean hasIsrc() {
+    return this.isrc != RawText.NONE || super.hasIsrc();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String getPerformer() {
+    if (this.performer != RawText.NONE) {
+      super.setPerformer(this.text.decode(this.performer));
+      this.performer = RawText.NONE;
+    }
+    return super.getPerformer();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void setPerformer(String performer) {
+    this.performer = RawText.NONE;
+    super.setPerformer(performer);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean hasPerformer() {
+    return this.performer != RawText.NONE || super.hasPerformer();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String getSongwriter() {
+    if (this.songwriter != RawText.NONE) {
+      super.setSongwriter(this.text.decode(this.songwriter));
+      this.songwriter = RawText.NONE;
+    }
+    return super.getSongwriter();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void setSongwriter(String songwriter) {
+    this.songwriter = RawText.NONE;
+    super.setSongwriter(songwriter);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean hasSongwriter() {
+    return this.songwriter != RawText.NONE || super.hasSongwriter();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String getTitle() {
+    if (this.title != RawText.NONE) {
+      super.setTitle(this.text.decode(this.title));
+      this.title = RawText.NONE;
+    }
+    return super.getTitle();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void setTitle(String title) {
+    this.title = RawText.NONE;
+    super.setTitle(title);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean hasTitle() {
+    return this.title != RawText.NONE || super.hasTitle();
+  }
+}
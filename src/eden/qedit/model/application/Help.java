@@ -9,17 +9,60 @@ public final class Help {
 
   /** Program usage syntax. */
   public static final String USAGE =
-    "Usage: [<action>]... (print|write <path>) <file>";
+    "Usage: [<action>]... (print|write <path>|convert <path>) <file>...";
   /** Explanation to syntax. */
   public static final String EXPLANATION =
     "Where:\n" +
     "  print                  Print to the standard output.\n" +
-    "  write <path>           Write to the given path.\n" +
+    "  write <path>           Write to the given path. It may contain `{dir}`,\n" +
+    "                         `{file}`, `{name}` and `{ext}` which are replaced\n" +
+    "                         by those of the input file, as is needed for\n" +
+    "                         multiple files. Outputs are in the charset of the\n" +
+    "                         input file, which is told from its bytes among\n" +
+    "                         UTF-8, UTF-16, Shift_JIS and Latin-1. Files that\n" +
+    "                         have the output already are not rewritten.\n" +
+    "  convert <path>         Write to the given path in the binary format. It may\n" +
+    "                         contain the placeholders of `write`.\n" +
+    "  <file>                 Cuesheet to edit, or glob pattern of them. Those in\n" +
+    "                         the binary format are read as cuesheets. `-` reads\n" +
+    "                         the standard input, prints to the standard output\n" +
+    "                         unless given another output or `check`, and\n" +
+    "                         prints messages to the standard error. Paths\n" +
+    "                         into ZIP archives, such as `album.zip!/a.cue`,\n" +
+    "                         are read and written without extracting them.\n" +
+    "                         Archives written into are rewritten once at the\n" +
+    "                         end.\n" +
     "\n" +
     "Actions:\n" +
     "  check                  Check for errors and print them to the standard output.\n" +
-    "  index-to-pregap        Move INDEX 00 to PREGAP.\n" +
+    "                         INDEXes are checked against the lengths of their\n" +
+    "                         WAVE, AIFF, BINARY and MOTOROLA files. Errors tell\n" +
+    "                         their lines, also of cached cuesheets.\n" +
+    "  checksum               Print the CRC32 and AccurateRip v1 and v2 checksums\n" +
+    "                         of the audio of each track to the standard output.\n" +
+    "                         Tracks run from INDEX 01 to the next, also across\n" +
+    "                         files, which are to be CD-DA WAVE or BINARY. They\n" +
+    "                         are summed in parallel.\n" +
+    "  checksum-rem           Set them as track REMs CRC32, ACCURATERIP_V1 and\n" +
+    "                         ACCURATERIP_V2, replacing those of previous runs.\n" +
+    "  extract-tracks <dir>   Split the single WAVE or BINARY image into a file\n" +
+    "                         per track in the given directory, which may\n" +
+    "                         contain the placeholders of `write`, along with a\n" +
+    "                         cuesheet of them named `<name>.tracks.cue` after\n" +
+    "                         the input. Tracks run from INDEX 01 to the next,\n" +
+    "                         and are copied in parallel by the system.\n" +
+    "  index-to-pregap        Move INDEX 00 to PREGAP, also across files of known\n" +
+    "                         lengths.\n" +
     "  pregap-to-index        Move PREGAP to INDEX 00.\n" +
+    "  merge                  Merge all files in order into one cuesheet before\n" +
+    "                         the other actions, whose outputs are as of the\n" +
+    "                         first file. Tracks are renumbered, up to 99 in all.\n" +
+    "  merge-image <file>     Merge as `merge` into one cuesheet of the given\n" +
+    "                         image of the referenced files joined in order.\n" +
+    "                         INDEXes are moved by the lengths of the files\n" +
+    "                         before theirs, which are probed from WAVE and AIFF\n" +
+    "                         headers or BINARY sizes and must be of whole CD\n" +
+    "                         frames.\n" +
     "  no-catalog             Erase the session CATALOG.\n" +
     "  no-cdtext              Erase all CD-Text.\n" +
     "  no-isrc                Erase all ISRCs.\n" +
@@ -35,6 +78,7 @@ public final class Help {
     "  no-title               Erase all TITLEs.\n" +
     "  no-session-title       Erase the session TITLE.\n" +
     "  no-track-title         Erase track TITLEs.\n" +
+    "  set-charset <charset>  Set charset to the given, in which to write.\n" +
     "  set-eol {CRLF|LF|CR}   Set line ending to the given.\n" +
     "  set-perfomer           Set all PERFORMERs to the given.\n" +
     "  set-session-perfomer   Set the session PERFORMER to the given.\n" +
@@ -51,9 +95,56 @@ public final class Help {
     "                         or `0` to use that of the absolute-first INDEX.\n" +
     "  swap-authors           Swap all SONGWRITERs and PERFORMERs.\n" +
     "\n" +
-    "Actions are case-insensitive. Any failed action halts the program.\n" +
+    "Actions are case-insensitive. Any failed action halts the file it works on.\n" +
+    "Multiple files are summarized on completion.\n" +
+    "\n" +
+    "Parsed cuesheets are cached by path, size and modification time, so that\n" +
+    "unchanged ones are not parsed again. A single file is parsed without the\n" +
+    "cache, unless `--cache` is given.\n" +
+    "\n" +
+    "Actions are planned before they run: those whose changes are never seen are\n" +
+    "dropped, consecutive `shift-times` are merged where the outcome is the same.\n" +
     "\n" +
     "Program Arguments:\n" +
+    "  --cache <path>        Cache parsed cuesheets in the given file instead of\n" +
+    "                        `$XDG_CACHE_HOME/qedit/sheets.cache`.\n" +
+    "  --columnar            Run consecutive time code actions over columnar\n" +
+    "                        frame tables.\n" +
+    "  --documents <format>  Read many cuesheets from the standard input and print\n" +
+    "                        their outputs in the given format as they are\n" +
+    "                        done: `nul` for each ended by a NUL byte, or\n" +
+    "                        `length` for each after its length in bytes and a\n" +
+    "                        line feed.\n" +
+    "  --explain             Print the planned actions and exit.\n" +
+    "  --files-from <path>   Read input paths from the given, one per line, or\n" +
+    "                        `-` for the standard input.\n" +
+    "  -j, --jobs <count>    Process the given number of files in parallel, or `0`\n" +
+    "                        for one per processor. Output remains in order.\n" +
+    "  --jfr                 Emit Java Flight Recorder events of parsing, actions\n" +
+    "                        and writing, for recordings started with\n" +
+    "                        `-XX:StartFlightRecording`. Needs Java 11.\n" +
+    "  --lazy                Parse only the fields that the actions use, and\n" +
+    "                        write the others through as they are. Parses\n" +
+    "                        without the cache.\n" +
+    "  --max-errors <count>  Stop checking a cuesheet after the given number of\n" +
+    "                        errors, or `0` for no limit. Defaults to 0.\n" +
+    "  --no-cache            Parse all cuesheets without the cache.\n" +
+    "  --probe-jobs <count>  List the given number of directories in parallel for\n" +
+    "                        `check`, or `0` for one per processor. Defaults to 4.\n" +
+    "  --stats <path>        Write run statistics as JSON to the given, or `-` for\n" +
+    "                        the standard error: wall time and allocated bytes\n" +
+    "                        by phase, and by file for reading and each action\n" +
+    "                        with p50, p95 and p99; bytes read and written; and\n" +
+    "                        tracks and indexes.\n" +
+    "  --sync-group <count>  In batch, commit written files in groups of the given\n" +
+    "                        count or within a second, syncing each directory\n" +
+    "                        once; `1` to commit each, `0` to not sync. Files\n" +
+    "                        are written to temporary files and moved into\n" +
+    "                        place. Defaults to 64.\n" +
+    "  --watch <dir>         After any given files, watch the given directory tree\n" +
+    "                        and run the actions on `.cue` files as they are\n" +
+    "                        created or modified, until interrupted. Files whose\n" +
+    "                        content is unchanged are skipped.\n" +
     "  -h, --help            Display this help message.\n" +
     "  --                    Stop parsing options.\n";
 
@@ -0,0 +1,123 @@
+package eden.qedit.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+
+/**
+ * Accumulates the checksums of the audio of a track, given in order as CD-DA
+ * samples of 16-bit stereo in little-endian order:
+ *
+ * - CRC32: of all its bytes, as the copy CRCs of rippers.
+ *
+ * - AccurateRip v1 and v2: the sums of each sample as an unsigned 32-bit
+ * integer times its position in the track from 1. The first sums the lower 32
+ * bits of the products, the second both halves. The first track of a disc
+ * skips its first five sectors less one sample, and the last track its last
+ * five sectors, which drives can not read reliably.
+ *
+ * It is not thread-safe.
+ *
+ * @author Brendon
+ */
+public class AudioChecksum {
+
+  /** Number of samples in a CD frame. */
+  public static final int SAMPLES_PER_FRAME = 588;
+  /** Number of bytes in a sample. */
+  public static final int SAMPLE_SIZE = 4;
+  /** Number of samples skipped at the edges of a disc. */
+  protected static final int SKIPPED = 5 * SAMPLES_PER_FRAME;
+  /** Number of bytes to sum at a time. */
+  protected static final int SLICE = 1 << 15;
+
+  /**
+   * Adds the AccurateRip products of the samples of the given buffer from the
+   * first until the second given position, the first of which is of the given
+   * multiplier, to the given sums of their lower and upper halves.
+   */
+  public static void accumulate(
+    ByteBuffer bytes,
+    int from,
+    int to,
+    long multiplier,
+    long[] sums
+  ) {
+    long low = 0, high = 0;
+    for (int i = from; i < to; i += SAMPLE_SIZE) {
+      long product = (bytes.getInt(i) & 0xffffffffL) * multiplier++;
+      low += product & 0xffffffffL;
+      high += product >>> 32;
+    }
+    sums[0] += low;
+    sums[1] += high;
+  }
+
+  /** CRC32. */
+  private final CRC32 crc = new CRC32();
+  /** AccurateRip sums of the lower and upper halves of the products. */
+  private final long[] sums = new long[2];
+  /** First multiplier to sum. */
+  private final long first;
+  /** Last multiplier to sum. */
+  private final long last;
+  /** Number of samples given. */
+  private long samples = 0;
+
+  /**
+   * Makes an instance for a track of the given number of samples, and whether
+   * it is the first and the last of its disc.
+   */
+  public AudioChecksum(long samples, boolean first, boolean last) {
+    this.first = first ? SKIPPED : 1;
+    this.last = last ? samples - SKIPPED : samples;
+  }
+
+  /**
+   * Accumulates the remaining samples of the given buffer. The buffer
+   * position is unchanged.
+   */
+  public void update(ByteBuffer bytes) {
+    ByteBuffer input = bytes.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    // Both sums go over a slice while it is in the cache.
+    for (int end = input.limit(); input.position() < end;) {
+      input.limit(Math.min(end, input.position() + SLICE));
+      int position = input.position();
+      int count = input.remaining() / SAMPLE_SIZE;
+      long multiplier = this.samples + 1;
+      long from = Math.max(this.first, multiplier);
+      long to = Math.min(this.last, multiplier + count - 1);
+      if (from <= to) {
+        accumulate(
+          input,
+          position + (int) (from - multiplier) * SAMPLE_SIZE,
+          position + (int) (to - multiplier + 1) * SAMPLE_SIZE,
+          from,
+          this.sums
+        );
+      }
+      this.crc.update(input);
+      this.samples += count;
+    }
+  }
+
+  /** Returns the number of samples given. */
+  public long getSamples() {
+    return this.samples;
+  }
+
+  /** Returns the CRC32. */
+  public int getCrc32() {
+    return (int) this.crc.getValue();
+  }
+
+  /** Returns the AccurateRip v1 checksum. */
+  public int getAccurateRipV1() {
+    return (int) this.sums[0];
+  }
+
+  /** Returns the AccurateRip v2 checksum. */
+  public int getAccurateRipV2() {
+    return (int) (this.sums[0] + this.sums[1]);
+  }
+}
@@ -0,0 +1,74 @@
+package eden.qedit.util;
+
+/**
+ * Profiling events of parsing, actions and writing. They are disabled unless
+ * enabled, in which case their implementation emits Java Flight Recorder
+ * events. Its classes are built separately for Java 11 and above, and loaded
+ * reflectively so that this application still runs on Java 8.
+ *
+ * Call sites get the instance and skip their events if it is null, so that
+ * disabled events cost one field read.
+ *
+ * @author Brendon
+ */
+public abstract class Events {
+
+  /** Implementing class name. */
+  public static final String IMPLEMENTATION = "eden.qedit.jfr.FlightEvents";
+  /** Enabled instance, or null if disabled. */
+  private static volatile Events instance = null;
+
+  /** Returns the enabled instance, or null if disabled. */
+  public static Events get() {
+    return instance;
+  }
+
+  /**
+   * Enables the events and returns true, or returns false if the
+   * implementation is not available.
+   */
+  public static boolean enable() {
+    try {
+      instance =
+        (Events) Class
+          .forName(IMPLEMENTATION)
+          .getDeclaredConstructor()
+          .newInstance();
+      return true;
+    } catch (ReflectiveOperationException | LinkageError exception) {
+      return false;
+    }
+  }
+
+  /** Begins and returns a parse event of the given path. */
+  public abstract Parse beginParse(String path);
+
+  /** Begins and returns an action event of the given action. */
+  public abstract Action beginAction(String action);
+
+  /** Begins and returns a write event of the given path. */
+  public abstract Write beginWrite(String path);
+
+  /** Parse event. */
+  public interface Parse {
+    /**
+     * Ends and commits itself with the given bytes, tracks and indexes read.
+     */
+    void commit(long bytes, int tracks, int indexes);
+  }
+
+  /** Action event. */
+  public interface Action {
+    /** Ends and commits itself with the given success. */
+    void commit(boolean success);
+  }
+
+  /** Write event. */
+  public interface Write {
+    /**
+     * Ends and commits itself with the given bytes written, and whether the
+     * file was skipped as unchanged.
+     */
+    void commit(long bytes, boolean unchanged);
+  }
+}
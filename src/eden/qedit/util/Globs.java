@@ -0,0 +1,64 @@
+package eden.qedit.util;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Glob pattern utilities.
+ *
+ * @author Brendon
+ */
+public class Globs {
+
+  /** Glob metacharacters. */
+  protected static final Pattern REGEX_META = Pattern.compile("[*?\\[{]");
+
+  /** Returns whether the given path is a glob pattern. */
+  public static boolean isGlob(String path) {
+    return REGEX_META.matcher(path).find();
+  }
+
+  /**
+   * Returns the regular files matched by the given glob pattern in path order.
+   * The walk starts from the longest directory prefix free of metacharacters.
+   */
+  public static List<Path> expand(String pattern) throws IOException {
+    Path path = Paths.get(pattern), base = path.getRoot();
+    int depth = path.getNameCount();
+    for (Path name : path) {
+      if (isGlob(name.toString())) {
+        break;
+      }
+      base = base == null ? name : base.resolve(name);
+      depth--;
+    }
+    boolean relative = base == null;
+    Path root = relative ? Paths.get(".") : base;
+    PathMatcher matcher = FileSystems
+      .getDefault()
+      .getPathMatcher("glob:" + path.toString());
+    try (
+      Stream<Path> stream = Files.walk(
+        root,
+        pattern.contains("**") ? Integer.MAX_VALUE : depth
+      )
+    ) {
+      return stream
+        .map(p -> relative ? root.relativize(p) : p)
+        .filter(p -> matcher.matches(p) && Files.isRegularFile(p))
+        .sorted()
+        .collect(Collectors.toList());
+    }
+  }
+
+  /** To prevent instantiations of this class. */
+  protected Globs() {}
+}
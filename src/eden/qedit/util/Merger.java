@@ -0,0 +1,227 @@
+package eden.qedit.util;
+
+import eden.common.excep.cd.FileIncompleteException;
+import eden.common.excep.cd.FrameMisnumberException;
+import eden.common.excep.cd.SessionOverflowException;
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Index;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+import eden.qedit.excep.FileLengthUnknownException;
+import eden.qedit.excep.FilePartialFrameException;
+import eden.qedit.io.FileProbe;
+import eden.qedit.io.MediaProbe;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Merges cuesheets in order into one with the file and session of the first.
+ * Tracks are renumbered from 1, up to 99 in all. Later tracks without a
+ * PERFORMER or SONGWRITER take that of their session if it differs from the
+ * merged one. FILE paths in other directories are made relative to that of
+ * the first cuesheet.
+ *
+ * With an image, the referenced files are taken to be joined in order into it.
+ * INDEXes are then rebased by the lengths of the files before theirs, which are
+ * probed from their headers only and must be of whole CD frames. The last file
+ * is never probed. It is thread-safe if its probe is.
+ *
+ * @author Brendon
+ */
+public class Merger {
+
+  /** Key. */
+  public static final String KEY = "merge";
+  /** Key to merge into an image. */
+  public static final String KEY_IMAGE = "merge-image";
+
+  /** Subject of session problems. */
+  protected static final String SESSION = "Merged session";
+
+  /**
+   * Returns the FILE type of the given image path by its extension: `WAVE`
+   * for lossless audio, `AIFF`, `MP3`, or `BINARY` for others.
+   */
+  public static String toFileType(String image) {
+    Path name = Paths.get(image).getFileName();
+    String string = name == null ? "" : name.toString();
+    int dot = string.lastIndexOf('.');
+    switch (dot < 0 ? "" : string.substring(dot + 1).toLowerCase(Locale.ROOT)) {
+      case "wav":
+      case "flac":
+      case "ape":
+      case "wv":
+        return "WAVE";
+      case "aif":
+      case "aiff":
+        return "AIFF";
+      case "mp3":
+        return "MP3";
+      default:
+        return "BINARY";
+    }
+  }
+
+  /** Media probe, or null. */
+  private final MediaProbe media;
+  /** Image path, or null to keep multiple files. */
+  private final String image;
+  /** Image type, or null. */
+  private final String type;
+
+  /** Makes an instance that keeps multiple files. */
+  public Merger() {
+    this(null, null);
+  }
+
+  /**
+   * Makes an instance that merges into the given image, or null to keep
+   * multiple files, probing file lengths with the given probe. Its type is
+   * that of its extension.
+   */
+  public Merger(MediaProbe media, String image) {
+    this.media = media;
+    this.image = image;
+    this.type = image == null ? null : toFileType(image);
+  }
+
+  /**
+   * Merges the given cuesheets, which are modified, and returns the result.
+   */
+  public CueSheet merge(List<CueSheet> sheets) {
+    CueSheet first = sheets.get(0);
+    Session session = first.getSession();
+    Path directory = getDirectory(first);
+    List<Track> tracks = new ArrayList<>();
+    Path current = null;
+    String currentType = null;
+    long offset = 0;
+    for (CueSheet sheet : sheets) {
+      Session from = sheet.getSession();
+      boolean relocate =
+        this.image == null && !getDirectory(sheet).equals(directory);
+      boolean hasFile = false;
+      for (Track track : from.getTracks()) {
+        tracks.add(track);
+        if (tracks.size() > Track.MAX_COUNT) {
+          throw new SessionOverflowException(SESSION);
+        }
+        track.setNumber(tracks.size());
+        if (from != session) {
+          inherit(track, from, session);
+        }
+        for (Index index : track.getIndexes()) {
+          if (index.hasFilePath()) {
+            hasFile = true;
+            if (this.image == null) {
+              if (relocate) {
+                index.setFilePath(
+                  relocate(sheet, index.getFilePath(), directory)
+                );
+              }
+              continue;
+            }
+            Path path = normalize(
+              FileProbe.resolve(sheet, index.getFilePath())
+            );
+            if (!path.equals(current)) {
+              if (current != null) {
+                offset += getFrames(current, currentType);
+              }
+              current = path;
+              currentType = index.getFileType();
+            }
+            index.unsetFile();
+          } else if (!hasFile) {
+            throw new FileIncompleteException(
+              track.getNumber(),
+              index.getNumber()
+            );
+          }
+          if (offset > 0) {
+            long frame = index.getFrame() + offset;
+            if (frame > Index.MAX_FRAME) {
+              throw new FrameMisnumberException(
+                track.getNumber(),
+                index.getNumber()
+              );
+            }
+            index.setFrame((int) frame);
+          }
+        }
+      }
+    }
+    if (
+      this.image != null && !tracks.isEmpty() && tracks.get(0).hasIndexes()
+    ) {
+      tracks.get(0).getIndexes().get(0).setFile(this.image, this.type);
+    }
+    session.getTracks().clear();
+    tracks.forEach(session::addTrack);
+    return new CueSheet(session, first.getFile());
+  }
+
+  /**
+   * Returns the length in CD frames of the given file of the given type.
+   *
+   * @throws FileLengthUnknownException If it is unknown.
+   * @throws FilePartialFrameException If it is not of whole CD frames.
+   */
+  private long getFrames(Path path, String type) {
+    long out = this.media.getFrames(path, type);
+    if (out == MediaProbe.UNKNOWN) {
+      throw new FileLengthUnknownException(path.toString());
+    }
+    if (!this.media.isWhole(path, type)) {
+      throw new FilePartialFrameException(path.toString());
+    }
+    return out;
+  }
+
+  /**
+   * Returns the given FILE path of the given cuesheet relative to the given
+   * directory, or absolute if it can not be.
+   */
+  private static String relocate(CueSheet sheet, String file, Path directory) {
+    Path path = normalize(FileProbe.resolve(sheet, file));
+    try {
+      return directory.relativize(path).toString();
+    } catch (IllegalArgumentException exception) {
+      return path.toString();
+    }
+  }
+
+  /**
+   * Gives the given track of the given session the PERFORMER and SONGWRITER
+   * of its session if it has none and they differ from the merged ones.
+   */
+  private static void inherit(Track track, Session from, Session session) {
+    if (
+      !track.hasPerformer() &&
+      from.hasPerformer() &&
+      !from.getPerformer().equals(session.getPerformer())
+    ) {
+      track.setPerformer(from.getPerformer());
+    }
+    if (
+      !track.hasSongwriter() &&
+      from.hasSongwriter() &&
+      !from.getSongwriter().equals(session.getSongwriter())
+    ) {
+      track.setSongwriter(from.getSongwriter());
+    }
+  }
+
+  /** Returns the directory of the file of the given cuesheet. */
+  private static Path getDirectory(CueSheet sheet) {
+    return normalize(FileProbe.resolve(sheet, "."));
+  }
+
+  /** Returns the given path absolute and normalized. */
+  private static Path normalize(Path path) {
+    return path.toAbsolutePath().normalize();
+  }
+}
@@ -0,0 +1,344 @@
+package eden.qedit.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Run statistics: wall time and allocated bytes by phase, and by file for
+ * reading and for each action, with bytes read and written and tracks and
+ * indexes processed. File figures are aggregated into totals and p50, p95
+ * and p99 percentiles. Instances may be shared among threads.
+ *
+ * Allocated bytes are those of the threads doing the work, or -1 where the
+ * JVM does not measure them.
+ *
+ * @author Brendon
+ */
+public class Stats {
+
+  /** Thread measurement bean. */
+  protected static final ThreadMXBean THREADS =
+    ManagementFactory.getThreadMXBean();
+  /** Whether allocated bytes are measured. */
+  protected static final boolean ALLOCATIONS = enableAllocations();
+  /** File samples by thread, while a job is on it. */
+  protected static final ThreadLocal<FileSample> CURRENT = new ThreadLocal<>();
+
+  /** Returns the bytes allocated by the current thread so far, or -1. */
+  public static long allocatedBytes() {
+    return ALLOCATIONS
+      ? ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(
+          Thread.currentThread().getId()
+        )
+      : -1;
+  }
+
+  /** Adds the given number of bytes read to the job on the current thread. */
+  public static void addRead(long bytes) {
+    FileSample sample = CURRENT.get();
+    if (sample != null) {
+      sample.bytesRead += bytes;
+    }
+  }
+
+  /**
+   * Adds the given number of bytes written to the job on the current thread.
+   */
+  public static void addWritten(long bytes) {
+    FileSample sample = CURRENT.get();
+    if (sample != null) {
+      sample.bytesWritten += bytes;
+    }
+  }
+
+  /** Enables measuring allocated bytes and returns whether they are. */
+  private static boolean enableAllocations() {
+    if (!(THREADS instanceof com.sun.management.ThreadMXBean)) {
+      return false;
+    }
+    com.sun.management.ThreadMXBean threads =
+      (com.sun.management.ThreadMXBean) THREADS;
+    try {
+      if (threads.isThreadAllocatedMemorySupported()) {
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return true;
+      }
+    } catch (LinkageError | RuntimeException exception) {}
+    return false;
+  }
+
+  /** Phase samples by name, in order. */
+  private final Map<String, long[]> phases = new LinkedHashMap<>();
+  /** File samples, in completion order. */
+  private final List<FileSample> files = new ArrayList<>();
+  /** Bytes allocated by jobs off the thread that records phases. */
+  private final AtomicLong offThread = new AtomicLong();
+  /** Thread that records phases. */
+  private final Thread thread = Thread.currentThread();
+  /** Start of the run in nanoseconds, from that of its first phase. */
+  private long start = System.nanoTime();
+
+  /**
+   * Records a phase of the given name, wall time in nanoseconds and bytes
+   * allocated by the recording thread. Those allocated by jobs on other
+   * threads since the last phase are added.
+   */
+  public synchronized void phase(String name, long nanos, long allocated) {
+    long offThread = this.offThread.getAndSet(0);
+    if (this.phases.isEmpty()) {
+      this.start = System.nanoTime() - nanos;
+    }
+    this.phases.put(
+        name,
+        new long[] { nanos, allocated < 0 ? -1 : allocated + offThread }
+      );
+  }
+
+  /** Begins and returns a sample of a file job on the current thread. */
+  public FileSample begin() {
+    FileSample out = new FileSample();
+    CURRENT.set(out);
+    return out;
+  }
+
+  /** Ends the given sample with the given success. */
+  public void end(FileSample sample, boolean success) {
+    CURRENT.remove();
+    sample.finish();
+    sample.success = success;
+    if (Thread.currentThread() != this.thread && sample.allocated >= 0) {
+      this.offThread.addAndGet(sample.allocated);
+    }
+    synchronized (this) {
+      this.files.add(sample);
+    }
+  }
+
+  /** Returns its statistics as a JSON object. */
+  public synchronized String toJson() {
+    StringBuilder out = new StringBuilder(1 << 10);
+    long failed = this.files.stream().filter(file -> !file.success).count();
+    out.append("{\n  \"wallNanos\": ").append(System.nanoTime() - this.start);
+    out.append(",\n  \"phases\": {");
+    String separator = "\n";
+    for (Map.Entry<String, long[]> phase : this.phases.entrySet()) {
+      out.append(separator).append("    ");
+      string(out, phase.getKey());
+      out
+        .append(": { \"nanos\": ")
+        .append(phase.getValue()[0])
+        .append(", \"allocatedBytes\": ")
+        .append(phase.getValue()[1])
+        .append(" }");
+      separator = ",\n";
+    }
+    out.append("\n  },\n  \"files\": ").append(this.files.size());
+    out.append(",\n  \"failed\": ").append(failed);
+    out.append(",\n  \"bytesRead\": ").append(sum(file -> file.bytesRead));
+    out
+      .append(",\n  \"bytesWritten\": ")
+      .append(sum(file -> file.bytesWritten));
+    out.append(",\n  \"tracks\": ").append(sum(file -> file.tracks));
+    out.append(",\n  \"indexes\": ").append(sum(file -> file.indexes));
+    out.append(",\n  \"job\": ");
+    aggregate(
+      out,
+      null,
+      samples(file -> new long[] { file.nanos, file.allocated })
+    );
+    out.append(",\n  \"read\": ");
+    aggregate(out, null, samples(file -> file.read));
+    out.append(",\n  \"actions\": [");
+    separator = "\n";
+    List<String> labels = labels();
+    for (String label : labels) {
+      out.append(separator).append("    ");
+      List<long[]> samples = new ArrayList<>();
+      for (FileSample file : this.files) {
+        for (ActionSample action : file.actions) {
+          if (action.label.equals(label)) {
+            samples.add(action.figures);
+          }
+        }
+      }
+      aggregate(out, label, samples);
+      separator = ",\n";
+    }
+    return out.append(labels.isEmpty() ? "]\n}\n" : "\n  ]\n}\n").toString();
+  }
+
+  /** Returns the action labels in order of first appearance. */
+  private List<String> labels() {
+    List<String> out = new ArrayList<>();
+    for (FileSample file : this.files) {
+      for (ActionSample action : file.actions) {
+        if (!out.contains(action.label)) {
+          out.add(action.label);
+        }
+      }
+    }
+    return out;
+  }
+
+  /** Returns the sum of the given figure over all files. */
+  private long sum(ToLongFunction<FileSample> figure) {
+    long out = 0;
+    for (FileSample file : this.files) {
+      out += figure.applyAsLong(file);
+    }
+    return out;
+  }
+
+  /** Returns the given figures of all files that have them. */
+  private List<long[]> samples(Function<FileSample, long[]> figures) {
+    List<long[]> out = new ArrayList<>();
+    for (FileSample file : this.files) {
+      long[] sample = figures.apply(file);
+      if (sample != null) {
+        out.add(sample);
+      }
+    }
+    return out;
+  }
+
+  /**
+   * Appends a JSON object of the given label if not null, the count, and the
+   * totals and percentiles of nanoseconds and allocated bytes of the given
+   * samples.
+   */
+  private static void aggregate(
+    StringBuilder out,
+    String label,
+    List<long[]> samples
+  ) {
+    out.append("{ ");
+    if (label != null) {
+      out.append("\"label\": ");
+      string(out, label);
+      out.append(", ");
+    }
+    out.append("\"count\": ").append(samples.size());
+    String[] names = { "nanos", "allocatedBytes" };
+    for (int i = 0; i < names.length; i++) {
+      long[] values = new long[samples.size()];
+      long total = 0;
+      for (int j = 0; j < values.length; j++) {
+        values[j] = samples.get(j)[i];
+        total = total < 0 || values[j] < 0 ? -1 : total + values[j];
+      }
+      Arrays.sort(values);
+      out.append(", \"").append(names[i]).append("\": { \"total\": ");
+      out.append(total);
+      out.append(", \"p50\": ").append(percentile(values, 50));
+      out.append(", \"p95\": ").append(percentile(values, 95));
+      out.append(", \"p99\": ").append(percentile(values, 99));
+      out.append(" }");
+    }
+    out.append(" }");
+  }
+
+  /** Returns the given nearest-rank percentile of the given sorted values. */
+  private static long percentile(long[] values, int percent) {
+    if (values.length == 0) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(percent / 100.0 * values.length);
+    return values[Math.max(rank, 1) - 1];
+  }
+
+  /** Appends the given string as a JSON string. */
+  private static void string(StringBuilder out, String string) {
+    out.append('"');
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      if (c == '"' || c == '\\') {
+        out.append('\\').append(c);
+      } else if (c < 0x20) {
+        out.append(String.format("\\u%04x", (int) c));
+      } else {
+        out.append(c);
+      }
+    }
+    out.append('"');
+  }
+
+  /** Statistics of a job on a file. */
+  public static class FileSample {
+
+    /** Actions run. */
+    final List<ActionSample> actions = new ArrayList<>();
+    /** Start in nanoseconds. */
+    final long start = System.nanoTime();
+    /** Bytes allocated by its thread at its start. */
+    final long startAllocated = allocatedBytes();
+    /** Nanoseconds and bytes allocated reading, or null if not read. */
+    long[] read;
+    /** Bytes read and written. */
+    long bytesRead, bytesWritten;
+    /** Tracks and indexes read. */
+    long tracks, indexes;
+    /** Wall time in nanoseconds. */
+    long nanos;
+    /** Allocated bytes, or -1. */
+    long allocated = -1;
+    /** Whether it succeeded. */
+    boolean success;
+
+    private FileSample() {}
+
+    /** Returns a mark to measure from. */
+    public long[] mark() {
+      return new long[] { System.nanoTime(), allocatedBytes() };
+    }
+
+    /** Records reading since the given mark. */
+    public void read(long[] mark, long tracks, long indexes) {
+      this.read = since(mark);
+      this.tracks = tracks;
+      this.indexes = indexes;
+    }
+
+    /** Records running the given action since the given mark. */
+    public void action(String label, long[] mark) {
+      this.actions.add(new ActionSample(label, since(mark)));
+    }
+
+    /** Records the end of its job. */
+    private void finish() {
+      long[] figures = since(new long[] { this.start, this.startAllocated });
+      this.nanos = figures[0];
+      this.allocated = figures[1];
+    }
+
+    /** Returns the nanoseconds and allocated bytes since the given mark. */
+    private static long[] since(long[] mark) {
+      long allocated = allocatedBytes();
+      return new long[] {
+        System.nanoTime() - mark[0],
+        allocated < 0 || mark[1] < 0 ? -1 : allocated - mark[1],
+      };
+    }
+  }
+
+  /** Statistics of an action on a file. */
+  private static class ActionSample {
+
+    /** Action label. */
+    final String label;
+    /** Nanoseconds and allocated bytes. */
+    final long[] figures;
+
+    ActionSample(String label, long[] figures) {
+      this.label = label;
+      this.figures = figures;
+    }
+  }
+}
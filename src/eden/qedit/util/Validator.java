@@ -0,0 +1,381 @@
+package eden.qedit.util;
+
+import eden.common.excep.cd.BadCueSheetException;
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Index;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+import eden.qedit.action.Field;
+import eden.qedit.excep.IndexBeyondFileException;
+import eden.qedit.io.FileProbe;
+import eden.qedit.io.MediaProbe;
+import eden.qedit.model.Diagnostic;
+import eden.qedit.model.Diagnostic.Code;
+import eden.qedit.model.LinedCueSheet;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks cuesheets for the problems of {@code CueSheets.checkSyntax} in one
+ * pass in sheet order, along with referenced files through the given probes,
+ * which may be shared among instances. Problems are reported as diagnostics
+ * with the source lines of their statements where known. It is thread-safe.
+ *
+ * @author Brendon
+ */
+public class Validator {
+
+  /** File length that stops a pass. */
+  private static final long STOP = Long.MIN_VALUE;
+  /** Subject of session problems. */
+  protected static final String SESSION = "Session";
+
+  /** Returns whether the given string is a Media Catalog Number. */
+  public static boolean isMcn(String string) {
+    return string.length() == 13 && isAlnum(string, 0, 13);
+  }
+
+  /**
+   * Returns whether the given string is an International Standard Recording
+   * Code.
+   */
+  public static boolean isIsrc(String string) {
+    if (string.length() != 12 || !isAlnum(string, 0, 5)) {
+      return false;
+    }
+    for (int i = 5; i < 12; i++) {
+      char c = string.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether the given string is ASCII alphanumeric from the first
+   * until the second given position.
+   */
+  private static boolean isAlnum(String string, int from, int to) {
+    for (int i = from; i < to; i++) {
+      char c = string.charAt(i);
+      if (
+        (c < '0' || c > '9') && (c < 'A' || c > 'Z') && (c < 'a' || c > 'z')
+      ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** File probe, or null to not probe files. */
+  private final FileProbe probe;
+  /** Media probe, or null to not probe lengths. */
+  private final MediaProbe media;
+  /** Diagnostic count to stop at, or 0 for no limit. */
+  private volatile int maxErrors = 0;
+
+  /** Makes an instance that does not probe files. */
+  public Validator() {
+    this(null, null);
+  }
+
+  /**
+   * Makes an instance with the given file and media probes, either of which
+   * may be null.
+   */
+  public Validator(FileProbe probe, MediaProbe media) {
+    this.probe = probe;
+    this.media = media;
+  }
+
+  /** Sets the diagnostic count to stop at, or 0 for no limit. */
+  public void setMaxErrors(int maxErrors) {
+    this.maxErrors = maxErrors;
+  }
+
+  /**
+   * Returns the diagnostics of the given cuesheet in sheet order, up to the
+   * maximum count if any.
+   */
+  public List<Diagnostic> validate(CueSheet sheet) {
+    Pass pass = new Pass(sheet, this.maxErrors);
+    if (this.probe != null) {
+      prefetch(sheet);
+    }
+    pass.run();
+    return pass.out;
+  }
+
+  /**
+   * Starts probing the directories of all files that the given cuesheet
+   * references.
+   */
+  private void prefetch(CueSheet sheet) {
+    List<Path> paths = new ArrayList<>();
+    if (sheet.getSession().hasCdTextFile()) {
+      paths.add(FileProbe.resolve(sheet, sheet.getSession().getCdTextFile()));
+    }
+    for (Track track : sheet.getTracks()) {
+      for (Index index : track.getIndexes()) {
+        if (index.hasFile()) {
+          paths.add(FileProbe.resolve(sheet, index.getFilePath()));
+        }
+      }
+    }
+    this.probe.prefetch(paths);
+  }
+
+  /** A pass over one cuesheet. */
+  private class Pass {
+
+    /** Cuesheet. */
+    final CueSheet sheet;
+    /** Diagnostic count to stop at, or 0 for no limit. */
+    final int max;
+    /** Diagnostics. */
+    final List<Diagnostic> out = new ArrayList<>();
+    /** Expected number of the next track, or 0 for none. */
+    int expected = 0;
+    /** Last index. */
+    Index last = null;
+    /** Length of the current file in CD frames, or unknown. */
+    long frames = MediaProbe.UNKNOWN;
+
+    /** Makes an instance of the given cuesheet and count to stop at. */
+    Pass(CueSheet sheet, int max) {
+      this.sheet = sheet;
+      this.max = max;
+    }
+
+    /** Runs itself until done or stopped. */
+    void run() {
+      Session session = this.sheet.getSession();
+      if (
+        session.hasCatalog() &&
+        !isMcn(session.getCatalog()) &&
+        add(Code.MCN_MISFORMAT, Field.CATALOG, SESSION, null)
+      ) {
+        return;
+      }
+      List<Track> tracks = session.getTracks();
+      if (tracks.isEmpty()) {
+        if (add(Code.SESSION_EMPTY, null, SESSION, null)) {
+          return;
+        }
+      } else if (
+        tracks.size() > Track.MAX_COUNT &&
+        add(Code.SESSION_OVERFLOW, null, SESSION, null)
+      ) {
+        return;
+      }
+      if (
+        session.hasCdTextFile() &&
+        probe(session.getCdTextFile(), Field.CDTEXTFILE) < 0
+      ) {
+        return;
+      }
+      if (!tracks.isEmpty()) {
+        this.expected = tracks.get(0).getNumber();
+      }
+      for (Track track : tracks) {
+        if (run(track)) {
+          return;
+        }
+      }
+    }
+
+    /** Checks the given track and returns whether the pass is to stop. */
+    boolean run(Track track) {
+      int number = track.getNumber();
+      if (!Track.isNumberValid(number)) {
+        if (add(Code.TRACK_MISNUMBER, track)) {
+          return true;
+        }
+      } else if (
+        this.expected > 0 &&
+        number != this.expected &&
+        add(Code.TRACK_UNEXPECTED, track)
+      ) {
+        return true;
+      }
+      this.expected++;
+      if (
+        track.hasIsrc() &&
+        !isIsrc(track.getIsrc()) &&
+        add(Code.ISRC_MISFORMAT, track)
+      ) {
+        return true;
+      }
+      List<Index> indexes = track.getIndexes();
+      if (indexes.isEmpty()) {
+        return add(Code.TRACK_EMPTY, track);
+      }
+      if (
+        indexes.size() > Index.MAX_COUNT && add(Code.TRACK_OVERFLOW, track)
+      ) {
+        return true;
+      }
+      int n = Index.MIN_NUMBER + 1;
+      if (indexes.get(0).getNumber() == Index.MIN_NUMBER) {
+        n = Index.MIN_NUMBER;
+        if (
+          indexes.size() == 1 &&
+          add(Code.INDEX_UNEXPECTED, number, indexes.get(0), null)
+        ) {
+          return true;
+        }
+      }
+      Index last = this.last;
+      long frames = this.frames;
+      try {
+        for (Index index : indexes) {
+          int at = index.getNumber();
+          if (!Index.isNumberValid(at)) {
+            if (add(Code.INDEX_MISNUMBER, number, index, null)) {
+              return true;
+            }
+          } else if (
+            at != n && add(Code.INDEX_UNEXPECTED, number, index, null)
+          ) {
+            return true;
+          }
+          n++;
+          if (
+            last != null &&
+            index.getFrame() < last.getFrame() &&
+            add(Code.FRAME_UNEXPECTED, number, index, null)
+          ) {
+            return true;
+          }
+          last = index;
+          if (frames != MediaProbe.UNKNOWN || index.hasFile()) {
+            frames = probe(number, index, frames);
+            if (frames == STOP) {
+              return true;
+            }
+          }
+        }
+        return false;
+      } finally {
+        this.last = last;
+        this.frames = frames;
+      }
+    }
+
+    /**
+     * Probes the file of the given index of the given track number if it has
+     * one, and checks the index against the given length of the current file.
+     * Returns the length of its file in CD frames, unknown, or {@code STOP} if
+     * the pass is to stop.
+     */
+    long probe(int track, Index index, long frames) {
+      if (index.hasFile()) {
+        int result = probe(index.getFilePath(), index);
+        if (result < 0) {
+          return STOP;
+        }
+        frames =
+          result > 0 && Validator.this.media != null
+            ? Validator.this.media.getFrames(
+                FileProbe.resolve(this.sheet, index.getFilePath()),
+                index.getFileType()
+              )
+            : MediaProbe.UNKNOWN;
+      }
+      if (
+        frames != MediaProbe.UNKNOWN &&
+        index.getFrame() >= frames &&
+        add(
+          Code.INDEX_BEYOND_FILE,
+          track,
+          index,
+          IndexBeyondFileException.makeRemedy(
+            (int) Math.min(frames, Integer.MAX_VALUE)
+          )
+        )
+      ) {
+        return STOP;
+      }
+      return frames;
+    }
+
+    /**
+     * Probes the given file referenced by the given statement and adds any
+     * problem. Returns 1 if it is a file, 0 if not, or -1 if the pass is to
+     * stop.
+     */
+    int probe(String file, Object statement) {
+      if (Validator.this.probe == null) {
+        return 0;
+      }
+      switch (Validator.this.probe.probe(FileProbe.resolve(this.sheet, file))) {
+        case ABSENT:
+          return add(Code.FILE_ABSENT, statement, file, null) ? -1 : 0;
+        case DIRECTORY:
+          return add(Code.FILE_DIRECTORY, statement, file, null) ? -1 : 0;
+        default:
+          return 1;
+      }
+    }
+
+    /**
+     * Adds a diagnostic of the given code for the given track, and returns
+     * whether the pass is to stop.
+     */
+    boolean add(Code code, Track track) {
+      long line = line(track);
+      return add(
+        code,
+        line,
+        line == LinedCueSheet.UNKNOWN
+          ? BadCueSheetException.makeSubject(track.getNumber())
+          : BadCueSheetException.makeSubject(track.getNumber(), line),
+        null
+      );
+    }
+
+    /**
+     * Adds a diagnostic of the given code and remedy, or null for that of the
+     * code, for the given index of the given track number. Returns whether the
+     * pass is to stop.
+     */
+    boolean add(Code code, int track, Index index, String remedy) {
+      long line = line(index);
+      return add(
+        code,
+        line,
+        line == LinedCueSheet.UNKNOWN
+          ? BadCueSheetException.makeSubject(track, index.getNumber())
+          : BadCueSheetException.makeSubject(track, index.getNumber(), line),
+        remedy
+      );
+    }
+
+    /**
+     * Adds a diagnostic of the given code, subject and remedy, or null for
+     * that of the code, for the given statement, which may be null. Returns
+     * whether the pass is to stop.
+     */
+    boolean add(Code code, Object statement, String subject, String remedy) {
+      return add(code, line(statement), subject, remedy);
+    }
+
+    /**
+     * Adds a diagnostic of the given code, line, subject and remedy, or null
+     * for that of the code. Returns whether the pass is to stop.
+     */
+    boolean add(Code code, long line, String subject, String remedy) {
+      this.out.add(new Diagnostic(code, line, subject, remedy));
+      return this.max > 0 && this.out.size() >= this.max;
+    }
+
+    /** Returns the source line of the given statement, if any. */
+    long line(Object statement) {
+      return statement == null
+        ? LinedCueSheet.UNKNOWN
+        : LinedCueSheet.getLine(this.sheet, statement);
+    }
+  }
+}